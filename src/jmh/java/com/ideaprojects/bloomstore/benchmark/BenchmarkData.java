@@ -0,0 +1,42 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import com.ideaprojects.bloomstore.model.*;
+import com.ideaprojects.bloomstore.service.Bouquet;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Reproducible flower mixes for the benchmarks: same seed, same flowers
+final class BenchmarkData {
+    static final long SEED = 42;
+    static final String[] COLORS = {"red", "yellow", "white", "pink", "purple"};
+
+    private BenchmarkData() {}
+
+    static List<Flower> flowers(int count) {
+        Random random = new Random(SEED);
+        LocalDate today = LocalDate.now();
+        List<Flower> flowers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double price = 1 + random.nextInt(500) / 100.0;
+            double stem = 20 + random.nextInt(600) / 10.0;
+            int freshness = random.nextInt(101);
+            LocalDate cutDate = today.minusDays(random.nextInt(10));
+            flowers.add(switch (i % 3) {
+                case 0 -> new Rose(price, stem, cutDate, freshness, random.nextInt(20));
+                case 1 -> new Tulip(price, stem, cutDate, freshness, COLORS[random.nextInt(COLORS.length)]);
+                default -> new Lily(price, stem, cutDate, freshness, random.nextBoolean());
+            });
+        }
+        return flowers;
+    }
+
+    static Bouquet bouquet(List<Flower> flowers) {
+        Bouquet bouquet = new Bouquet();
+        for (Flower f : flowers) bouquet.addFlower(f);
+        bouquet.addAccessory(Accessory.RIBBON);
+        return bouquet;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Runs the JMH suite and writes the results as JSON to benchmarks/results-<timestamp>.json,
+// so runs from different releases can be compared. Accepts the usual JMH command line options,
+// e.g. "BouquetBenchmark -p flowers=10,1000" to narrow the run.
+public class BenchmarkRunner {
+    private static final Path RESULTS_DIR = Path.of("benchmarks");
+
+    public static void main(String[] args) throws RunnerException, IOException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Files.createDirectories(RESULTS_DIR);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path results = RESULTS_DIR.resolve("results-" + stamp + ".json");
+
+        OptionsBuilder builder = new OptionsBuilder();
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackageName() + "\\..*Benchmark");
+        }
+        Options options = builder
+                .parent(commandLine)
+                .resultFormat(ResultFormatType.JSON)
+                .result(results.toString())
+                .build();
+
+        new Runner(options).run();
+        System.out.println("Results written to " + results.toAbsolutePath());
+    }
+}
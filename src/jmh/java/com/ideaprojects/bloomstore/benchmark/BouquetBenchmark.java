@@ -0,0 +1,60 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import com.ideaprojects.bloomstore.model.Flower;
+import com.ideaprojects.bloomstore.service.Bouquet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// In-memory Bouquet operations over bouquets from 10 to a million flowers
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BouquetBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    public int flowers;
+
+    private List<Flower> source;
+    private Bouquet bouquet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = BenchmarkData.flowers(flowers);
+        bouquet = BenchmarkData.bouquet(source);
+    }
+
+    // Building the whole bouquet, so the cost of keeping the aggregates current is included
+    @Benchmark
+    public Bouquet addFlower() {
+        Bouquet built = new Bouquet();
+        for (Flower f : source) built.addFlower(f);
+        return built;
+    }
+
+    @Benchmark
+    public double calculateTotalPrice() {
+        return bouquet.calculateTotalPrice();
+    }
+
+    @Benchmark
+    public Bouquet sortByFreshnessDescending() {
+        bouquet.sortByFreshnessDescending();
+        return bouquet;
+    }
+
+    // A 10 cm window out of the 20..80 cm spread, about a sixth of the flowers
+    @Benchmark
+    public List<Flower> findByStemLengthRange() {
+        return bouquet.findByStemLengthRange(40.0, 50.0);
+    }
+
+    @Benchmark
+    public void findByStemLengthRangeConsumer(Blackhole blackhole) {
+        bouquet.forEachByStemLengthRange(40.0, 50.0, blackhole::consume);
+    }
+}
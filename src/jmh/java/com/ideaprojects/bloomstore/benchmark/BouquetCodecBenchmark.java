@@ -0,0 +1,72 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import com.ideaprojects.bloomstore.service.Bouquet;
+import com.ideaprojects.bloomstore.service.BouquetCodec;
+import com.ideaprojects.bloomstore.util.DatabaseStorage;
+import com.ideaprojects.bloomstore.util.DatabaseUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// Bouquet round trips: the binary codec into a reused direct buffer, plain and deflated, against
+// saving and loading the same bouquet through the normalized SQLite tables.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BouquetCodecBenchmark {
+    @Param({"12", "1000"})
+    public int flowers;
+
+    private Path dbFile;
+    private String previousDatabase;
+    private Bouquet bouquet;
+    private ByteBuffer buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        dbFile = Files.createTempFile("bloomstore-codec", ".db");
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        DatabaseUtil.useDatabase(dbFile.toString());
+        DatabaseUtil.initializeDatabase();
+
+        bouquet = BenchmarkData.bouquet(BenchmarkData.flowers(flowers));
+        buffer = ByteBuffer.allocateDirect(2 * BouquetCodec.maxEncodedSize(bouquet));
+        System.out.printf("%n%d flowers: %d bytes plain, %d bytes deflated%n", flowers,
+                BouquetCodec.encode(bouquet, false).remaining(), BouquetCodec.encode(bouquet, true).remaining());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        DatabaseUtil.useDatabase(previousDatabase);
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(Path.of(dbFile + "-wal"));
+        Files.deleteIfExists(Path.of(dbFile + "-shm"));
+    }
+
+    @Benchmark
+    public Bouquet codecRoundTrip() {
+        buffer.clear();
+        BouquetCodec.encode(bouquet, buffer, false);
+        return BouquetCodec.decode(buffer.flip());
+    }
+
+    @Benchmark
+    public Bouquet deflatedRoundTrip() {
+        buffer.clear();
+        BouquetCodec.encode(bouquet, buffer, true);
+        return BouquetCodec.decode(buffer.flip());
+    }
+
+    @Benchmark
+    public Bouquet sqliteRoundTrip() throws SQLException {
+        return DatabaseStorage.loadBouquet(DatabaseStorage.saveBouquet(bouquet, "JMH"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import com.ideaprojects.bloomstore.model.Flower;
+import com.ideaprojects.bloomstore.service.Bouquet;
+import com.ideaprojects.bloomstore.service.ConcurrentBouquet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Clerks adding and removing flowers on one shared order while a cashier keeps pricing it.
+// ConcurrentBouquet is compared with a Bouquet behind a single monitor. Run with -t to vary
+// the writer threads of the writeOnly benchmarks.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentBouquetBenchmark {
+    // Flowers already in the order, so removals have something to search past
+    @Param({"1000"})
+    public int baseline;
+
+    private ConcurrentBouquet striped;
+    private SynchronizedBouquet synced;
+
+    // Each thread cycles over its own flowers: add one, then remove it again
+    @State(Scope.Thread)
+    public static class Clerk {
+        private List<Flower> flowers;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            flowers = BenchmarkData.flowers(64);
+        }
+
+        Flower next() {
+            Flower flower = flowers.get(next);
+            next = (next + 1) & 63;
+            return flower;
+        }
+    }
+
+    // The lock-everything alternative
+    static final class SynchronizedBouquet {
+        private final Bouquet bouquet = new Bouquet();
+
+        synchronized void addFlower(Flower flower) {
+            bouquet.addFlower(flower);
+        }
+
+        synchronized void removeFlower(Flower flower) {
+            bouquet.removeFlower(flower);
+        }
+
+        synchronized double calculateTotalPrice() {
+            return bouquet.calculateTotalPrice();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        striped = new ConcurrentBouquet();
+        synced = new SynchronizedBouquet();
+        for (Flower f : BenchmarkData.flowers(baseline)) {
+            striped.addFlower(f);
+            synced.addFlower(f);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void stripedWriteOnly(Clerk clerk) {
+        Flower flower = clerk.next();
+        striped.addFlower(flower);
+        striped.removeFlower(flower);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void synchronizedWriteOnly(Clerk clerk) {
+        Flower flower = clerk.next();
+        synced.addFlower(flower);
+        synced.removeFlower(flower);
+    }
+
+    @Benchmark
+    @Group("striped")
+    @GroupThreads(3)
+    public void stripedClerks(Clerk clerk) {
+        Flower flower = clerk.next();
+        striped.addFlower(flower);
+        striped.removeFlower(flower);
+    }
+
+    @Benchmark
+    @Group("striped")
+    @GroupThreads(1)
+    public double stripedCashier() {
+        return striped.calculateTotalPrice();
+    }
+
+    @Benchmark
+    @Group("synchronized")
+    @GroupThreads(3)
+    public void synchronizedClerks(Clerk clerk) {
+        Flower flower = clerk.next();
+        synced.addFlower(flower);
+        synced.removeFlower(flower);
+    }
+
+    @Benchmark
+    @Group("synchronized")
+    @GroupThreads(1)
+    public double synchronizedCashier() {
+        return synced.calculateTotalPrice();
+    }
+}
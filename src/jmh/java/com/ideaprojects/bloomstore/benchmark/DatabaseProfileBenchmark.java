@@ -0,0 +1,88 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import com.ideaprojects.bloomstore.model.*;
+import com.ideaprojects.bloomstore.service.Bouquet;
+import com.ideaprojects.bloomstore.util.DatabaseProfile;
+import com.ideaprojects.bloomstore.util.DatabaseStorage;
+import com.ideaprojects.bloomstore.util.DatabaseUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// saveBouquet/loadBouquet throughput under each SQLite performance profile, on a scratch
+// database per trial. Every save is its own transaction, so the synchronous level shows up directly.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class DatabaseProfileBenchmark {
+    private static final int SAVED = 2_000;
+
+    @Param({"DURABLE", "BALANCED", "THROUGHPUT"})
+    public DatabaseProfile profile;
+
+    private Path dbFile;
+    private String previousDatabase;
+    private DatabaseProfile previousProfile;
+    private Bouquet bouquet;
+    private int[] lookups;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        dbFile = Files.createTempFile("bloomstore-profile", ".db");
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        previousProfile = DatabaseUtil.getProfile();
+        DatabaseUtil.useDatabase(dbFile.toString());
+        DatabaseUtil.useProfile(profile);
+        DatabaseUtil.initializeDatabase();
+
+        bouquet = sampleBouquet();
+        int[] ids = new int[SAVED];
+        for (int i = 0; i < SAVED; i++) ids[i] = DatabaseStorage.saveBouquet(bouquet, "Profile " + i);
+
+        Random random = new Random(BenchmarkData.SEED);
+        lookups = new int[4_096];
+        for (int i = 0; i < lookups.length; i++) lookups[i] = ids[random.nextInt(ids.length)];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        DatabaseUtil.shutdown();
+        DatabaseUtil.useProfile(previousProfile);
+        DatabaseUtil.useDatabase(previousDatabase);
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(Path.of(dbFile + "-wal"));
+        Files.deleteIfExists(Path.of(dbFile + "-shm"));
+    }
+
+    @Benchmark
+    public int saveBouquet() throws SQLException {
+        return DatabaseStorage.saveBouquet(bouquet, "Profile");
+    }
+
+    @Benchmark
+    public Bouquet loadBouquet() throws SQLException {
+        int id = lookups[next];
+        next = (next + 1) % lookups.length;
+        return DatabaseStorage.loadBouquet(id);
+    }
+
+    private static Bouquet sampleBouquet() {
+        Bouquet bouquet = new Bouquet();
+        for (int i = 0; i < 12; i++) {
+            bouquet.addFlower(new Rose(3.50, 40.0 + i, LocalDate.now(), 90, 12));
+        }
+        bouquet.addAccessory(Accessory.WRAPPING);
+        return bouquet;
+    }
+}
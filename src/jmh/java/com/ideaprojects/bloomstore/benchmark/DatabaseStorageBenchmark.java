@@ -0,0 +1,104 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import com.ideaprojects.bloomstore.model.*;
+import com.ideaprojects.bloomstore.service.Bouquet;
+import com.ideaprojects.bloomstore.util.DatabaseStorage;
+import com.ideaprojects.bloomstore.util.DatabaseUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// DatabaseStorage round trips against a scratch SQLite file. The flowers table and the saved
+// bouquet hold the parameterised number of flowers; each trial starts from a fresh file.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabaseStorageBenchmark {
+    private static final int INSERT_BATCH = 5_000;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int flowers;
+
+    private Path dbFile;
+    private String previousDatabase;
+    private Bouquet bouquet;
+    private int savedId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        dbFile = Files.createTempFile("bloomstore-jmh", ".db");
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        DatabaseUtil.useDatabase(dbFile.toString());
+        DatabaseUtil.initializeDatabase();
+
+        List<Flower> source = BenchmarkData.flowers(flowers);
+        insertCatalog(source);
+        bouquet = BenchmarkData.bouquet(source);
+        savedId = DatabaseStorage.saveBouquet(bouquet, "JMH");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        DatabaseUtil.useDatabase(previousDatabase);
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(Path.of(dbFile + "-wal"));
+        Files.deleteIfExists(Path.of(dbFile + "-shm"));
+    }
+
+    // Fills the flowers table directly; DatabaseStorage only inserts the fixed sample set
+    private void insertCatalog(List<Flower> source) throws SQLException {
+        String sql = """
+            INSERT INTO flowers (type, name, price, stem_length_cm, cut_date, freshness_level,
+                                 thorn_count, color, fragrant)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            int pending = 0;
+            for (Flower f : source) {
+                pstmt.setString(1, f.getName());
+                pstmt.setString(2, f.getName());
+                pstmt.setDouble(3, f.getPrice());
+                pstmt.setDouble(4, f.getStemLengthCm());
+                pstmt.setString(5, f.getCutDate().toString());
+                pstmt.setInt(6, f.getFreshnessLevel());
+                pstmt.setObject(7, f instanceof Rose r ? r.getThornCount() : null);
+                pstmt.setString(8, f instanceof Tulip t ? t.getColor() : null);
+                pstmt.setObject(9, f instanceof Lily l ? (l.isFragrant() ? 1 : 0) : null);
+                pstmt.addBatch();
+                if (++pending == INSERT_BATCH) {
+                    pstmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            pstmt.executeBatch();
+            conn.commit();
+        }
+    }
+
+    @Benchmark
+    public int saveBouquet() throws SQLException {
+        return DatabaseStorage.saveBouquet(bouquet, "JMH");
+    }
+
+    @Benchmark
+    public Bouquet loadBouquet() throws SQLException {
+        return DatabaseStorage.loadBouquet(savedId);
+    }
+
+    @Benchmark
+    public List<Flower> loadAllFlowers() throws SQLException {
+        return DatabaseStorage.loadAllFlowers();
+    }
+}
@@ -0,0 +1,31 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import com.ideaprojects.bloomstore.model.Flower;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Flower.description for a mix of roses, tulips and lilies
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlowerBenchmark {
+    private List<Flower> flowers;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        flowers = BenchmarkData.flowers(3 * 64);
+    }
+
+    @Benchmark
+    public String description() {
+        Flower flower = flowers.get(next);
+        next = next + 1 == flowers.size() ? 0 : next + 1;
+        return flower.description();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import com.ideaprojects.bloomstore.inventory.FlowerColumns;
+import com.ideaprojects.bloomstore.model.Flower;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Filter + sum over FlowerColumns against a List<Flower> holding the same inventory (stems of
+// 30..45 cm, freshness >= 80). Run with -prof gc for the footprint: gc.alloc.rate.norm of
+// buildColumns is the bytes one column store takes for the whole inventory.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlowerColumnsBenchmark {
+    @Param({"100000", "1000000"})
+    public int flowers;
+
+    private List<Flower> list;
+    private FlowerColumns columns;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = BenchmarkData.flowers(flowers);
+        columns = FlowerColumns.of(list);
+    }
+
+    @Benchmark
+    public double scanList() {
+        double sum = 0;
+        for (Flower f : list) {
+            double len = f.getStemLengthCm();
+            if (len >= 30 && len <= 45 && f.getFreshnessLevel() >= 80) sum += f.getPrice();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double scanColumns() {
+        return columns.totalPrice(columns.select(30, 45, 80));
+    }
+
+    // Sized up front, so nothing is allocated but the columns themselves
+    @Benchmark
+    public FlowerColumns buildColumns() {
+        FlowerColumns built = new FlowerColumns(list.size());
+        for (Flower f : list) built.add(f);
+        return built;
+    }
+}
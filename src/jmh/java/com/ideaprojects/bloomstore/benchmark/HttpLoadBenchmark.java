@@ -0,0 +1,93 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import com.ideaprojects.bloomstore.http.BloomStoreServer;
+import com.ideaprojects.bloomstore.service.Bouquet;
+import com.ideaprojects.bloomstore.service.FlowerCatalog;
+import com.ideaprojects.bloomstore.util.DatabaseStorage;
+import com.ideaprojects.bloomstore.util.DatabaseUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// The HTTP API under load on localhost: every benchmark thread is one client with a request in
+// flight, so raise -t for more concurrency. SampleTime reports the latency percentiles. The
+// server runs on a scratch database with the sample catalog.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class HttpLoadBenchmark {
+    private static final String PRICE_BODY = "{\"flowers\": [1, 2, 3, 4, 5], \"accessories\": [\"RIBBON\"]}";
+
+    private Path dbFile;
+    private String previousDatabase;
+    private FlowerCatalog catalog;
+    private BloomStoreServer server;
+    private HttpClient client;
+    private HttpRequest catalogRequest;
+    private HttpRequest priceRequest;
+    private HttpRequest loadRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        dbFile = Files.createTempFile("bloomstore-http", ".db");
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        DatabaseUtil.useDatabase(dbFile.toString());
+        DatabaseUtil.initializeDatabase();
+        DatabaseStorage.initializeSampleFlowers();
+        catalog = FlowerCatalog.forDatabase(Duration.ofMinutes(5));
+        server = BloomStoreServer.start(0, catalog);
+        client = HttpClient.newHttpClient();
+
+        String base = "http://localhost:" + server.getPort();
+        catalogRequest = HttpRequest.newBuilder(URI.create(base + "/api/flowers")).GET().build();
+        priceRequest = HttpRequest.newBuilder(URI.create(base + "/api/bouquets/price"))
+                .POST(HttpRequest.BodyPublishers.ofString(PRICE_BODY)).build();
+        loadRequest = HttpRequest.newBuilder(URI.create(base + "/api/bouquets/"
+                + DatabaseStorage.saveBouquet(new Bouquet(), "Load"))).GET().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+        catalog.close();
+        DatabaseUtil.useDatabase(previousDatabase);
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(Path.of(dbFile + "-wal"));
+        Files.deleteIfExists(Path.of(dbFile + "-shm"));
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status >= 400) throw new IllegalStateException(request.uri() + " answered " + status);
+        return status;
+    }
+
+    @Benchmark
+    public int listCatalog() throws IOException, InterruptedException {
+        return send(catalogRequest);
+    }
+
+    @Benchmark
+    public int priceBouquet() throws IOException, InterruptedException {
+        return send(priceRequest);
+    }
+
+    @Benchmark
+    public int loadBouquet() throws IOException, InterruptedException {
+        return send(loadRequest);
+    }
+}
@@ -0,0 +1,119 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import com.ideaprojects.bloomstore.util.DatabaseUtil;
+import com.ideaprojects.bloomstore.util.FlowerImporter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Bulk import of a generated manifest into an empty database, CSV against JSON. Each invocation
+// imports the whole file once; rows per second is rows divided by the reported time.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Threads(1)
+@Fork(1)
+public class ImportBenchmark {
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"CSV", "JSON"})
+    public FlowerImporter.Format format;
+
+    @Param({"1", "4"})
+    public int parserThreads;
+
+    private Path dir;
+    private Path manifest;
+    private Path dbFile;
+    private String previousDatabase;
+
+    @Setup(Level.Trial)
+    public void writeManifest() throws IOException {
+        dir = Files.createTempDirectory("bloomstore-import");
+        manifest = dir.resolve(format == FlowerImporter.Format.CSV ? "manifest.csv" : "manifest.json");
+        writeManifest(rows, format, manifest);
+        previousDatabase = DatabaseUtil.getDatabasePath();
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyDatabase() throws IOException, SQLException {
+        dbFile = Files.createTempFile(dir, "import", ".db");
+        DatabaseUtil.useDatabase(dbFile.toString());
+        DatabaseUtil.initializeDatabase();
+    }
+
+    @TearDown(Level.Invocation)
+    public void dropDatabase() throws IOException {
+        DatabaseUtil.useDatabase(previousDatabase);
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(Path.of(dbFile + "-wal"));
+        Files.deleteIfExists(Path.of(dbFile + "-shm"));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteManifest() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long importManifest() throws Exception {
+        FlowerImporter.Report report = new FlowerImporter(5_000, 100_000, parserThreads).importFile(manifest);
+        if (report.rejected() > 0) throw new IllegalStateException("Rejected rows: " + report.errors());
+        return report.imported();
+    }
+
+    // Same stems as BenchmarkData.flowers, with stock
+    private static void writeManifest(int rows, FlowerImporter.Format format, Path file) throws IOException {
+        Random random = new Random(BenchmarkData.SEED);
+        LocalDate today = LocalDate.now();
+        boolean csv = format == FlowerImporter.Format.CSV;
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write(csv ? "type,price,stem_length_cm,cut_date,freshness_level,thorn_count,color,fragrant,stock\n" : "[\n");
+            for (int i = 0; i < rows; i++) {
+                String price = String.valueOf(1 + random.nextInt(500) / 100.0);
+                String stem = String.valueOf(20 + random.nextInt(600) / 10.0);
+                String cut = today.minusDays(random.nextInt(10)).toString();
+                int freshness = random.nextInt(101);
+                int stock = random.nextInt(200);
+                String common = "\"price\":" + price + ",\"stemLengthCm\":" + stem + ",\"cutDate\":\"" + cut
+                        + "\",\"freshness\":" + freshness + ",\"stock\":" + stock;
+                if (!csv && i > 0) out.write(",\n");
+                switch (i % 3) {
+                    case 0 -> {
+                        int thorns = random.nextInt(20);
+                        out.write(csv
+                                ? "Rose," + price + "," + stem + "," + cut + "," + freshness + "," + thorns + ",,," + stock + "\n"
+                                : "{\"type\":\"Rose\"," + common + ",\"thornCount\":" + thorns + "}");
+                    }
+                    case 1 -> {
+                        String color = BenchmarkData.COLORS[random.nextInt(BenchmarkData.COLORS.length)];
+                        out.write(csv
+                                ? "Tulip," + price + "," + stem + "," + cut + "," + freshness + ",," + color + ",," + stock + "\n"
+                                : "{\"type\":\"Tulip\"," + common + ",\"color\":\"" + color + "\"}");
+                    }
+                    default -> {
+                        boolean fragrant = random.nextBoolean();
+                        out.write(csv
+                                ? "Lily," + price + "," + stem + "," + cut + "," + freshness + ",,," + fragrant + "," + stock + "\n"
+                                : "{\"type\":\"Lily\"," + common + ",\"fragrant\":" + fragrant + "}");
+                    }
+                }
+            }
+            if (!csv) out.write("\n]\n");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import com.ideaprojects.bloomstore.model.*;
+import com.ideaprojects.bloomstore.service.Bouquet;
+import com.ideaprojects.bloomstore.util.DatabaseStorage;
+import com.ideaprojects.bloomstore.util.DatabaseUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// loadBouquet latency as the bouquet tables grow, with and without the bouquet_id indexes.
+// Each trial fills a scratch database once; lookups then walk a fixed random order of IDs.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class LoadBouquetBenchmark {
+    private static final int FLOWERS_PER_BOUQUET = 12;
+    private static final int SAVE_BATCH = 5_000;
+
+    @Param({"1000", "10000", "50000", "100000"})
+    public int bouquets;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private Path dbFile;
+    private String previousDatabase;
+    private int[] lookups;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        dbFile = Files.createTempFile("bloomstore-load", ".db");
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        DatabaseUtil.useDatabase(dbFile.toString());
+        DatabaseUtil.initializeDatabase();
+
+        List<Integer> ids = saveBouquets(bouquets);
+        if (!indexed) dropIndexes();
+
+        Random random = new Random(BenchmarkData.SEED);
+        lookups = new int[4_096];
+        for (int i = 0; i < lookups.length; i++) lookups[i] = ids.get(random.nextInt(ids.size()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        DatabaseUtil.useDatabase(previousDatabase);
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(Path.of(dbFile + "-wal"));
+        Files.deleteIfExists(Path.of(dbFile + "-shm"));
+    }
+
+    @Benchmark
+    public Bouquet loadBouquet() throws SQLException {
+        int id = lookups[next];
+        next = (next + 1) % lookups.length;
+        return DatabaseStorage.loadBouquet(id);
+    }
+
+    private static List<Integer> saveBouquets(int count) throws SQLException {
+        Random random = new Random(BenchmarkData.SEED);
+        List<Integer> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            Map<String, Bouquet> batch = new LinkedHashMap<>();
+            int size = Math.min(SAVE_BATCH, count - ids.size());
+            for (int i = 0; i < size; i++) {
+                batch.put("Bench " + (ids.size() + i), randomBouquet(random));
+            }
+            ids.addAll(DatabaseStorage.saveBouquets(batch).values());
+        }
+        return ids;
+    }
+
+    private static Bouquet randomBouquet(Random random) {
+        Bouquet bouquet = new Bouquet();
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < FLOWERS_PER_BOUQUET; i++) {
+            double price = 1 + random.nextInt(500) / 100.0;
+            double stem = 20 + random.nextInt(40);
+            int freshness = 50 + random.nextInt(51);
+            bouquet.addFlower(switch (i % 3) {
+                case 0 -> new Rose(price, stem, today, freshness, random.nextInt(20));
+                case 1 -> new Tulip(price, stem, today, freshness, "red");
+                default -> new Lily(price, stem, today, freshness, random.nextBoolean());
+            });
+        }
+        bouquet.addAccessory(Accessory.RIBBON);
+        return bouquet;
+    }
+
+    private static void dropIndexes() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP INDEX idx_bouquet_flowers_bouquet_id");
+            stmt.execute("DROP INDEX idx_bouquet_accessories_bouquet_id");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import com.ideaprojects.bloomstore.metrics.Metrics;
+import com.ideaprojects.bloomstore.metrics.Operation;
+import com.ideaprojects.bloomstore.model.Flower;
+import com.ideaprojects.bloomstore.service.Bouquet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// What instrumentation costs on the cheapest hot paths, with metrics off and on. bareOperation is
+// start/stop around nothing; getAverageFreshness is an uninstrumented constant-time getter shaped
+// like calculateTotalPrice, so the two differ by the instrumentation alone.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+    private static final Operation BARE = Metrics.bouquet("benchmark.bare");
+
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    private Bouquet bouquet;
+    private final List<Flower> sink = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bouquet = BenchmarkData.bouquet(BenchmarkData.flowers(12));
+        Metrics.setEnabled(enabled);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Metrics.setEnabled(false);
+    }
+
+    @Benchmark
+    public long bareOperation() {
+        long start = BARE.start();
+        BARE.stop(start, 0);
+        return start;
+    }
+
+    @Benchmark
+    public double getAverageFreshness() {
+        return bouquet.getAverageFreshness();
+    }
+
+    @Benchmark
+    public double calculateTotalPrice() {
+        return bouquet.calculateTotalPrice();
+    }
+
+    @Benchmark
+    public int findByStemLengthRange() {
+        sink.clear();
+        return bouquet.findByStemLengthRange(40.0, 50.0, sink);
+    }
+}
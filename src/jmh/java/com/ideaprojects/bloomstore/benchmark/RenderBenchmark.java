@@ -0,0 +1,73 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import com.ideaprojects.bloomstore.model.*;
+import com.ideaprojects.bloomstore.service.Bouquet;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+// Printing a 10k-stem bouquet report. Scores are per rendered line; run with "-prof gc" and read
+// gc.alloc.rate.norm for the bytes allocated per line. legacyFormat is the String.format report
+// that Bouquet.toString produced before the streaming renderer, kept here as the baseline.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(RenderBenchmark.LINES)
+public class RenderBenchmark {
+    static final int LINES = 10_000;
+
+    private Bouquet bouquet;
+    private final StringBuilder buffer = new StringBuilder(LINES * 100);
+    private final Writer sink = Writer.nullWriter();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bouquet = BenchmarkData.bouquet(BenchmarkData.flowers(LINES));
+    }
+
+    @Benchmark
+    public String legacyFormat() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Bouquet:\n");
+        for (Flower f : bouquet.getFlowers()) sb.append(" - ").append(legacyDescription(f)).append('\n');
+        for (Accessory a : bouquet.getAccessories()) {
+            sb.append(" - ").append(a.getDisplayName()).append(String.format(" (%.2f $$$)", a.getPrice())).append('\n');
+        }
+        sb.append(String.format("Total price: %.2f $$$\n", bouquet.calculateTotalPrice()));
+        return sb.toString();
+    }
+
+    private static String legacyDescription(Flower f) {
+        long days = ChronoUnit.DAYS.between(f.getCutDate(), LocalDate.now());
+        String base = String.format("%s (%.1f cm) cut %d days ago, freshness = %d%%, price = %.2f",
+                f.getName(), f.getStemLengthCm(), days, f.getFreshnessLevel(), f.getPrice());
+        if (f instanceof Rose r) return String.format("%s - thorns: %d", base, r.getThornCount());
+        if (f instanceof Tulip t) return String.format("%s - color: %s", base, t.getColor());
+        return String.format("%s - fragrant: %b", base, ((Lily) f).isFragrant());
+    }
+
+    @Benchmark
+    public String toStringReport() {
+        return bouquet.toString();
+    }
+
+    @Benchmark
+    public int renderToBuilder() throws IOException {
+        buffer.setLength(0);
+        bouquet.render(buffer);
+        return buffer.length();
+    }
+
+    @Benchmark
+    public Writer renderToWriter() throws IOException {
+        bouquet.render(sink);
+        return sink;
+    }
+}
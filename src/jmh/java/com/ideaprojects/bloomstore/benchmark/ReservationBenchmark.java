@@ -0,0 +1,64 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import com.ideaprojects.bloomstore.model.Flower;
+import com.ideaprojects.bloomstore.util.DatabaseStorage;
+import com.ideaprojects.bloomstore.util.DatabaseUtil;
+import com.ideaprojects.bloomstore.util.ReservationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Reserve/release throughput with many builders on a scratch database, either all after one
+// hot flower or spread over the catalog. Change the thread count with -t.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class ReservationBenchmark {
+    @Param({"true", "false"})
+    public boolean hotFlower;
+
+    private Path dbFile;
+    private String previousDatabase;
+    private ReservationService reservations;
+    private int[] flowerIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        dbFile = Files.createTempFile("bloomstore-reservations", ".db");
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        DatabaseUtil.useDatabase(dbFile.toString());
+        DatabaseUtil.initializeDatabase();
+        DatabaseStorage.initializeSampleFlowers();
+
+        reservations = new ReservationService();
+        List<Flower> flowers = DatabaseStorage.loadAllFlowers();
+        flowerIds = flowers.stream().mapToInt(Flower::getId).toArray();
+        for (int id : flowerIds) reservations.restock(id, 1_000_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        DatabaseUtil.useDatabase(previousDatabase);
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(Path.of(dbFile + "-wal"));
+        Files.deleteIfExists(Path.of(dbFile + "-shm"));
+    }
+
+    @Benchmark
+    public int reserveAndRelease() throws SQLException {
+        int flowerId = hotFlower ? flowerIds[0] : flowerIds[ThreadLocalRandom.current().nextInt(flowerIds.length)];
+        ReservationService.Reservation reservation = reservations.reserve(flowerId, 1).orElseThrow();
+        reservations.release(reservation.id());
+        return reservation.id();
+    }
+}
@@ -0,0 +1,68 @@
+package com.ideaprojects.bloomstore.benchmark;
+
+import com.ideaprojects.bloomstore.service.Bouquet;
+import com.ideaprojects.bloomstore.util.BouquetWriteQueue;
+import com.ideaprojects.bloomstore.util.DatabaseProfile;
+import com.ideaprojects.bloomstore.util.DatabaseStorage;
+import com.ideaprojects.bloomstore.util.DatabaseUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Order throughput with many clerks saving 12-flower bouquets: one transaction per save versus the
+// write-behind queue's group commit. The durable profile makes every commit pay a full fsync.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class WriteBehindBenchmark {
+    @Param({"DURABLE", "BALANCED"})
+    public DatabaseProfile profile;
+
+    private Path dbFile;
+    private String previousDatabase;
+    private DatabaseProfile previousProfile;
+    private BouquetWriteQueue queue;
+    private Bouquet bouquet;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        dbFile = Files.createTempFile("bloomstore-writebehind", ".db");
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        previousProfile = DatabaseUtil.getProfile();
+        DatabaseUtil.useDatabase(dbFile.toString());
+        DatabaseUtil.useProfile(profile);
+        DatabaseUtil.initializeDatabase();
+        queue = new BouquetWriteQueue(10_000, 500, Duration.ofMillis(5));
+        bouquet = BenchmarkData.bouquet(BenchmarkData.flowers(12));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        queue.close();
+        DatabaseUtil.useProfile(previousProfile);
+        DatabaseUtil.useDatabase(previousDatabase);
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(Path.of(dbFile + "-wal"));
+        Files.deleteIfExists(Path.of(dbFile + "-shm"));
+    }
+
+    @Benchmark
+    public int synchronousSave() throws SQLException {
+        return DatabaseStorage.saveBouquet(bouquet, "Order");
+    }
+
+    @Benchmark
+    public int writeBehindSave() throws InterruptedException, ExecutionException {
+        return queue.submit(bouquet, "Order").get();
+    }
+}
@@ -1,20 +1,43 @@
 package com.ideaprojects.bloomstore.app;
 
+import com.ideaprojects.bloomstore.inventory.InventorySnapshot;
 import com.ideaprojects.bloomstore.model.*;
 import com.ideaprojects.bloomstore.service.Bouquet;
+import com.ideaprojects.bloomstore.service.FlowerCatalog;
 import com.ideaprojects.bloomstore.util.*;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.file.Path;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Scanner;
 
 public class BloomStoreApp {
+    private static final Duration CATALOG_TTL = Duration.ofMinutes(5);
+    // Holds older than this are left over from sessions that never finished
+    private static final Duration STALE_RESERVATION_AGE = Duration.ofHours(2);
+    private static final Path INVENTORY_SNAPSHOT = Path.of("data", "inventory.snapshot");
+    private static final int LISTING_PAGE_SIZE = 20;
+
     private final Scanner scanner = new Scanner(System.in);
     private final Bouquet bouquet = new Bouquet();
+    private final ReservationService reservations = new ReservationService();
+    private final FreshnessDecay decay = new FreshnessDecay();
+    // Stems held for flowers added in this session, committed on save
+    private final List<ReservationService.Reservation> held = new ArrayList<>();
+    private FlowerCatalog catalog;
     private List<Flower> availableFlowers;
+    // Stock shown next to the catalog, read as rarely as the catalog itself; reserve() has the final word
+    private Map<Integer, Integer> stockLevels;
+    private Instant stockExpires = Instant.MIN;
 
     public void run() {
         System.out.println("+++++++ BloomStore Flower Store console application +++++++");
@@ -22,8 +45,12 @@ public class BloomStoreApp {
         // Initialize database
         try {
             DatabaseUtil.initializeDatabase();
+            catalog = FlowerCatalog.forDatabase(CATALOG_TTL, BloomStoreApp::loadInventory);
             DatabaseStorage.initializeSampleFlowers();
-            availableFlowers = DatabaseStorage.loadAllFlowers();
+            decay.schedule();
+            int released = reservations.releaseExpired(STALE_RESERVATION_AGE);
+            if (released > 0) System.out.println("Released " + released + " abandoned reservation(s)");
+            availableFlowers = catalog.getFlowers();
             System.out.println("Loaded " + availableFlowers.size() + " flowers from database");
         } catch (SQLException e) {
             System.err.println("Failed to initialize database: " + e.getMessage());
@@ -34,8 +61,10 @@ public class BloomStoreApp {
 
         boolean building = true;
         while (building) {
+            refreshAvailableFlowers();
             System.out.println("Choose an option to add to your bouquet:");
-            System.out.println("Hint: Flower (Price | Stem length | Freshness | Flower specific feature)");
+            System.out.println("Hint: Flower (Price | Stem length | Freshness | Flower specific feature | In stock)");
+            Map<Integer, Integer> stock = loadStockLevels();
 
             // Display flowers from a database
             for (int i = 0; i < availableFlowers.size(); i++) {
@@ -48,8 +77,9 @@ public class BloomStoreApp {
                 } else if (f instanceof Lily l) {
                     specific = l.isFragrant() ? "with aroma" : "no aroma";
                 }
-                System.out.printf("%d.    %s   (%.2f  | %.0fcm        | %d        | %-23s)\n",
-                        i + 1, f.getName(), f.getPrice(), f.getStemLengthCm(), f.getFreshnessLevel(), specific);
+                System.out.printf("%d.    %s   (%.2f  | %.0fcm        | %d        | %-23s | %d)\n",
+                        i + 1, f.getName(), f.getPrice(), f.getStemLengthCm(), f.getFreshnessLevel(), specific,
+                        stock.getOrDefault(f.getId(), 0));
             }
 
             System.out.println((availableFlowers.size() + 1) + ". Add accessory");
@@ -60,9 +90,11 @@ public class BloomStoreApp {
 
             if (choice >= 1 && choice <= availableFlowers.size()) {
                 Flower selectedFlower = availableFlowers.get(choice - 1);
-                // Create a copy of the flower to add to bouquet
-                Flower flowerCopy = copyFlower(selectedFlower);
-                bouquet.addFlower(flowerCopy);
+                if (reserveStem(selectedFlower)) {
+                    // Create a copy of the flower to add to bouquet
+                    Flower flowerCopy = copyFlower(selectedFlower);
+                    bouquet.addFlower(flowerCopy);
+                }
             } else if (choice == availableFlowers.size() + 1) {
                 boolean accessoryMenu = true;
                 while (accessoryMenu) {
@@ -121,12 +153,86 @@ public class BloomStoreApp {
                 case 0 -> {
                     System.out.println("Finishing running");
                     running = false;
+                    releaseHeld();
+                    decay.close();
+                    catalog.close();
+                    DatabaseUtil.shutdown();
                 }
                 default -> System.out.println("Invalid option, read carefully");
             }
         }
     }
 
+    // Maps the inventory snapshot instead of parsing every row; it is rebuilt when the catalog changed
+    private static List<Flower> loadInventory() throws SQLException {
+        try (InventorySnapshot snapshot = InventorySnapshot.openOrRebuild(INVENTORY_SNAPSHOT)) {
+            return snapshot.toFlowers();
+        } catch (IOException e) {
+            System.err.println("Inventory snapshot unavailable, reading the database: " + e.getMessage());
+            return DatabaseStorage.loadAllFlowers();
+        }
+    }
+
+    // Served from the catalog cache; only reloads from the database after the TTL
+    private void refreshAvailableFlowers() {
+        try {
+            availableFlowers = catalog.getFlowers();
+        } catch (SQLException e) {
+            System.err.println("Failed to refresh flowers, showing the last known list: " + e.getMessage());
+        }
+    }
+
+    // Cached for the catalog TTL; this session's own holds are applied to the cached copy
+    private Map<Integer, Integer> loadStockLevels() {
+        if (stockLevels != null && Instant.now().isBefore(stockExpires)) return stockLevels;
+        try {
+            stockLevels = reservations.stockLevels();
+            stockExpires = Instant.now().plus(CATALOG_TTL);
+            return stockLevels;
+        } catch (SQLException e) {
+            System.err.println("Failed to read stock levels: " + e.getMessage());
+            return stockLevels != null ? stockLevels : Map.of();
+        }
+    }
+
+    // Takes one stem off the shelf so no other terminal can sell it
+    private boolean reserveStem(Flower flower) {
+        try {
+            Optional<ReservationService.Reservation> reservation = reservations.reserve(flower.getId(), 1);
+            if (reservation.isEmpty()) {
+                System.out.println("Sorry, " + flower.getName() + " is out of stock.");
+                // Another terminal sold it since the stock was read
+                stockExpires = Instant.MIN;
+                return false;
+            }
+            held.add(reservation.get());
+            if (stockLevels != null) stockLevels.computeIfPresent(flower.getId(), (id, stems) -> stems - 1);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Failed to reserve flower: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void commitHeld() {
+        try {
+            for (ReservationService.Reservation r : held) reservations.commit(r.id());
+        } catch (SQLException e) {
+            System.err.println("Failed to commit reservations: " + e.getMessage());
+        }
+        held.clear();
+    }
+
+    // Puts stems back for flowers that were never sold
+    private void releaseHeld() {
+        try {
+            for (ReservationService.Reservation r : held) reservations.release(r.id());
+        } catch (SQLException e) {
+            System.err.println("Failed to release reservations: " + e.getMessage());
+        }
+        held.clear();
+    }
+
     private Flower copyFlower(Flower original) {
         if (original instanceof Rose r) {
             return new Rose(r.getPrice(), r.getStemLengthCm(), r.getCutDate(),
@@ -175,19 +281,36 @@ public class BloomStoreApp {
         }
         else {
             System.out.printf("Flowers with stem length between %.1f and %.1f cm:\n", min, max);
+            FlowerRenderer renderer = FlowerRenderer.forToday();
             for (Flower f : found) {
-                System.out.println(" - " + f.description());
+                System.out.println(" - " + renderer.describe(f));
             }
         }
     }
 
     private void showBouquet() {
         System.out.println("\nCurrent bouquet:");
-        System.out.println(bouquet);
+        // Streamed through one buffer instead of building the whole report first
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()));
+        try {
+            bouquet.render(out);
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Failed to print bouquet: " + e.getMessage());
+        }
         System.out.printf("Total price: %.2f\n", bouquet.calculateTotalPrice());
     }
 
     private void saveBouquetToDatabase() {
+        // Every stem must be held for this order: a saved bouquet is sold, and a loaded one is a
+        // record of a past order whose stems were never reserved in this session
+        int unreserved = bouquet.getFlowerCount() - held.size();
+        if (unreserved > 0) {
+            System.out.println("Cannot save: " + unreserved + " flower(s) in this bouquet hold no stock. "
+                    + "Build a new bouquet from the catalog to order them.");
+            return;
+        }
+
         System.out.print("Enter a name for this bouquet: ");
         scanner.nextLine(); // consume newline
         String name = scanner.nextLine();
@@ -195,6 +318,10 @@ public class BloomStoreApp {
         try {
             int bouquetId = DatabaseStorage.saveBouquet(bouquet, name);
             System.out.println("Bouquet saved to database with ID: " + bouquetId);
+            commitHeld();
+            // The stems are sold now; saving this bouquet again would sell them twice
+            bouquet.clear();
+            System.out.println("Its stems are sold; the current bouquet is now empty");
         } catch (SQLException e) {
             System.err.println("Failed to save bouquet to database: " + e.getMessage());
         }
@@ -202,25 +329,34 @@ public class BloomStoreApp {
 
     private void loadBouquetFromDatabase() {
         try {
-            List<String> savedBouquets = DatabaseStorage.getSavedBouquets();
-
-            if (savedBouquets.isEmpty()) {
+            // One page at a time, so a long order history is never held or printed in full
+            BouquetPage page = DatabaseStorage.listBouquets(BouquetQuery.all(), null, LISTING_PAGE_SIZE);
+            if (page.bouquets().isEmpty()) {
                 System.out.println("No saved bouquets found in database");
                 return;
             }
 
             System.out.println("Saved bouquets:");
-            for (String bouquetInfo : savedBouquets) {
-                System.out.println(bouquetInfo);
+            int id;
+            while (true) {
+                for (BouquetSummary summary : page.bouquets()) {
+                    System.out.println(summary);
+                }
+                if (!page.hasNext()) {
+                    System.out.print("Enter bouquet ID to load: ");
+                    id = readInt();
+                    break;
+                }
+                System.out.print("Enter bouquet ID to load, or 0 for older bouquets: ");
+                id = readInt();
+                if (id != 0) break;
+                page = DatabaseStorage.listBouquets(BouquetQuery.all(), page.next(), LISTING_PAGE_SIZE);
             }
 
-            System.out.print("Enter bouquet ID to load: ");
-            int id = readInt();
-
             Bouquet loaded = DatabaseStorage.loadBouquet(id);
             // Replace current bouquet
-            bouquet.getFlowers().clear();
-            bouquet.getAccessories().clear();
+            releaseHeld();
+            bouquet.clear();
 
             for (Flower f : loaded.getFlowers()) {
                 bouquet.addFlower(f);
@@ -1,7 +1,87 @@
 package com.ideaprojects.bloomstore.app;
 
+import com.ideaprojects.bloomstore.http.BloomStoreServer;
+import com.ideaprojects.bloomstore.service.FlowerCatalog;
+import com.ideaprojects.bloomstore.util.DatabaseStorage;
+import com.ideaprojects.bloomstore.util.DatabaseUtil;
+import com.ideaprojects.bloomstore.util.FlowerImporter;
+import com.ideaprojects.bloomstore.util.FreshnessDecay;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+
 public class Main {
+    private static final Duration CATALOG_TTL = Duration.ofMinutes(5);
+    private static final String USAGE = "Usage: bloomstore [--http [port] | --import <file>]";
+
+    // "--http [port]" serves the JSON API instead of the console menu;
+    // "--import <file>" loads a CSV or JSON supplier manifest into the catalog
     public static void main(String[] args) {
-        new BloomStoreApp().run();
+        if (args.length > 0 && args[0].equals("--http")) {
+            int port = BloomStoreServer.DEFAULT_PORT;
+            if (args.length > 1) {
+                try {
+                    port = parsePort(args[1]);
+                } catch (IllegalArgumentException e) {
+                    System.err.println(e.getMessage());
+                    System.err.println(USAGE);
+                    System.exit(2);
+                }
+            }
+            runHttp(port);
+        } else if (args.length > 1 && args[0].equals("--import")) {
+            runImport(Path.of(args[1]));
+        } else {
+            new BloomStoreApp().run();
+        }
+    }
+
+    // 0 lets the system pick a free port
+    private static int parsePort(String arg) {
+        int port;
+        try {
+            port = Integer.parseInt(arg);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Port must be a number: " + arg);
+        }
+        if (port < 0 || port > 65_535) throw new IllegalArgumentException("Port must be between 0 and 65535: " + arg);
+        return port;
+    }
+
+    private static void runImport(Path manifest) {
+        try {
+            DatabaseUtil.initializeDatabase();
+            FlowerImporter.Report report = new FlowerImporter().importFile(manifest);
+            System.out.println(report);
+            for (FlowerImporter.RowError error : report.errors()) {
+                System.out.println("  row " + error.row() + ": " + error.message());
+            }
+        } catch (SQLException | IOException | IllegalArgumentException e) {
+            System.err.println("Import failed: " + e.getMessage());
+        } finally {
+            DatabaseUtil.shutdown();
+        }
+    }
+
+    private static void runHttp(int port) {
+        try {
+            DatabaseUtil.initializeDatabase();
+            FlowerCatalog catalog = FlowerCatalog.forDatabase(CATALOG_TTL);
+            DatabaseStorage.initializeSampleFlowers();
+            FreshnessDecay decay = new FreshnessDecay();
+            decay.schedule();
+            BloomStoreServer server = BloomStoreServer.start(port, catalog);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                decay.close();
+                catalog.close();
+                DatabaseUtil.shutdown();
+            }));
+            System.out.println("BloomStore API listening on http://localhost:" + server.getPort() + "/api/");
+        } catch (SQLException | IOException e) {
+            System.err.println("Failed to start the HTTP server: " + e.getMessage());
+        }
     }
 }
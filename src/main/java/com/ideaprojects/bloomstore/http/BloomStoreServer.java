@@ -0,0 +1,535 @@
+package com.ideaprojects.bloomstore.http;
+
+import com.ideaprojects.bloomstore.metrics.InMemoryMetricsRegistry;
+import com.ideaprojects.bloomstore.metrics.Metrics;
+import com.ideaprojects.bloomstore.metrics.OperationSnapshot;
+import com.ideaprojects.bloomstore.model.*;
+import com.ideaprojects.bloomstore.service.Bouquet;
+import com.ideaprojects.bloomstore.service.FlowerCatalog;
+import com.ideaprojects.bloomstore.util.BouquetPage;
+import com.ideaprojects.bloomstore.util.BouquetQuery;
+import com.ideaprojects.bloomstore.util.BouquetSummary;
+import com.ideaprojects.bloomstore.util.BouquetWriteQueue;
+import com.ideaprojects.bloomstore.util.DailyRevenue;
+import com.ideaprojects.bloomstore.util.DatabaseStorage;
+import com.ideaprojects.bloomstore.util.FlowerQuery;
+import com.ideaprojects.bloomstore.util.Json;
+import com.ideaprojects.bloomstore.util.ReservationService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// JSON API over the catalog and saved bouquets, on the JDK HttpServer. Every exchange runs on its
+// own virtual thread, so requests blocked on SQLite do not tie up platform threads. Saves go
+// through a write-behind queue, so concurrent orders share a commit.
+//
+//   GET  /api/flowers?type=&minPrice=&maxPrice=&minStem=&maxStem=&minFreshness=&cutFrom=&cutTo=&color=&fragrant=
+//                                     catalog flowers, all of them or those matching every filter given
+//   GET  /api/bouquets?limit=&after=&from=&to=&name=   one page of saved bouquets, newest first;
+//                                     pass the returned "next" token as after for the next page
+//   POST /api/bouquets                save {"name", "flowers": [catalog ids], "accessories": [names]};
+//                                     the stems are taken from stock, 409 when a flower runs short
+//   GET  /api/bouquets/{id}           one saved bouquet
+//   POST /api/bouquets/price          price a bouquet described like the save body
+//   POST /api/bouquets/sort           its flowers, freshest first
+//   POST /api/bouquets/search?minStem=&maxStem=   its flowers in the stem length range
+//   GET  /api/reports/revenue?from=&to=   bouquets, flowers and revenue per day (default: last 30 days)
+//   GET  /api/metrics                 operation counters and latencies of the built-in registry
+public class BloomStoreServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final int BACKLOG = 4096;
+    private static final int MAX_BODY_BYTES = 1 << 20;
+    private static final int STOP_DELAY_SECONDS = 1;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int REVENUE_DEFAULT_DAYS = 30;
+    // Open ends of a from/to range; created and cut dates are stored as four-digit ISO dates
+    private static final LocalDate FIRST_LISTED_DAY = LocalDate.of(1, 1, 1);
+    private static final LocalDate LAST_LISTED_DAY = LocalDate.of(9999, 12, 31);
+    private static final List<String> FLOWER_TYPES = List.of("Rose", "Tulip", "Lily");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final FlowerCatalog catalog;
+    private final BouquetWriteQueue writes;
+    private final ReservationService reservations = new ReservationService();
+
+    private BloomStoreServer(HttpServer server, ExecutorService executor, FlowerCatalog catalog,
+                             BouquetWriteQueue writes) {
+        this.server = server;
+        this.executor = executor;
+        this.catalog = catalog;
+        this.writes = writes;
+    }
+
+    // Port 0 picks a free port; see getPort()
+    public static BloomStoreServer start(int port, FlowerCatalog catalog) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        BloomStoreServer api = new BloomStoreServer(server, executor, catalog, new BouquetWriteQueue());
+        server.createContext("/api/", api::handle);
+        server.setExecutor(executor);
+        server.start();
+        return api;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.close();
+        writes.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            int status;
+            Object body;
+            try {
+                Response response = route(exchange);
+                status = response.status();
+                body = response.body();
+            } catch (HttpError e) {
+                status = e.status;
+                body = error(e.getMessage());
+            } catch (IllegalArgumentException e) {
+                status = 400;
+                body = error(e.getMessage());
+            } catch (SQLException | RuntimeException e) {
+                // Details stay in the server log; messages can carry SQL and class names
+                System.err.println("Request " + exchange.getRequestMethod() + " " + exchange.getRequestURI()
+                        + " failed: " + e);
+                e.printStackTrace();
+                status = 500;
+                body = error("Internal server error");
+            }
+            send(exchange, status, body);
+        }
+    }
+
+    private record Response(int status, Object body) {
+        static Response ok(Object body) {
+            return new Response(200, body);
+        }
+    }
+
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        private HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private Response route(HttpExchange exchange) throws IOException, SQLException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if (path.length() > 1 && path.endsWith("/")) path = path.substring(0, path.length() - 1);
+
+        switch (path) {
+            case "/api/flowers" -> {
+                requireMethod(method, "GET");
+                return Response.ok(Map.of("flowers", flowersJson(findFlowers(queryParameters(exchange)))));
+            }
+            case "/api/bouquets" -> {
+                if (method.equals("GET")) {
+                    return Response.ok(listBouquets(queryParameters(exchange)));
+                }
+                requireMethod(method, "POST");
+                Map<String, Object> request = readBody(exchange);
+                Object name = request.get("name");
+                if (!(name instanceof String s) || s.isBlank()) throw new IllegalArgumentException("name is required");
+                return new Response(201, Map.of("id", save(bouquetFrom(request), s)));
+            }
+            case "/api/bouquets/price" -> {
+                requireMethod(method, "POST");
+                Bouquet bouquet = bouquetFrom(readBody(exchange));
+                return Response.ok(priceJson(bouquet));
+            }
+            case "/api/bouquets/sort" -> {
+                requireMethod(method, "POST");
+                Bouquet bouquet = bouquetFrom(readBody(exchange));
+                bouquet.sortByFreshnessDescending();
+                return Response.ok(Map.of("flowers", flowersJson(bouquet.getFlowers())));
+            }
+            case "/api/bouquets/search" -> {
+                requireMethod(method, "POST");
+                Map<String, String> query = queryParameters(exchange);
+                double min = doubleParameter(query, "minStem", 0.0);
+                double max = doubleParameter(query, "maxStem", Double.MAX_VALUE);
+                if (min > max) throw new IllegalArgumentException("minStem must not exceed maxStem");
+                Bouquet bouquet = bouquetFrom(readBody(exchange));
+                return Response.ok(Map.of("flowers", flowersJson(bouquet.findByStemLengthRange(min, max))));
+            }
+            case "/api/reports/revenue" -> {
+                requireMethod(method, "GET");
+                return Response.ok(revenueJson(queryParameters(exchange)));
+            }
+            case "/api/metrics" -> {
+                requireMethod(method, "GET");
+                return Response.ok(metricsJson());
+            }
+            default -> {
+                if (path.startsWith("/api/bouquets/")) {
+                    requireMethod(method, "GET");
+                    return loadBouquet(path.substring("/api/bouquets/".length()));
+                }
+                throw new HttpError(404, "No such endpoint: " + path);
+            }
+        }
+    }
+
+    // Holds the stems first, like the console app, so the API cannot sell stock it does not have.
+    // The holds are committed once the write lands and released if it fails.
+    private int save(Bouquet bouquet, String name) throws SQLException {
+        List<ReservationService.Reservation> held = reserveStems(bouquet);
+        CompletableFuture<Integer> saved;
+        try {
+            saved = writes.submit(bouquet, name);
+        } catch (InterruptedException e) {
+            releaseAll(held);
+            Thread.currentThread().interrupt();
+            throw new HttpError(503, "Interrupted while saving");
+        } catch (RuntimeException e) {
+            releaseAll(held);
+            throw e;
+        }
+        // Settled with the write itself, even when this request stops waiting for it
+        saved.whenCompleteAsync((id, failure) -> {
+            if (failure == null) commitAll(held);
+            else releaseAll(held);
+        }, executor);
+
+        try {
+            return saved.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpError(503, "Interrupted while saving");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sql) throw sql;
+            throw new IllegalStateException("Save failed", e.getCause());
+        }
+    }
+
+    // One hold per catalog flower for all of its stems; whatever was taken is put back on failure
+    private List<ReservationService.Reservation> reserveStems(Bouquet bouquet) throws SQLException {
+        Map<Integer, Integer> stems = new TreeMap<>();
+        for (Flower flower : bouquet.getFlowers()) stems.merge(flower.getId(), 1, Integer::sum);
+
+        List<ReservationService.Reservation> held = new ArrayList<>(stems.size());
+        try {
+            for (Map.Entry<Integer, Integer> entry : stems.entrySet()) {
+                ReservationService.Reservation reservation = reservations.reserve(entry.getKey(), entry.getValue())
+                        .orElseThrow(() -> new HttpError(409, "Not enough stock for flower " + entry.getKey()));
+                held.add(reservation);
+            }
+        } catch (SQLException | RuntimeException e) {
+            releaseAll(held);
+            throw e;
+        }
+        return held;
+    }
+
+    private void commitAll(List<ReservationService.Reservation> held) {
+        for (ReservationService.Reservation reservation : held) {
+            try {
+                reservations.commit(reservation.id());
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("Failed to commit reservation " + reservation.id() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Best effort; a hold that cannot be released is left to ReservationService.releaseExpired
+    private void releaseAll(List<ReservationService.Reservation> held) {
+        for (ReservationService.Reservation reservation : held) {
+            try {
+                reservations.release(reservation.id());
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("Failed to release reservation " + reservation.id() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Response loadBouquet(String idText) throws SQLException {
+        int id;
+        try {
+            id = Integer.parseInt(idText);
+        } catch (NumberFormatException e) {
+            throw new HttpError(404, "No such endpoint: /api/bouquets/" + idText);
+        }
+        BouquetSummary summary = DatabaseStorage.getBouquetSummary(id)
+                .orElseThrow(() -> new HttpError(404, "No bouquet with id " + id));
+
+        Bouquet bouquet = DatabaseStorage.loadBouquet(id);
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", id);
+        json.put("name", summary.name());
+        json.put("createdDate", summary.createdDate().toString());
+        json.put("flowers", flowersJson(bouquet.getFlowers()));
+        json.put("accessories", bouquet.getAccessories());
+        json.putAll(priceJson(bouquet));
+        return Response.ok(json);
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!method.equals(expected)) throw new HttpError(405, "Use " + expected);
+    }
+
+    // Builds a bouquet from catalog flower ids (repeat an id for several stems) and accessory names
+    private Bouquet bouquetFrom(Map<String, Object> request) throws SQLException {
+        Bouquet bouquet = new Bouquet();
+        for (Object item : listField(request, "flowers")) {
+            if (!(item instanceof Long id) || id < 1 || id > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("flowers must hold catalog ids");
+            }
+            Flower flower = catalog.findById(id.intValue())
+                    .orElseThrow(() -> new IllegalArgumentException("No flower with id " + id));
+            bouquet.addFlower(flower);
+        }
+        for (Object item : listField(request, "accessories")) {
+            if (!(item instanceof String name)) throw new IllegalArgumentException("accessories must hold names");
+            bouquet.addAccessory(Accessory.valueOf(name.toUpperCase(Locale.ROOT)));
+        }
+        return bouquet;
+    }
+
+    private static List<?> listField(Map<String, Object> request, String field) {
+        Object value = request.get(field);
+        if (value == null) return List.of();
+        if (!(value instanceof List<?> list)) throw new IllegalArgumentException(field + " must be an array");
+        return list;
+    }
+
+    private static Map<String, Object> priceJson(Bouquet bouquet) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("totalPrice", bouquet.calculateTotalPrice());
+        json.put("flowerCount", bouquet.getFlowerCount());
+        json.put("accessoryCount", bouquet.getAccessories().size());
+        json.put("averageFreshness", bouquet.getAverageFreshness());
+        return json;
+    }
+
+    // The whole catalog without filters; otherwise FlowerCatalog.find, which filters its snapshot
+    // or, when it has none loaded, lets the flowers table indexes do it
+    private List<Flower> findFlowers(Map<String, String> parameters) throws SQLException {
+        if (parameters.isEmpty()) return catalog.getFlowers();
+        FlowerQuery query = FlowerQuery.all();
+        String type = parameters.get("type");
+        if (type != null && !type.isEmpty()) {
+            if (!FLOWER_TYPES.contains(type)) throw new IllegalArgumentException("type must be one of " + FLOWER_TYPES);
+            query.type(type);
+        }
+        if (parameters.containsKey("minPrice") || parameters.containsKey("maxPrice")) {
+            double min = doubleParameter(parameters, "minPrice", 0.0);
+            double max = doubleParameter(parameters, "maxPrice", Double.MAX_VALUE);
+            if (min > max) throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+            query.priceBetween(min, max);
+        }
+        if (parameters.containsKey("minStem") || parameters.containsKey("maxStem")) {
+            double min = doubleParameter(parameters, "minStem", 0.0);
+            double max = doubleParameter(parameters, "maxStem", Double.MAX_VALUE);
+            if (min > max) throw new IllegalArgumentException("minStem must not exceed maxStem");
+            query.stemLengthBetween(min, max);
+        }
+        if (parameters.containsKey("minFreshness")) {
+            query.minFreshness((int) doubleParameter(parameters, "minFreshness", 0));
+        }
+        if (parameters.containsKey("cutFrom") || parameters.containsKey("cutTo")) {
+            LocalDate from = dateParameter(parameters, "cutFrom", FIRST_LISTED_DAY);
+            LocalDate to = dateParameter(parameters, "cutTo", LAST_LISTED_DAY);
+            if (from.isAfter(to)) throw new IllegalArgumentException("cutFrom must not be after cutTo");
+            query.cutBetween(from, to);
+        }
+        String color = parameters.get("color");
+        if (color != null && !color.isEmpty()) query.color(color);
+        String fragrant = parameters.get("fragrant");
+        if (fragrant != null && !fragrant.isEmpty()) {
+            if (!fragrant.equals("true") && !fragrant.equals("false")) {
+                throw new IllegalArgumentException("fragrant must be true or false");
+            }
+            query.fragrant(Boolean.parseBoolean(fragrant));
+        }
+        return catalog.find(query);
+    }
+
+    private static Map<String, Object> listBouquets(Map<String, String> parameters) throws SQLException {
+        BouquetQuery query = BouquetQuery.all();
+        if (parameters.containsKey("from") || parameters.containsKey("to")) {
+            query.createdBetween(dateParameter(parameters, "from", FIRST_LISTED_DAY),
+                    dateParameter(parameters, "to", LAST_LISTED_DAY));
+        }
+        String name = parameters.get("name");
+        if (name != null && !name.isEmpty()) query.nameContains(name);
+        String after = parameters.get("after");
+        BouquetPage.Cursor cursor = after == null || after.isEmpty() ? null : BouquetPage.Cursor.fromToken(after);
+        int limit = (int) doubleParameter(parameters, "limit", DEFAULT_PAGE_SIZE);
+
+        BouquetPage page = DatabaseStorage.listBouquets(query, cursor, limit);
+        List<Map<String, Object>> bouquets = new ArrayList<>(page.bouquets().size());
+        for (BouquetSummary summary : page.bouquets()) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("id", summary.id());
+            json.put("name", summary.name());
+            json.put("createdDate", summary.createdDate().toString());
+            json.put("totalPrice", summary.totalPrice());
+            json.put("flowerCount", summary.flowerCount());
+            json.put("accessoryCount", summary.accessoryCount());
+            json.put("averageFreshness", summary.averageFreshness());
+            bouquets.add(json);
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("bouquets", bouquets);
+        json.put("next", page.hasNext() ? page.next().token() : null);
+        return json;
+    }
+
+    private static Map<String, Object> revenueJson(Map<String, String> parameters) throws SQLException {
+        LocalDate to = dateParameter(parameters, "to", LocalDate.now());
+        LocalDate from = dateParameter(parameters, "from", to.minusDays(REVENUE_DEFAULT_DAYS - 1));
+        List<Map<String, Object>> days = new ArrayList<>();
+        double total = 0.0;
+        for (DailyRevenue day : DatabaseStorage.dailyRevenue(from, to)) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("date", day.date().toString());
+            json.put("bouquets", day.bouquets());
+            json.put("flowers", day.flowers());
+            json.put("revenue", day.revenue());
+            days.add(json);
+            total += day.revenue();
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("from", from.toString());
+        json.put("to", to.toString());
+        json.put("days", days);
+        json.put("totalRevenue", total);
+        return json;
+    }
+
+    private static LocalDate dateParameter(Map<String, String> query, String name, LocalDate defaultValue) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) return defaultValue;
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be a date like 2025-10-18");
+        }
+    }
+
+    private static Map<String, Object> metricsJson() {
+        List<Map<String, Object>> operations = new ArrayList<>();
+        if (Metrics.getRegistry() instanceof InMemoryMetricsRegistry registry) {
+            for (OperationSnapshot snapshot : registry.snapshot()) {
+                Map<String, Object> json = new LinkedHashMap<>();
+                json.put("operation", snapshot.operation());
+                json.put("calls", snapshot.calls());
+                json.put("failures", snapshot.failures());
+                json.put("rows", snapshot.rows());
+                json.put("meanMicros", snapshot.meanMicros());
+                json.put("p50Micros", snapshot.p50Nanos() / 1_000.0);
+                json.put("p99Micros", snapshot.p99Nanos() / 1_000.0);
+                json.put("maxMicros", snapshot.maxNanos() / 1_000.0);
+                operations.add(json);
+            }
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("enabled", Metrics.isEnabled());
+        json.put("operations", operations);
+        return json;
+    }
+
+    private static List<Map<String, Object>> flowersJson(List<Flower> flowers) {
+        List<Map<String, Object>> json = new ArrayList<>(flowers.size());
+        for (Flower f : flowers) json.add(flowerJson(f));
+        return json;
+    }
+
+    static Map<String, Object> flowerJson(Flower flower) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", flower.getId());
+        json.put("type", flower.getName());
+        json.put("price", flower.getPrice());
+        json.put("stemLengthCm", flower.getStemLengthCm());
+        json.put("cutDate", flower.getCutDate().toString());
+        json.put("freshness", flower.getFreshnessLevel());
+        if (flower instanceof Rose r) {
+            json.put("thornCount", r.getThornCount());
+        } else if (flower instanceof Tulip t) {
+            json.put("color", t.getColor());
+        } else if (flower instanceof Lily l) {
+            json.put("fragrant", l.isFragrant());
+        }
+        return json;
+    }
+
+    private static Map<String, Object> error(String message) {
+        return Map.of("error", message == null ? "Bad request" : message);
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) throw new HttpError(413, "Request body too large");
+            if (bytes.length == 0) return Map.of();
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) return parameters;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            parameters.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static double doubleParameter(Map<String, String> query, String name, double defaultValue) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) return defaultValue;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = Json.stringify(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
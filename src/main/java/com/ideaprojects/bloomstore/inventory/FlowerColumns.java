@@ -0,0 +1,273 @@
+package com.ideaprojects.bloomstore.inventory;
+
+import com.ideaprojects.bloomstore.model.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Struct-of-arrays flower inventory: one primitive array per attribute instead of one object
+// per stem. Filters and aggregates run over the arrays; Flower objects are only built on request.
+public final class FlowerColumns {
+    public static final byte ROSE = 0;
+    public static final byte TULIP = 1;
+    public static final byte LILY = 2;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    @FunctionalInterface
+    public interface RowFilter {
+        boolean test(FlowerColumns columns, int row);
+    }
+
+    private int size;
+    private byte[] types;
+    private int[] ids;
+    private double[] prices;
+    private double[] stemLengths;
+    private byte[] freshness;
+    private int[] cutEpochDays;
+    private int[] thornCounts;          // Rose
+    private short[] colorCodes;         // Tulip, index into colorDictionary
+    private final BitSet fragrant = new BitSet(); // Lily
+
+    private final List<String> colorDictionary = new ArrayList<>();
+    private final Map<String, Short> colorCodesByName = new HashMap<>();
+
+    public FlowerColumns() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FlowerColumns(int capacity) {
+        int initial = Math.max(1, capacity);
+        types = new byte[initial];
+        ids = new int[initial];
+        prices = new double[initial];
+        stemLengths = new double[initial];
+        freshness = new byte[initial];
+        cutEpochDays = new int[initial];
+        thornCounts = new int[initial];
+        colorCodes = new short[initial];
+    }
+
+    public static FlowerColumns of(Iterable<Flower> flowers) {
+        FlowerColumns columns = new FlowerColumns();
+        for (Flower f : flowers) columns.add(f);
+        return columns;
+    }
+
+    // Appends a flower and returns its row
+    public int add(Flower flower) {
+        if (flower instanceof Rose r) {
+            return addRose(r.getId(), r.getPrice(), r.getStemLengthCm(), r.getCutDate().toEpochDay(),
+                    r.getFreshnessLevel(), r.getThornCount());
+        } else if (flower instanceof Tulip t) {
+            return addTulip(t.getId(), t.getPrice(), t.getStemLengthCm(), t.getCutDate().toEpochDay(),
+                    t.getFreshnessLevel(), t.getColor());
+        } else if (flower instanceof Lily l) {
+            return addLily(l.getId(), l.getPrice(), l.getStemLengthCm(), l.getCutDate().toEpochDay(),
+                    l.getFreshnessLevel(), l.isFragrant());
+        }
+        throw new IllegalArgumentException("Unsupported flower type: " + flower.getClass().getSimpleName());
+    }
+
+    public int addRose(int id, double price, double stemLengthCm, long cutEpochDay, int freshnessLevel,
+                       int thornCount) {
+        int row = appendCommon(ROSE, id, price, stemLengthCm, cutEpochDay, freshnessLevel);
+        thornCounts[row] = Math.max(0, thornCount);
+        return row;
+    }
+
+    public int addTulip(int id, double price, double stemLengthCm, long cutEpochDay, int freshnessLevel,
+                        String color) {
+        int row = appendCommon(TULIP, id, price, stemLengthCm, cutEpochDay, freshnessLevel);
+        colorCodes[row] = colorCode(color == null ? "mixed" : color);
+        return row;
+    }
+
+    public int addLily(int id, double price, double stemLengthCm, long cutEpochDay, int freshnessLevel,
+                       boolean isFragrant) {
+        int row = appendCommon(LILY, id, price, stemLengthCm, cutEpochDay, freshnessLevel);
+        fragrant.set(row, isFragrant);
+        return row;
+    }
+
+    private int appendCommon(byte type, int id, double price, double stemLengthCm, long cutEpochDay,
+                             int freshnessLevel) {
+        if (size == types.length) grow();
+        int row = size++;
+        types[row] = type;
+        ids[row] = id;
+        prices[row] = price;
+        stemLengths[row] = stemLengthCm;
+        cutEpochDays[row] = Math.toIntExact(cutEpochDay);
+        freshness[row] = (byte) clampFreshness(freshnessLevel);
+        return row;
+    }
+
+    private void grow() {
+        int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        stemLengths = Arrays.copyOf(stemLengths, capacity);
+        freshness = Arrays.copyOf(freshness, capacity);
+        cutEpochDays = Arrays.copyOf(cutEpochDays, capacity);
+        thornCounts = Arrays.copyOf(thornCounts, capacity);
+        colorCodes = Arrays.copyOf(colorCodes, capacity);
+    }
+
+    private short colorCode(String color) {
+        Short code = colorCodesByName.get(color);
+        if (code == null) {
+            if (colorDictionary.size() > Short.MAX_VALUE) throw new IllegalStateException("Too many distinct colors");
+            code = (short) colorDictionary.size();
+            colorDictionary.add(color);
+            colorCodesByName.put(color, code);
+        }
+        return code;
+    }
+
+    private static int clampFreshness(int level) {
+        return Math.max(0, Math.min(100, level));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte type(int row) {
+        return types[checkRow(row)];
+    }
+
+    public int id(int row) {
+        return ids[checkRow(row)];
+    }
+
+    public double price(int row) {
+        return prices[checkRow(row)];
+    }
+
+    public double stemLengthCm(int row) {
+        return stemLengths[checkRow(row)];
+    }
+
+    public int freshness(int row) {
+        return freshness[checkRow(row)];
+    }
+
+    public int cutEpochDay(int row) {
+        return cutEpochDays[checkRow(row)];
+    }
+
+    public int thornCount(int row) {
+        return type(row) == ROSE ? thornCounts[row] : 0;
+    }
+
+    public String color(int row) {
+        return type(row) == TULIP ? colorDictionary.get(colorCodes[row]) : null;
+    }
+
+    public boolean fragrant(int row) {
+        return type(row) == LILY && fragrant.get(row);
+    }
+
+    public void setFreshness(int row, int level) {
+        freshness[checkRow(row)] = (byte) clampFreshness(level);
+    }
+
+    public void setPrice(int row, double price) {
+        if (price < 0) throw new IllegalArgumentException("Price cannot be negative");
+        prices[checkRow(row)] = price;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        return row;
+    }
+
+    // Builds a standalone Flower for one row; later changes to either side are not shared
+    public Flower toFlower(int row) {
+        LocalDate cutDate = LocalDate.ofEpochDay(cutEpochDay(row));
+        Flower flower = switch (types[row]) {
+            case ROSE -> new Rose(prices[row], stemLengths[row], cutDate, freshness[row], thornCounts[row]);
+            case TULIP -> new Tulip(prices[row], stemLengths[row], cutDate, freshness[row],
+                    colorDictionary.get(colorCodes[row]));
+            case LILY -> new Lily(prices[row], stemLengths[row], cutDate, freshness[row], fragrant.get(row));
+            default -> throw new IllegalStateException("Unknown type code " + types[row]);
+        };
+        flower.setId(ids[row]);
+        return flower;
+    }
+
+    public List<Flower> toFlowers(int[] rows) {
+        List<Flower> flowers = new ArrayList<>(rows.length);
+        for (int row : rows) flowers.add(toFlower(row));
+        return flowers;
+    }
+
+    // Rows matching the filter, ascending
+    public int[] filter(RowFilter filter) {
+        int[] rows = new int[Math.min(size, 16)];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (filter.test(this, row)) {
+                if (count == rows.length) rows = Arrays.copyOf(rows, Math.max(16, count * 2));
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    // Tight loop over the primitive columns for the common catalog search
+    public int[] select(double minStemCm, double maxStemCm, int minFreshness) {
+        int[] rows = new int[Math.min(size, 16)];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            double len = stemLengths[row];
+            if (len >= minStemCm && len <= maxStemCm && freshness[row] >= minFreshness) {
+                if (count == rows.length) rows = Arrays.copyOf(rows, Math.max(16, count * 2));
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    public int countWhere(RowFilter filter) {
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (filter.test(this, row)) count++;
+        }
+        return count;
+    }
+
+    public double totalPrice() {
+        double sum = 0.0;
+        for (int row = 0; row < size; row++) sum += prices[row];
+        return sum;
+    }
+
+    public double totalPrice(int[] rows) {
+        double sum = 0.0;
+        for (int row : rows) sum += prices[row];
+        return sum;
+    }
+
+    public double averageFreshness() {
+        if (size == 0) return 0.0;
+        long sum = 0;
+        for (int row = 0; row < size; row++) sum += freshness[row];
+        return (double) sum / size;
+    }
+
+    // Number of rows per type, indexed by ROSE, TULIP and LILY
+    public int[] countByType() {
+        int[] counts = new int[3];
+        for (int row = 0; row < size; row++) counts[types[row]]++;
+        return counts;
+    }
+}
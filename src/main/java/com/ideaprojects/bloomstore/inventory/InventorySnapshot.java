@@ -0,0 +1,386 @@
+package com.ideaprojects.bloomstore.inventory;
+
+import com.ideaprojects.bloomstore.model.*;
+import com.ideaprojects.bloomstore.util.DatabaseStorage;
+import com.ideaprojects.bloomstore.util.FlowerQuery;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+// Off-heap copy of the flowers table: fixed-width records in a memory-mapped file, ordered by id.
+// Reads and freshness updates go straight to the mapped pages, so a warm start only maps the file.
+// The header keeps the catalog revision it was written at; a different revision means it is stale.
+// Colors have any length, so records hold an index into a table of distinct colors after the records.
+public final class InventorySnapshot implements AutoCloseable {
+    private static final int MAGIC = 0x424C4D53; // "BLMS"
+    private static final short FORMAT_VERSION = 2;
+
+    // Header: magic, format version, record size, record count, catalog revision, color count
+    static final int HEADER_SIZE = 32;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int RECORD_SIZE_OFFSET = 6;
+    private static final int COUNT_OFFSET = 8;
+    private static final int REVISION_OFFSET = 16;
+    private static final int COLOR_COUNT_OFFSET = 24;
+
+    // Record: id, type, freshness, fragrant, price, stem length, cut day, thorns, color index
+    static final int RECORD_SIZE = 40;
+    private static final int ID = 0;
+    private static final int TYPE = 4;
+    private static final int FRESHNESS = 5;
+    private static final int FRAGRANT = 6;
+    private static final int PRICE = 8;
+    private static final int STEM_LENGTH = 16;
+    private static final int CUT_DAY = 24;
+    private static final int THORNS = 28;
+    private static final int COLOR = 32;
+
+    private static final int WRITE_CHUNK_RECORDS = 1024;
+
+    @FunctionalInterface
+    public interface RecordFilter {
+        boolean test(InventorySnapshot snapshot, int record);
+    }
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int size;
+    private final long revision;
+    private final String[] colors;
+
+    private InventorySnapshot(Path file, MappedByteBuffer buffer, int size, long revision, String[] colors) {
+        this.file = file;
+        this.buffer = buffer;
+        this.size = size;
+        this.revision = revision;
+        this.colors = colors;
+    }
+
+    // Warm start: maps the file when it matches the current catalog revision, otherwise rebuilds it
+    public static InventorySnapshot openOrRebuild(Path file) throws SQLException, IOException {
+        long current = DatabaseStorage.getCatalogRevision();
+        if (Files.exists(file)) {
+            try {
+                InventorySnapshot snapshot = open(file);
+                if (snapshot.revision() == current) return snapshot;
+                System.out.println("Inventory snapshot is stale (revision " + snapshot.revision()
+                        + ", database " + current + "), rebuilding");
+            } catch (IOException e) {
+                System.err.println("Inventory snapshot is unreadable, rebuilding: " + e.getMessage());
+            }
+        }
+        return write(file);
+    }
+
+    // Writes every catalog flower to a new snapshot file and maps it. The file is written next to
+    // the target and moved into place, so an open snapshot never sees a half-written file.
+    public static InventorySnapshot write(Path file) throws SQLException, IOException {
+        // Read before the rows: a change made during the scan leaves the snapshot stale, never falsely current
+        long revision = DatabaseStorage.getCatalogRevision();
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            int count;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                 Stream<Flower> flowers = DatabaseStorage.streamFlowers(FlowerQuery.all())) {
+                Map<String, Integer> colors = new LinkedHashMap<>();
+                count = writeRecords(channel, flowers.iterator(), colors);
+                writeColors(channel, colors.keySet(), HEADER_SIZE + (long) count * RECORD_SIZE);
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC_OFFSET, MAGIC)
+                        .putShort(VERSION_OFFSET, FORMAT_VERSION)
+                        .putShort(RECORD_SIZE_OFFSET, (short) RECORD_SIZE)
+                        .putInt(COUNT_OFFSET, count)
+                        .putLong(REVISION_OFFSET, revision)
+                        .putInt(COLOR_COUNT_OFFSET, colors.size());
+                channel.write(header, 0);
+                channel.force(true);
+            }
+            move(temp, file);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return open(file);
+    }
+
+    private static int writeRecords(FileChannel channel, Iterator<Flower> flowers, Map<String, Integer> colors)
+            throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocateDirect(WRITE_CHUNK_RECORDS * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        long position = HEADER_SIZE;
+        int count = 0;
+        while (flowers.hasNext()) {
+            encode(chunk, flowers.next(), colors);
+            count++;
+            if (!chunk.hasRemaining()) {
+                position += flush(channel, chunk, position);
+            }
+        }
+        flush(channel, chunk, position);
+        return count;
+    }
+
+    private static int flush(FileChannel channel, ByteBuffer chunk, long position) throws IOException {
+        chunk.flip();
+        int written = 0;
+        while (chunk.hasRemaining()) {
+            written += channel.write(chunk, position + written);
+        }
+        chunk.clear();
+        return written;
+    }
+
+    // Color table: for each distinct color, its UTF-8 length and bytes
+    private static void writeColors(FileChannel channel, Collection<String> colors, long position) throws IOException {
+        List<byte[]> encoded = new ArrayList<>(colors.size());
+        int size = 0;
+        for (String color : colors) {
+            byte[] bytes = color.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            size += 4 + bytes.length;
+        }
+        ByteBuffer table = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        for (byte[] bytes : encoded) table.putInt(bytes.length).put(bytes);
+        table.flip();
+        while (table.hasRemaining()) {
+            position += channel.write(table, position);
+        }
+    }
+
+    private static void encode(ByteBuffer chunk, Flower flower, Map<String, Integer> colors) {
+        int base = chunk.position();
+        chunk.putInt(base + ID, flower.getId());
+        chunk.put(base + FRESHNESS, (byte) flower.getFreshnessLevel());
+        chunk.putDouble(base + PRICE, flower.getPrice());
+        chunk.putDouble(base + STEM_LENGTH, flower.getStemLengthCm());
+        chunk.putInt(base + CUT_DAY, Math.toIntExact(flower.getCutDate().toEpochDay()));
+        chunk.put(base + FRAGRANT, (byte) 0);
+        chunk.putInt(base + THORNS, 0);
+        chunk.putInt(base + COLOR, -1);
+
+        if (flower instanceof Rose r) {
+            chunk.put(base + TYPE, FlowerColumns.ROSE);
+            chunk.putInt(base + THORNS, r.getThornCount());
+        } else if (flower instanceof Tulip t) {
+            chunk.put(base + TYPE, FlowerColumns.TULIP);
+            String color = t.getColor() == null ? "mixed" : t.getColor();
+            chunk.putInt(base + COLOR, colors.computeIfAbsent(color, c -> colors.size()));
+        } else if (flower instanceof Lily l) {
+            chunk.put(base + TYPE, FlowerColumns.LILY);
+            chunk.put(base + FRAGRANT, (byte) (l.isFragrant() ? 1 : 0));
+        } else {
+            throw new IllegalArgumentException("Unsupported flower type: " + flower.getClass().getSimpleName());
+        }
+        chunk.position(base + RECORD_SIZE);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Maps an existing snapshot read-write; the mapping stays valid after the channel is closed
+    public static InventorySnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = channel.size();
+            if (length < HEADER_SIZE) throw new IOException("Snapshot too short: " + length + " bytes");
+            if (length > Integer.MAX_VALUE) throw new IOException("Snapshot larger than 2 GB: " + length + " bytes");
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt(MAGIC_OFFSET) != MAGIC) throw new IOException("Not an inventory snapshot: " + file);
+            if (buffer.getShort(VERSION_OFFSET) != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot format " + buffer.getShort(VERSION_OFFSET));
+            }
+            if (buffer.getShort(RECORD_SIZE_OFFSET) != RECORD_SIZE) {
+                throw new IOException("Unexpected record size " + buffer.getShort(RECORD_SIZE_OFFSET));
+            }
+            int count = buffer.getInt(COUNT_OFFSET);
+            long tableStart = HEADER_SIZE + (long) count * RECORD_SIZE;
+            if (count < 0 || tableStart > length) {
+                throw new IOException("Snapshot length " + length + " does not match " + count + " records");
+            }
+            String[] colors = readColors(buffer, (int) tableStart, buffer.getInt(COLOR_COUNT_OFFSET));
+            return new InventorySnapshot(file, buffer, count, buffer.getLong(REVISION_OFFSET), colors);
+        }
+    }
+
+    // The table must run exactly to the end of the file
+    private static String[] readColors(ByteBuffer buffer, int position, int count) throws IOException {
+        if (count < 0 || count > (buffer.limit() - position) / 4) throw new IOException("Bad color count " + count);
+        String[] colors = new String[count];
+        for (int i = 0; i < count; i++) {
+            int length = position + 4 <= buffer.limit() ? buffer.getInt(position) : -1;
+            if (length < 0 || length > buffer.limit() - position - 4) throw new IOException("Color table is truncated");
+            byte[] bytes = new byte[length];
+            buffer.get(position + 4, bytes);
+            colors[i] = new String(bytes, StandardCharsets.UTF_8);
+            position += 4 + length;
+        }
+        if (position != buffer.limit()) throw new IOException("Unexpected bytes after the color table");
+        return colors;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Catalog revision the snapshot was written at
+    public long revision() {
+        return revision;
+    }
+
+    private int offset(int record) {
+        if (record < 0 || record >= size) throw new IndexOutOfBoundsException("Record " + record + " of " + size);
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+
+    public int id(int record) {
+        return buffer.getInt(offset(record) + ID);
+    }
+
+    public byte type(int record) {
+        return buffer.get(offset(record) + TYPE);
+    }
+
+    public double price(int record) {
+        return buffer.getDouble(offset(record) + PRICE);
+    }
+
+    public double stemLengthCm(int record) {
+        return buffer.getDouble(offset(record) + STEM_LENGTH);
+    }
+
+    public int freshness(int record) {
+        return buffer.get(offset(record) + FRESHNESS);
+    }
+
+    public int cutEpochDay(int record) {
+        return buffer.getInt(offset(record) + CUT_DAY);
+    }
+
+    public int thornCount(int record) {
+        return buffer.getInt(offset(record) + THORNS);
+    }
+
+    public boolean fragrant(int record) {
+        return buffer.get(offset(record) + FRAGRANT) != 0;
+    }
+
+    // Tulip color from the color table, null for other types
+    public String color(int record) {
+        int index = buffer.getInt(offset(record) + COLOR);
+        return index < 0 ? null : colors[index];
+    }
+
+    // Writes the level into the mapped page; flush with force() to make it durable
+    public void setFreshness(int record, int level) {
+        buffer.put(offset(record) + FRESHNESS, (byte) Math.max(0, Math.min(100, level)));
+    }
+
+    public void force() {
+        buffer.force();
+    }
+
+    // Record holding the flower with this id, or -1; records are written in id order
+    public int indexOf(int id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = buffer.getInt(HEADER_SIZE + mid * RECORD_SIZE + ID);
+            if (midId < id) low = mid + 1;
+            else if (midId > id) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    // Visits every record with minCm <= stem length <= maxCm and at least minFreshness,
+    // in id order, reading the mapped buffer only
+    public int scan(double minStemCm, double maxStemCm, int minFreshness, IntConsumer action) {
+        int matches = 0;
+        for (int record = 0, base = HEADER_SIZE; record < size; record++, base += RECORD_SIZE) {
+            double length = buffer.getDouble(base + STEM_LENGTH);
+            if (length >= minStemCm && length <= maxStemCm && buffer.get(base + FRESHNESS) >= minFreshness) {
+                action.accept(record);
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    public int countWhere(RecordFilter filter) {
+        int count = 0;
+        for (int record = 0; record < size; record++) {
+            if (filter.test(this, record)) count++;
+        }
+        return count;
+    }
+
+    public double totalPrice() {
+        double sum = 0.0;
+        for (int record = 0, base = HEADER_SIZE; record < size; record++, base += RECORD_SIZE) {
+            sum += buffer.getDouble(base + PRICE);
+        }
+        return sum;
+    }
+
+    // Builds a standalone Flower for one record; later changes to either side are not shared
+    public Flower toFlower(int record) {
+        double price = price(record);
+        double stemLength = stemLengthCm(record);
+        LocalDate cutDate = LocalDate.ofEpochDay(cutEpochDay(record));
+        int freshness = freshness(record);
+        Flower flower = switch (type(record)) {
+            case FlowerColumns.ROSE -> new Rose(price, stemLength, cutDate, freshness, thornCount(record));
+            case FlowerColumns.TULIP -> new Tulip(price, stemLength, cutDate, freshness, color(record));
+            case FlowerColumns.LILY -> new Lily(price, stemLength, cutDate, freshness, fragrant(record));
+            default -> throw new IllegalStateException("Unknown type code " + type(record));
+        };
+        flower.setId(id(record));
+        return flower;
+    }
+
+    public List<Flower> toFlowers() {
+        List<Flower> flowers = new ArrayList<>(size);
+        for (int record = 0; record < size; record++) flowers.add(toFlower(record));
+        return flowers;
+    }
+
+    // Pending freshness writes are flushed; the mapping itself is released with the buffer
+    @Override
+    public void close() {
+        force();
+    }
+}
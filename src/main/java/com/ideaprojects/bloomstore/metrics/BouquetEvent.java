@@ -0,0 +1,26 @@
+package com.ideaprojects.bloomstore.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("bloomstore.Bouquet")
+@Label("Bouquet Operation")
+@Category({"BloomStore", "Bouquet"})
+@Description("A bouquet sort, search or pricing call")
+final class BouquetEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Flowers")
+    long flowers;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+
+    @Label("Failed")
+    boolean failed;
+}
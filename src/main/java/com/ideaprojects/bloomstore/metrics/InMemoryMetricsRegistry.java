@@ -0,0 +1,68 @@
+package com.ideaprojects.bloomstore.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Default registry: a latency histogram and row and failure counters per operation, read
+// through snapshot()
+public final class InMemoryMetricsRegistry implements MetricsRegistry {
+    private final Map<String, Stats> operations = new ConcurrentHashMap<>();
+
+    @Override
+    public OperationRecorder recorder(String operation) {
+        return operations.computeIfAbsent(operation, name -> new Stats());
+    }
+
+    // Operations that completed or failed at least once, by name
+    public List<OperationSnapshot> snapshot() {
+        List<OperationSnapshot> result = new ArrayList<>();
+        for (Map.Entry<String, Stats> entry : operations.entrySet()) {
+            OperationSnapshot snapshot = entry.getValue().snapshot(entry.getKey());
+            if (snapshot.calls() > 0 || snapshot.failures() > 0) result.add(snapshot);
+        }
+        result.sort(Comparator.comparing(OperationSnapshot::operation));
+        return result;
+    }
+
+    // Empty snapshot for an operation that has not been called
+    public OperationSnapshot snapshot(String operation) {
+        Stats stats = operations.get(operation);
+        return stats == null ? new OperationSnapshot(operation, 0, 0, 0, 0, 0, 0, 0) : stats.snapshot(operation);
+    }
+
+    public void reset() {
+        for (Stats stats : operations.values()) stats.reset();
+    }
+
+    private static final class Stats implements OperationRecorder {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        @Override
+        public void record(long elapsedNanos, long count) {
+            latency.record(elapsedNanos);
+            rows.add(count);
+        }
+
+        @Override
+        public void recordFailure(long elapsedNanos) {
+            failures.increment();
+        }
+
+        private OperationSnapshot snapshot(String operation) {
+            return new OperationSnapshot(operation, latency.count(), failures.sum(), rows.sum(),
+                    latency.totalNanos(), latency.percentile(0.5), latency.percentile(0.99), latency.maxNanos());
+        }
+
+        private void reset() {
+            latency.reset();
+            rows.reset();
+            failures.reset();
+        }
+    }
+}
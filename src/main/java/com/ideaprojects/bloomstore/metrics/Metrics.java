@@ -0,0 +1,60 @@
+package com.ideaprojects.bloomstore.metrics;
+
+import com.ideaprojects.bloomstore.util.DatabaseConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Entry point for operation metrics. Off by default (bloomstore.metrics.enabled); once enabled,
+// every instrumented call is recorded in the installed registry and emitted as a JFR event when
+// a recording has the bloomstore.Storage or bloomstore.Bouquet event turned on.
+public final class Metrics {
+    private static volatile boolean enabled = DatabaseConfig.getBoolean("bloomstore.metrics.enabled", false);
+    private static final InMemoryMetricsRegistry DEFAULT_REGISTRY = new InMemoryMetricsRegistry();
+
+    // Guarded by the class lock, so an operation is never bound to a registry being replaced
+    private static MetricsRegistry registry = DEFAULT_REGISTRY;
+    private static final List<Operation> operations = new ArrayList<>();
+
+    private Metrics() {}
+
+    public static Operation storage(String name) {
+        return register(name, Operation.Kind.STORAGE);
+    }
+
+    public static Operation bouquet(String name) {
+        return register(name, Operation.Kind.BOUQUET);
+    }
+
+    private static synchronized Operation register(String name, Operation.Kind kind) {
+        Operation operation = new Operation(name, kind, registry);
+        operations.add(operation);
+        return operation;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static synchronized MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    // The built-in registry, which collects data whenever no other registry is installed
+    public static InMemoryMetricsRegistry defaultRegistry() {
+        return DEFAULT_REGISTRY;
+    }
+
+    // Routes every operation, existing and future, to the given registry
+    public static synchronized void useRegistry(MetricsRegistry newRegistry) {
+        if (newRegistry == null) throw new IllegalArgumentException("registry must not be null");
+        registry = newRegistry;
+        for (Operation operation : operations) {
+            operation.bind(newRegistry);
+        }
+    }
+}
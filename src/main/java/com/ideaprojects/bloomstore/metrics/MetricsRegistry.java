@@ -0,0 +1,7 @@
+package com.ideaprojects.bloomstore.metrics;
+
+// Where instrumented operations report to. recorder is asked once per operation when the
+// registry is installed, not per call; the recorders it hands out must be thread-safe.
+public interface MetricsRegistry {
+    OperationRecorder recorder(String operation);
+}
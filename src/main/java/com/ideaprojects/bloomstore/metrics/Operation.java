@@ -0,0 +1,76 @@
+package com.ideaprojects.bloomstore.metrics;
+
+// An instrumented call site, created once per operation name through Metrics:
+//
+//     long start = LOAD.start();
+//     ...
+//     LOAD.stop(start, rows);
+//
+// Calls that end in an exception report through stopFailed(start) instead, so they show up as
+// failures and stay out of the latency percentiles. While metrics are off start() is one flag
+// check and stop() one comparison.
+public final class Operation {
+    public enum Kind { STORAGE, BOUQUET }
+
+    // Returned by start() while metrics are off; stop() ignores it
+    private static final long DISABLED = Long.MIN_VALUE;
+
+    private final String name;
+    private final Kind kind;
+    private volatile OperationRecorder recorder;
+
+    Operation(String name, Kind kind, MetricsRegistry registry) {
+        this.name = name;
+        this.kind = kind;
+        bind(registry);
+    }
+
+    void bind(MetricsRegistry registry) {
+        recorder = registry.recorder(name);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long start() {
+        return Metrics.isEnabled() ? System.nanoTime() : DISABLED;
+    }
+
+    // count is the rows read or written for storage operations and the bouquet size otherwise
+    public void stop(long start, long count) {
+        if (start == DISABLED) return;
+        long elapsed = System.nanoTime() - start;
+        recorder.record(elapsed, count);
+        emit(elapsed, count, false);
+    }
+
+    public void stopFailed(long start) {
+        if (start == DISABLED) return;
+        long elapsed = System.nanoTime() - start;
+        recorder.recordFailure(elapsed);
+        emit(elapsed, 0, true);
+    }
+
+    private void emit(long elapsed, long count, boolean failed) {
+        if (kind == Kind.STORAGE) {
+            StorageEvent event = new StorageEvent();
+            if (event.shouldCommit()) {
+                event.operation = name;
+                event.rows = count;
+                event.latency = elapsed;
+                event.failed = failed;
+                event.commit();
+            }
+        } else {
+            BouquetEvent event = new BouquetEvent();
+            if (event.shouldCommit()) {
+                event.operation = name;
+                event.flowers = count;
+                event.latency = elapsed;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+}
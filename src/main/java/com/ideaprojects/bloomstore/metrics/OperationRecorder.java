@@ -0,0 +1,10 @@
+package com.ideaprojects.bloomstore.metrics;
+
+// Receives one call per completed operation: its latency and the rows or flowers it touched.
+// Operations that end in an exception arrive through recordFailure instead.
+@FunctionalInterface
+public interface OperationRecorder {
+    void record(long elapsedNanos, long count);
+
+    default void recordFailure(long elapsedNanos) {}
+}
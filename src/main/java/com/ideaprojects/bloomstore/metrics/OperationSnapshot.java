@@ -0,0 +1,23 @@
+package com.ideaprojects.bloomstore.metrics;
+
+// Point-in-time view of one operation's counters and latency percentiles. calls and the latency
+// figures cover completed calls only; failures counts the calls that ended in an exception.
+public record OperationSnapshot(String operation,
+                                long calls,
+                                long failures,
+                                long rows,
+                                long totalNanos,
+                                long p50Nanos,
+                                long p99Nanos,
+                                long maxNanos) {
+
+    public double meanMicros() {
+        return calls == 0 ? 0.0 : totalNanos / 1_000.0 / calls;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-28s calls: %d | failures: %d | rows: %d | mean: %.1f us | p50: %.1f us | p99: %.1f us | max: %.1f us",
+                operation, calls, failures, rows, meanMicros(), p50Nanos / 1_000.0, p99Nanos / 1_000.0, maxNanos / 1_000.0);
+    }
+}
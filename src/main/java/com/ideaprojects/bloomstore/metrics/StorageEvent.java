@@ -0,0 +1,28 @@
+package com.ideaprojects.bloomstore.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// Committed when a storage call or a connection acquisition completes or fails, so the event's own
+// duration is zero and the latency travels in a field
+@Name("bloomstore.Storage")
+@Label("Storage Operation")
+@Category({"BloomStore", "Storage"})
+@Description("A DatabaseStorage call or connection pool acquisition")
+final class StorageEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+
+    @Label("Failed")
+    boolean failed;
+}
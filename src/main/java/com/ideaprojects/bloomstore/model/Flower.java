@@ -1,9 +1,10 @@
 package com.ideaprojects.bloomstore.model;
 
+import java.io.IOException;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 
 public abstract class Flower implements Comparable<Flower> {
+    private int id; //row id in the flowers table, 0 when the flower is not stored there
     private final String name;
     private double price; //in euro
     private double stemLengthCm; //length in centimeters
@@ -18,6 +19,14 @@ public abstract class Flower implements Comparable<Flower> {
         setFreshnessLevel(freshnessLevel);
     }
 
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public String getName() {
         return name;
     }
@@ -50,9 +59,13 @@ public abstract class Flower implements Comparable<Flower> {
         this.freshnessLevel = freshnessLevel;
     }
 
+    // Rendering many flowers? Reuse one FlowerRenderer and stream to the output instead
     public String description() {
-        long days = ChronoUnit.DAYS.between(cutDate, LocalDate.now());
-        return String.format("%s (%.1f cm) cut %d days ago, freshness = %d%%, price = %.2f", name, stemLengthCm, days, freshnessLevel, price);
+        return FlowerRenderer.forToday().describe(this);
+    }
+
+    // Type-specific tail of the description, e.g. " - thorns: 12"
+    protected void appendDetails(Appendable out, FlowerRenderer renderer) throws IOException {
     }
 
     @Override
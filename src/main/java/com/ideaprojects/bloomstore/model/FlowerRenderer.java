@@ -0,0 +1,114 @@
+package com.ideaprojects.bloomstore.model;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.util.Locale;
+
+// Writes flower descriptions straight to an Appendable. "Today" is fixed when the renderer is
+// created and numbers are written digit by digit into a reused buffer, so rendering a bouquet
+// costs no Formatter, no boxed arguments and no intermediate strings. The output matches what
+// String.format gave for the same fields. Not thread-safe; use one renderer per render.
+public final class FlowerRenderer {
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+    // Below this the scaled value's ulp is at most 2^-23, well inside the 1e-6 tie window; above
+    // it a tie and a near miss can round to the same double (1e7 for prices at scale 2)
+    private static final double MAX_FAST_SCALED = 1e9;
+
+    private final long todayEpochDay;
+    private final Locale locale;
+    private final char decimalSeparator;
+    private final char[] digits = new char[24];
+
+    public FlowerRenderer(LocalDate today) {
+        this(today, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    public FlowerRenderer(LocalDate today, Locale locale) {
+        this.todayEpochDay = today.toEpochDay();
+        this.locale = locale;
+        this.decimalSeparator = DecimalFormatSymbols.getInstance(locale).getDecimalSeparator();
+    }
+
+    public static FlowerRenderer forToday() {
+        return new FlowerRenderer(LocalDate.now());
+    }
+
+    // "Rose (40.0 cm) cut 1 days ago, freshness = 90%, price = 3.50 - thorns: 12"
+    public void render(Flower flower, Appendable out) throws IOException {
+        out.append(flower.getName()).append(" (");
+        appendFixed(out, flower.getStemLengthCm(), 1);
+        out.append(" cm) cut ");
+        appendLong(out, todayEpochDay - flower.getCutDate().toEpochDay());
+        out.append(" days ago, freshness = ");
+        appendLong(out, flower.getFreshnessLevel());
+        out.append("%, price = ");
+        appendFixed(out, flower.getPrice(), 2);
+        flower.appendDetails(out, this);
+    }
+
+    public String describe(Flower flower) {
+        StringBuilder sb = new StringBuilder(96);
+        try {
+            render(flower, sb);
+        } catch (IOException e) {
+            throw new AssertionError("StringBuilder does not throw", e);
+        }
+        return sb.toString();
+    }
+
+    // Same digits as %.<scale>f: HALF_UP on the shortest decimal form of the double
+    public void appendFixed(Appendable out, double value, int scale) throws IOException {
+        long factor = scale < POWERS_OF_TEN.length ? POWERS_OF_TEN[scale] : 0;
+        double scaled = Math.abs(value) * factor;
+        if (!Double.isFinite(value) || factor == 0 || scaled >= MAX_FAST_SCALED) {
+            out.append(String.format(locale, "%." + scale + "f", value));
+            return;
+        }
+        long units;
+        // Near a tie the binary product can land on either side; settle it on the decimal form
+        if (Math.abs(scaled - Math.floor(scaled) - 0.5) < 1e-6) {
+            units = BigDecimal.valueOf(Math.abs(value)).setScale(scale, RoundingMode.HALF_UP)
+                    .unscaledValue().longValueExact();
+        } else {
+            units = Math.round(scaled);
+        }
+
+        // Like the Formatter, negative values keep their sign even when they round to zero
+        if (Math.copySign(1.0, value) < 0) out.append('-');
+        appendLong(out, units / factor);
+        if (scale > 0) {
+            out.append(decimalSeparator);
+            long fraction = units % factor;
+            for (long p = factor / 10; p > 0; p /= 10) {
+                out.append((char) ('0' + fraction / p % 10));
+            }
+        }
+    }
+
+    public void appendLong(Appendable out, long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            out.append(Long.toString(value));
+            return;
+        }
+        int pos = digits.length;
+        long v = Math.abs(value);
+        do {
+            digits[--pos] = (char) ('0' + v % 10);
+            v /= 10;
+        } while (v > 0);
+        if (value < 0) digits[--pos] = '-';
+
+        int length = digits.length - pos;
+        if (out instanceof StringBuilder sb) {
+            sb.append(digits, pos, length);
+        } else if (out instanceof Writer writer) {
+            writer.write(digits, pos, length);
+        } else {
+            for (int i = pos; i < digits.length; i++) out.append(digits[i]);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.ideaprojects.bloomstore.model;
 
+import java.io.IOException;
 import java.time.LocalDate;
 
 public class Lily extends Flower {
@@ -19,7 +20,7 @@ public class Lily extends Flower {
     }
 
     @Override
-    public String description() {
-        return String.format("%s - fragrant: %b", super.description(), fragrant);
+    protected void appendDetails(Appendable out, FlowerRenderer renderer) throws IOException {
+        out.append(" - fragrant: ").append(fragrant ? "true" : "false");
     }
 }
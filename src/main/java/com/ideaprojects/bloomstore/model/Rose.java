@@ -1,5 +1,6 @@
 package com.ideaprojects.bloomstore.model;
 
+import java.io.IOException;
 import java.time.LocalDate;
 
 public class Rose extends Flower {
@@ -19,7 +20,8 @@ public class Rose extends Flower {
     }
 
     @Override
-    public String description() {
-        return String.format("%s - thorns: %d", super.description(), thornCount);
+    protected void appendDetails(Appendable out, FlowerRenderer renderer) throws IOException {
+        out.append(" - thorns: ");
+        renderer.appendLong(out, thornCount);
     }
 }
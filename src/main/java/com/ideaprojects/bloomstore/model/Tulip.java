@@ -1,5 +1,6 @@
 package com.ideaprojects.bloomstore.model;
 
+import java.io.IOException;
 import java.time.LocalDate;
 
 public class Tulip extends Flower {
@@ -18,7 +19,7 @@ public class Tulip extends Flower {
     }
 
     @Override
-    public String description() {
-        return String.format("%s - color: %s", super.description(), color);
+    protected void appendDetails(Appendable out, FlowerRenderer renderer) throws IOException {
+        out.append(" - color: ").append(color);
     }
 }
@@ -1,70 +1,268 @@
 package com.ideaprojects.bloomstore.service;
 
+import com.ideaprojects.bloomstore.metrics.Metrics;
+import com.ideaprojects.bloomstore.metrics.Operation;
 import com.ideaprojects.bloomstore.model.Accessory;
 import com.ideaprojects.bloomstore.model.Flower;
+import com.ideaprojects.bloomstore.model.FlowerRenderer;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 public class Bouquet {
+    private static final Operation PRICE = Metrics.bouquet("bouquet.calculateTotalPrice");
+    private static final Operation SORT = Metrics.bouquet("bouquet.sortByFreshness");
+    private static final Operation SELECT = Metrics.bouquet("bouquet.selectByFreshness");
+    private static final Operation SEARCH = Metrics.bouquet("bouquet.findByStemLength");
+
     private final List<Flower> flowers = new ArrayList<>();
     private final List<Accessory> accessories = new ArrayList<>();
+    private final List<Flower> flowersView = Collections.unmodifiableList(flowers);
+    private final List<Accessory> accessoriesView = Collections.unmodifiableList(accessories);
+
+    // Aggregates kept up to date by every mutation, so reading them is constant time
+    private int aggregatedFlowers;
+    // Flowers and accessories; compensated, so removals subtract without leaving drift behind
+    private final PriceSum priceSum = new PriceSum();
+    private long freshnessSum;
+    private final int[] freshnessCounts = new int[FreshnessBuckets.LEVELS];
+    private int minFreshness;
+    private int maxFreshness;
+    private double stemLengthSum;
+    private final StemLengthIndex stemLengthIndex = new StemLengthIndex();
 
     public Bouquet() {}
 
     public void addFlower(Flower flower) {
         Objects.requireNonNull(flower, "flower must not be null");
+        include(flower);
         flowers.add(flower);
     }
 
     public void removeFlower(Flower flower) {
-        flowers.remove(flower);
+        if (flowers.remove(flower)) {
+            exclude(flower);
+        }
+    }
+
+    // Price, freshness and stem length of a flower in the bouquet must be changed through here,
+    // otherwise the aggregates no longer match the flowers. A change that leaves the flower
+    // invalid (say, a stem length of 0) removes it from the bouquet and the error is rethrown.
+    public void updateFlower(Flower flower, Consumer<? super Flower> change) {
+        if (!flowers.contains(flower)) throw new IllegalArgumentException("Flower is not in this bouquet");
+        exclude(flower);
+        try {
+            change.accept(flower);
+        } finally {
+            try {
+                include(flower);
+            } catch (RuntimeException e) {
+                flowers.remove(flower);
+                throw e;
+            }
+        }
     }
 
+    // Read-only view; add and remove flowers through the bouquet
     public List<Flower> getFlowers() {
-        return flowers;
+        return flowersView;
     }
 
     public void addAccessory(Accessory accessory) {
+        Objects.requireNonNull(accessory, "accessory must not be null");
         accessories.add(accessory);
+        priceSum.add(accessory.getPrice());
     }
 
     public List<Accessory> getAccessories() {
-        return accessories;
+        return accessoriesView;
+    }
+
+    public void clear() {
+        flowers.clear();
+        accessories.clear();
+        aggregatedFlowers = 0;
+        priceSum.reset();
+        freshnessSum = 0;
+        Arrays.fill(freshnessCounts, 0);
+        stemLengthSum = 0.0;
+        stemLengthIndex.clear();
+        refreshBounds();
+    }
+
+    // Reads and checks everything first, so a flower that throws leaves the aggregates untouched
+    private void include(Flower flower) {
+        double price = flower.getPrice();
+        int freshness = flower.getFreshnessLevel();
+        if (freshness < 0 || freshness >= FreshnessBuckets.LEVELS) {
+            throw new IllegalArgumentException("Freshness level must be within 0..100");
+        }
+        double stemLength = flower.getStemLengthCm();
+
+        aggregatedFlowers++;
+        priceSum.add(price);
+        freshnessSum += freshness;
+        freshnessCounts[freshness]++;
+        stemLengthSum += stemLength;
+        stemLengthIndex.add(flower);
+
+        if (aggregatedFlowers == 1) {
+            minFreshness = maxFreshness = freshness;
+        } else {
+            minFreshness = Math.min(minFreshness, freshness);
+            maxFreshness = Math.max(maxFreshness, freshness);
+        }
+    }
+
+    private void exclude(Flower flower) {
+        aggregatedFlowers--;
+        priceSum.subtract(flower.getPrice());
+
+        int freshness = flower.getFreshnessLevel();
+        freshnessSum -= freshness;
+        freshnessCounts[freshness]--;
+
+        stemLengthSum -= flower.getStemLengthCm();
+        stemLengthIndex.remove(flower);
+
+        if (aggregatedFlowers == 0) {
+            // Drop accumulated rounding error once nothing is left
+            stemLengthSum = 0.0;
+        }
+        refreshBounds();
+    }
+
+    // Freshness is bounded to 0..100, so finding the new extremes takes at most 101 steps
+    private void refreshBounds() {
+        if (aggregatedFlowers == 0) {
+            minFreshness = maxFreshness = 0;
+            return;
+        }
+        while (freshnessCounts[minFreshness] == 0) minFreshness++;
+        while (freshnessCounts[maxFreshness] == 0) maxFreshness--;
     }
 
     public double calculateTotalPrice() {
-        double sum = 0.0;
-        for (Flower f : flowers) sum += f.getPrice();
-        for (Accessory a : accessories) sum += a.getPrice();
-        return sum;
+        long start = PRICE.start();
+        double total = priceSum.value();
+        PRICE.stop(start, flowers.size());
+        return total;
+    }
+
+    public int getFlowerCount() {
+        return flowers.size();
+    }
+
+    // Freshness and stem length statistics are 0 for a bouquet without flowers
+    public int getMinFreshness() {
+        return minFreshness;
+    }
+
+    public int getMaxFreshness() {
+        return maxFreshness;
     }
 
+    public double getAverageFreshness() {
+        return flowers.isEmpty() ? 0.0 : (double) freshnessSum / flowers.size();
+    }
+
+    public double getMinStemLengthCm() {
+        return stemLengthIndex.min();
+    }
+
+    public double getMaxStemLengthCm() {
+        return stemLengthIndex.max();
+    }
+
+    public double getAverageStemLengthCm() {
+        return flowers.isEmpty() ? 0.0 : stemLengthSum / flowers.size();
+    }
+
+    // Counting sort over the 0..100 freshness buckets; stable, so re-sorting keeps the order
     public void sortByFreshnessDescending() {
-        Collections.sort(flowers);
+        long start = SORT.start();
+        FreshnessBuckets.sortDescending(flowers, freshnessCounts);
+        SORT.stop(start, flowers.size());
     }
 
+    // The k freshest flowers, freshest first; the bouquet itself is not reordered
+    public List<Flower> topFreshest(int k) {
+        long start = SELECT.start();
+        List<Flower> result = FreshnessBuckets.freshest(flowers, freshnessCounts, k);
+        SELECT.stop(start, flowers.size());
+        return result;
+    }
+
+    // The k stalest flowers, stalest first; the bouquet itself is not reordered
+    public List<Flower> stalest(int k) {
+        long start = SELECT.start();
+        List<Flower> result = FreshnessBuckets.stalest(flowers, freshnessCounts, k);
+        SELECT.stop(start, flowers.size());
+        return result;
+    }
+
+    // Flowers with minCm <= stem length <= maxCm, shortest first
     public List<Flower> findByStemLengthRange(double minCm, double maxCm) {
-        List<Flower> result = new ArrayList<>();
-        for (Flower f : flowers) {
-            double len = f.getStemLengthCm();
-            if (len >= minCm && len <= maxCm) result.add(f);
-        }
+        long start = SEARCH.start();
+        List<Flower> result = new ArrayList<>(stemLengthIndex.countInRange(minCm, maxCm));
+        stemLengthIndex.collectInRange(minCm, maxCm, result);
+        SEARCH.stop(start, flowers.size());
         return result;
     }
 
+    // Allocation-free variants for repeated searches: fill a reusable sink or visit each match
+    public int findByStemLengthRange(double minCm, double maxCm, Collection<? super Flower> sink) {
+        long start = SEARCH.start();
+        int found = stemLengthIndex.collectInRange(minCm, maxCm, sink);
+        SEARCH.stop(start, flowers.size());
+        return found;
+    }
+
+    public void forEachByStemLengthRange(double minCm, double maxCm, Consumer<? super Flower> action) {
+        long start = SEARCH.start();
+        stemLengthIndex.forEachInRange(minCm, maxCm, action);
+        SEARCH.stop(start, flowers.size());
+    }
+
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("Bouquet:\n");
-        for (Flower f : flowers) sb.append(" - ").append(f.description()).append('\n');
-        if (!accessories.isEmpty()) {
-            sb.append("Accessories:\n");
-            for (Accessory a : accessories) sb.append(" - ").append(a.getDisplayName()).append(String.format(" (%.2f $$$)", a.getPrice())).append('\n');
+        StringBuilder sb = new StringBuilder(64 + 96 * flowers.size());
+        try {
+            render(sb);
+        } catch (IOException e) {
+            throw new AssertionError("StringBuilder does not throw", e);
         }
-        sb.append(String.format("Total price: %.2f $$$\n", calculateTotalPrice()));
         return sb.toString();
     }
+
+    // Streams the toString report; wrap slow sinks such as System.out in a BufferedWriter
+    public void render(Appendable out) throws IOException {
+        render(out, FlowerRenderer.forToday());
+    }
+
+    public void render(Appendable out, FlowerRenderer renderer) throws IOException {
+        out.append("Bouquet:\n");
+        for (Flower f : flowers) {
+            out.append(" - ");
+            renderer.render(f, out);
+            out.append('\n');
+        }
+        if (!accessories.isEmpty()) {
+            out.append("Accessories:\n");
+            for (Accessory a : accessories) {
+                out.append(" - ").append(a.getDisplayName()).append(" (");
+                renderer.appendFixed(out, a.getPrice(), 2);
+                out.append(" $$$)\n");
+            }
+        }
+        out.append("Total price: ");
+        renderer.appendFixed(out, calculateTotalPrice(), 2);
+        out.append(" $$$\n");
+    }
 }
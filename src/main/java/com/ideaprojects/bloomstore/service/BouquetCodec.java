@@ -0,0 +1,323 @@
+package com.ideaprojects.bloomstore.service;
+
+import com.ideaprojects.bloomstore.model.*;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Versioned binary form of a Bouquet for session handoff and caches, written straight into a
+// ByteBuffer (heap or direct). Little-endian, like the inventory snapshot.
+//
+// Header: magic, version, flags; with FLAG_DEFLATED the body length follows and the body is deflated.
+// Body: flower count, accessory count (varints), then per flower a kind byte (type tag, fragrant bit),
+// id (varint), price, stem length (doubles), cut date (epoch day), freshness (byte) and the
+// type-specific field: thorns (zigzag varint) or a color reference. Accessories are ordinal bytes.
+//
+// Colors are dictionary coded: a reference is 0 for no color, 1..n for the preset colors, and above
+// that an index into the colors defined earlier in the same bouquet. A reference equal to the next
+// free index defines a new color, whose UTF-8 bytes follow with a 2-byte length.
+public final class BouquetCodec {
+    private static final int MAGIC = 0x42515453; // "BQTS"
+    public static final byte VERSION = 1;
+    private static final byte FLAG_DEFLATED = 1;
+    private static final int HEADER_SIZE = 6;
+
+    private static final byte ROSE = 1;
+    private static final byte TULIP = 2;
+    private static final byte LILY = 3;
+    private static final byte TYPE_MASK = 3;
+    private static final byte FRAGRANT_BIT = 4;
+
+    // The colors suppliers use most; appending is fine, reordering breaks version 1
+    private static final String[] PRESET_COLORS = {"mixed", "red", "yellow", "white", "pink", "purple", "orange"};
+    private static final Map<String, Integer> PRESET_INDEX = new HashMap<>();
+    static {
+        for (int i = 0; i < PRESET_COLORS.length; i++) PRESET_INDEX.put(PRESET_COLORS[i], i + 1);
+    }
+
+    private static final Accessory[] ACCESSORIES = Accessory.values();
+    // kind, id, price, stem length, cut day, freshness, thorns or color reference
+    private static final int MAX_FLOWER_SIZE = 1 + 5 + 8 + 8 + 4 + 1 + 5;
+
+    // Reusable deflate state and body buffer per thread, so compressed round trips allocate nothing
+    private static final class Scratch {
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final Inflater inflater = new Inflater();
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        private ByteBuffer body = ByteBuffer.allocateDirect(16 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+
+        private ByteBuffer body(int capacity) {
+            if (body.capacity() < capacity) {
+                body = ByteBuffer.allocateDirect(Integer.highestOneBit(capacity - 1) << 1).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return body.clear();
+        }
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private BouquetCodec() {}
+
+    // Upper bound for encode without compression
+    public static int maxEncodedSize(Bouquet bouquet) {
+        long size = HEADER_SIZE + 4 + 10L + (long) MAX_FLOWER_SIZE * bouquet.getFlowerCount()
+                + bouquet.getAccessories().size();
+        for (Flower f : bouquet.getFlowers()) {
+            if (f instanceof Tulip t && t.getColor() != null && !PRESET_INDEX.containsKey(t.getColor())) {
+                size += 2 + 3L * t.getColor().length();
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    // Writes the bouquet at the buffer's position and advances it; returns the bytes written.
+    // Throws BufferOverflowException when the remaining space is too small.
+    public static int encode(Bouquet bouquet, ByteBuffer out, boolean compress) {
+        ByteOrder order = out.order();
+        out.order(ByteOrder.LITTLE_ENDIAN);
+        int start = out.position();
+        try {
+            out.putInt(MAGIC).put(VERSION).put(compress ? FLAG_DEFLATED : 0);
+            Scratch scratch = SCRATCH.get();
+            if (!compress) {
+                writeBody(bouquet, out, scratch);
+            } else {
+                ByteBuffer body = scratch.body(maxEncodedSize(bouquet));
+                writeBody(bouquet, body, scratch);
+                body.flip();
+                out.putInt(body.remaining());
+                Deflater deflater = scratch.deflater;
+                deflater.reset();
+                deflater.setInput(body);
+                deflater.finish();
+                while (!deflater.finished()) {
+                    if (!out.hasRemaining()) throw new BufferOverflowException();
+                    deflater.deflate(out);
+                }
+            }
+            return out.position() - start;
+        } catch (BufferOverflowException e) {
+            out.position(start);
+            throw e;
+        } finally {
+            out.order(order);
+        }
+    }
+
+    // Allocates a direct buffer holding exactly the encoded bouquet, ready to read
+    public static ByteBuffer encode(Bouquet bouquet, boolean compress) {
+        int bound = maxEncodedSize(bouquet);
+        // Deflate can grow incompressible input by a few bytes per 16 KB block
+        if (compress) bound += bound / 1000 + 64;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bound);
+        encode(bouquet, buffer, compress);
+        return buffer.flip();
+    }
+
+    // Reads one bouquet from the buffer's position and advances past it
+    public static Bouquet decode(ByteBuffer in) {
+        ByteOrder order = in.order();
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        int start = in.position();
+        try {
+            if (in.getInt() != MAGIC) throw new IllegalArgumentException("Not a bouquet snapshot");
+            byte version = in.get();
+            if (version != VERSION) throw new IllegalArgumentException("Unsupported bouquet snapshot version " + version);
+            byte flags = in.get();
+            Scratch scratch = SCRATCH.get();
+            if ((flags & FLAG_DEFLATED) == 0) return readBody(in, scratch);
+
+            int length = in.getInt();
+            // Deflate cannot expand data by more than about 1032:1
+            if (length < 0 || length > in.remaining() * 1032L + 64) {
+                throw new IllegalArgumentException("Corrupt bouquet snapshot length");
+            }
+            ByteBuffer body = scratch.body(length).limit(length);
+            Inflater inflater = scratch.inflater;
+            inflater.reset();
+            inflater.setInput(in);
+            // Advances the input position only over the deflate stream itself
+            while (!inflater.finished()) {
+                if (inflater.inflate(body) == 0) {
+                    if (inflater.needsInput()) throw new BufferUnderflowException();
+                    if (!body.hasRemaining() || inflater.needsDictionary()) {
+                        throw new IllegalArgumentException("Corrupt bouquet snapshot body");
+                    }
+                }
+            }
+            if (body.hasRemaining()) throw new IllegalArgumentException("Corrupt bouquet snapshot body");
+            return readBody(body.flip(), scratch);
+        } catch (BufferUnderflowException e) {
+            in.position(start);
+            throw new IllegalArgumentException("Truncated bouquet snapshot", e);
+        } catch (DataFormatException | CharacterCodingException e) {
+            in.position(start);
+            throw new IllegalArgumentException("Corrupt bouquet snapshot: " + e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            in.position(start);
+            throw e;
+        } finally {
+            in.order(order);
+        }
+    }
+
+    private static void writeBody(Bouquet bouquet, ByteBuffer out, Scratch scratch) {
+        List<Flower> flowers = bouquet.getFlowers();
+        List<Accessory> accessories = bouquet.getAccessories();
+        putVarint(out, flowers.size());
+        putVarint(out, accessories.size());
+
+        Map<String, Integer> defined = null;
+        for (Flower f : flowers) {
+            byte kind;
+            if (f instanceof Rose) kind = ROSE;
+            else if (f instanceof Tulip) kind = TULIP;
+            else if (f instanceof Lily lily) kind = (byte) (LILY | (lily.isFragrant() ? FRAGRANT_BIT : 0));
+            else throw new IllegalArgumentException("Unsupported flower type " + f.getClass().getName());
+
+            out.put(kind);
+            putVarint(out, f.getId());
+            out.putDouble(f.getPrice());
+            out.putDouble(f.getStemLengthCm());
+            out.putInt(Math.toIntExact(f.getCutDate().toEpochDay()));
+            out.put((byte) f.getFreshnessLevel());
+
+            if (f instanceof Rose rose) {
+                int thorns = rose.getThornCount();
+                putVarint(out, (thorns << 1) ^ (thorns >> 31));
+            } else if (f instanceof Tulip tulip) {
+                String color = tulip.getColor();
+                Integer preset = color == null ? Integer.valueOf(0) : PRESET_INDEX.get(color);
+                if (preset != null) {
+                    putVarint(out, preset);
+                } else {
+                    if (defined == null) defined = new HashMap<>();
+                    Integer index = defined.get(color);
+                    if (index != null) {
+                        putVarint(out, PRESET_COLORS.length + 1 + index);
+                    } else {
+                        putVarint(out, PRESET_COLORS.length + 1 + defined.size());
+                        defined.put(color, defined.size());
+                        putString(out, color, scratch.encoder);
+                    }
+                }
+            }
+        }
+        for (Accessory a : accessories) out.put((byte) a.ordinal());
+    }
+
+    private static Bouquet readBody(ByteBuffer in, Scratch scratch) throws CharacterCodingException {
+        int flowerCount = getVarint(in);
+        int accessoryCount = getVarint(in);
+        Bouquet bouquet = new Bouquet();
+        List<String> defined = null;
+
+        for (int i = 0; i < flowerCount; i++) {
+            byte kind = in.get();
+            int id = getVarint(in);
+            double price = in.getDouble();
+            double stem = in.getDouble();
+            LocalDate cutDate = LocalDate.ofEpochDay(in.getInt());
+            int freshness = in.get();
+
+            Flower flower = switch (kind & TYPE_MASK) {
+                case ROSE -> {
+                    int zigzag = getVarint(in);
+                    Rose rose = new Rose(price, stem, cutDate, freshness, 0);
+                    rose.setThornCount((zigzag >>> 1) ^ -(zigzag & 1));
+                    yield rose;
+                }
+                case TULIP -> {
+                    int ref = getVarint(in);
+                    String color;
+                    if (ref <= PRESET_COLORS.length) {
+                        color = ref == 0 ? null : PRESET_COLORS[ref - 1];
+                    } else {
+                        if (defined == null) defined = new ArrayList<>();
+                        int index = ref - PRESET_COLORS.length - 1;
+                        if (index == defined.size()) {
+                            defined.add(getString(in, scratch.decoder));
+                        } else if (index > defined.size()) {
+                            throw new IllegalArgumentException("Corrupt bouquet snapshot: unknown color " + ref);
+                        }
+                        color = defined.get(index);
+                    }
+                    Tulip tulip = new Tulip(price, stem, cutDate, freshness, color);
+                    if (color == null) tulip.setColor(null);
+                    yield tulip;
+                }
+                case LILY -> new Lily(price, stem, cutDate, freshness, (kind & FRAGRANT_BIT) != 0);
+                default -> throw new IllegalArgumentException("Corrupt bouquet snapshot: flower kind " + kind);
+            };
+            flower.setId(id);
+            bouquet.addFlower(flower);
+        }
+        for (int i = 0; i < accessoryCount; i++) {
+            int ordinal = in.get();
+            if (ordinal < 0 || ordinal >= ACCESSORIES.length) {
+                throw new IllegalArgumentException("Corrupt bouquet snapshot: accessory " + ordinal);
+            }
+            bouquet.addAccessory(ACCESSORIES[ordinal]);
+        }
+        return bouquet;
+    }
+
+    private static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Corrupt bouquet snapshot: varint too long");
+    }
+
+    private static void putString(ByteBuffer out, String value, CharsetEncoder encoder) {
+        int lengthAt = out.position();
+        out.putShort((short) 0);
+        encoder.reset();
+        CoderResult result = encoder.encode(CharBuffer.wrap(value), out, true);
+        if (result.isOverflow()) throw new BufferOverflowException();
+        encoder.flush(out);
+        int length = out.position() - lengthAt - 2;
+        if (length > 0xFFFF) throw new IllegalArgumentException("Color is too long to encode");
+        out.putShort(lengthAt, (short) length);
+    }
+
+    private static String getString(ByteBuffer in, CharsetDecoder decoder) throws CharacterCodingException {
+        int length = Short.toUnsignedInt(in.getShort());
+        if (length > in.remaining()) throw new BufferUnderflowException();
+        int limit = in.limit();
+        in.limit(in.position() + length);
+        try {
+            return decoder.reset().decode(in).toString();
+        } finally {
+            in.limit(limit);
+        }
+    }
+}
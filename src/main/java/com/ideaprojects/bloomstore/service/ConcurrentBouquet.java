@@ -0,0 +1,184 @@
+package com.ideaprojects.bloomstore.service;
+
+import com.ideaprojects.bloomstore.model.Accessory;
+import com.ideaprojects.bloomstore.model.Flower;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bouquet shared by several clerks. Items are spread over lock stripes, and each thread adds to
+// its own stripe, so parallel writers rarely meet. Reads lock every stripe in a fixed order and
+// therefore see one consistent point in time. The order of flowers across threads is not kept;
+// sort a snapshot when order matters.
+public class ConcurrentBouquet {
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<Flower> flowers = new ArrayList<>();
+        private final List<Accessory> accessories = new ArrayList<>();
+        private final PriceSum priceSum = new PriceSum();
+    }
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public ConcurrentBouquet() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public ConcurrentBouquet(int concurrency) {
+        if (concurrency < 1) throw new IllegalArgumentException("Concurrency must be positive");
+        int count = Integer.highestOneBit(Math.min(concurrency, 1 << 16) * 2 - 1);
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) stripes[i] = new Stripe();
+        mask = count - 1;
+    }
+
+    private Stripe ownStripe() {
+        return stripes[home()];
+    }
+
+    // Fibonacci hash of the thread id, so neighbouring ids spread over the stripes
+    private int home() {
+        long id = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) (id >>> 32) & mask;
+    }
+
+    public void addFlower(Flower flower) {
+        Objects.requireNonNull(flower, "flower must not be null");
+        Stripe stripe = ownStripe();
+        stripe.lock.lock();
+        try {
+            stripe.flowers.add(flower);
+            stripe.priceSum.add(flower.getPrice());
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // Looks in the caller's stripe first, where its own flowers are, then in the others
+    public boolean removeFlower(Flower flower) {
+        int home = home();
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[(home + i) & mask];
+            stripe.lock.lock();
+            try {
+                if (stripe.flowers.remove(flower)) {
+                    stripe.priceSum.subtract(flower.getPrice());
+                    return true;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return false;
+    }
+
+    public void addAccessory(Accessory accessory) {
+        Objects.requireNonNull(accessory, "accessory must not be null");
+        Stripe stripe = ownStripe();
+        stripe.lock.lock();
+        try {
+            stripe.accessories.add(accessory);
+            stripe.priceSum.add(accessory.getPrice());
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lockAll();
+        try {
+            for (Stripe stripe : stripes) {
+                stripe.flowers.clear();
+                stripe.accessories.clear();
+                stripe.priceSum.reset();
+            }
+        } finally {
+            unlockAll();
+        }
+    }
+
+    public double calculateTotalPrice() {
+        lockAll();
+        try {
+            PriceSum total = new PriceSum();
+            for (Stripe stripe : stripes) total.add(stripe.priceSum);
+            return total.value();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    public int getFlowerCount() {
+        lockAll();
+        try {
+            int count = 0;
+            for (Stripe stripe : stripes) count += stripe.flowers.size();
+            return count;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    // Immutable copy of the flowers at one point in time
+    public List<Flower> getFlowers() {
+        lockAll();
+        try {
+            List<Flower> flowers = new ArrayList<>();
+            for (Stripe stripe : stripes) flowers.addAll(stripe.flowers);
+            return List.copyOf(flowers);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    public List<Accessory> getAccessories() {
+        lockAll();
+        try {
+            List<Accessory> accessories = new ArrayList<>();
+            for (Stripe stripe : stripes) accessories.addAll(stripe.accessories);
+            return List.copyOf(accessories);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    // A separate Bouquet holding everything at one point in time, for pricing, sorting and
+    // range searches without holding up the clerks. The locks are only held while copying.
+    public Bouquet snapshot() {
+        List<Flower> flowers = new ArrayList<>();
+        List<Accessory> accessories = new ArrayList<>();
+        lockAll();
+        try {
+            for (Stripe stripe : stripes) {
+                flowers.addAll(stripe.flowers);
+                accessories.addAll(stripe.accessories);
+            }
+        } finally {
+            unlockAll();
+        }
+
+        Bouquet bouquet = new Bouquet();
+        for (Flower f : flowers) bouquet.addFlower(f);
+        for (Accessory a : accessories) bouquet.addAccessory(a);
+        return bouquet;
+    }
+
+    // Snapshot flowers, freshest first
+    public List<Flower> sortedByFreshness() {
+        Bouquet bouquet = snapshot();
+        bouquet.sortByFreshnessDescending();
+        return bouquet.getFlowers();
+    }
+
+    // Always in stripe order, so two readers can never deadlock
+    private void lockAll() {
+        for (Stripe stripe : stripes) stripe.lock.lock();
+    }
+
+    private void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) stripes[i].lock.unlock();
+    }
+}
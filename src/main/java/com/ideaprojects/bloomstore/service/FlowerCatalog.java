@@ -0,0 +1,240 @@
+package com.ideaprojects.bloomstore.service;
+
+import com.ideaprojects.bloomstore.model.Flower;
+import com.ideaprojects.bloomstore.util.DatabaseStorage;
+import com.ideaprojects.bloomstore.util.FlowerChangeListener;
+import com.ideaprojects.bloomstore.util.FlowerQuery;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+// In-memory copy of the flower catalog. Readers share an immutable snapshot; it is reloaded
+// after the TTL or an invalidation, and new rows written through DatabaseStorage are appended
+// without a reload.
+public class FlowerCatalog implements FlowerChangeListener, AutoCloseable {
+    @FunctionalInterface
+    public interface Loader {
+        List<Flower> load() throws SQLException;
+    }
+
+    private static final class Snapshot {
+        private final List<Flower> flowers;
+        private final long loadedAtNanos;
+        private volatile StemLengthIndex stemLengthIndex;
+
+        private Snapshot(List<Flower> flowers, long loadedAtNanos) {
+            this.flowers = flowers;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+
+        private List<Flower> flowers() {
+            return flowers;
+        }
+
+        private long loadedAtNanos() {
+            return loadedAtNanos;
+        }
+
+        // Built on the first range search; the snapshot never changes afterwards
+        private StemLengthIndex stemLengthIndex() {
+            StemLengthIndex index = stemLengthIndex;
+            if (index == null) {
+                index = StemLengthIndex.of(flowers);
+                stemLengthIndex = index;
+            }
+            return index;
+        }
+    }
+
+    private final Loader loader;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    // Set for catalogs over the flowers table, whose queries can be answered by SQLite instead
+    private final boolean databaseBacked;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder incrementalUpdates = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public FlowerCatalog(Loader loader, Duration ttl) {
+        this(loader, ttl, System::nanoTime);
+    }
+
+    FlowerCatalog(Loader loader, Duration ttl, LongSupplier nanoClock) {
+        this(loader, ttl, nanoClock, false);
+    }
+
+    private FlowerCatalog(Loader loader, Duration ttl, LongSupplier nanoClock, boolean databaseBacked) {
+        this.loader = loader;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.databaseBacked = databaseBacked;
+    }
+
+    // Catalog over the flowers table that follows writes made through DatabaseStorage
+    public static FlowerCatalog forDatabase(Duration ttl) {
+        return forDatabase(ttl, DatabaseStorage::loadAllFlowers);
+    }
+
+    // Same, with the full reloads served by another source of the flowers table
+    public static FlowerCatalog forDatabase(Duration ttl, Loader loader) {
+        FlowerCatalog catalog = new FlowerCatalog(loader, ttl, System::nanoTime, true);
+        DatabaseStorage.addFlowerChangeListener(catalog);
+        return catalog;
+    }
+
+    // Unmodifiable list of all flowers in id order
+    public List<Flower> getFlowers() throws SQLException {
+        return current().flowers();
+    }
+
+    // The snapshot is in id order, so this is a binary search
+    public Optional<Flower> findById(int id) throws SQLException {
+        List<Flower> flowers = current().flowers();
+        int low = 0;
+        int high = flowers.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = flowers.get(mid).getId();
+            if (midId < id) low = mid + 1;
+            else if (midId > id) high = mid - 1;
+            else return Optional.of(flowers.get(mid));
+        }
+        return Optional.empty();
+    }
+
+    // Catalog flowers with minCm <= stem length <= maxCm, shortest first
+    public List<Flower> findByStemLengthRange(double minCm, double maxCm) throws SQLException {
+        StemLengthIndex index = current().stemLengthIndex();
+        List<Flower> result = new ArrayList<>(index.countInRange(minCm, maxCm));
+        index.collectInRange(minCm, maxCm, result);
+        return result;
+    }
+
+    // Catalog flowers matching the query, in id order. A loaded snapshot is filtered in memory,
+    // which beats any round trip to SQLite. Without one, a database catalog sends the query to
+    // SQLite, where the indexes find the matches without loading every row just to drop most of
+    // them; the snapshot is left for the next full read to load.
+    public List<Flower> find(FlowerQuery query) throws SQLException {
+        Snapshot current = snapshot;
+        if (databaseBacked && (current == null || isExpired(current))) {
+            try (Stream<Flower> matches = DatabaseStorage.streamFlowers(query)) {
+                return matches.toList();
+            }
+        }
+        List<Flower> result = new ArrayList<>();
+        for (Flower flower : current().flowers()) {
+            if (query.matches(flower)) result.add(flower);
+        }
+        return result;
+    }
+
+    // The k stalest catalog flowers, stalest first, for stock rotation
+    public List<Flower> stalest(int k) throws SQLException {
+        List<Flower> flowers = current().flowers();
+        return FreshnessBuckets.stalest(flowers, FreshnessBuckets.histogram(flowers), k);
+    }
+
+    private Snapshot current() throws SQLException {
+        Snapshot current = snapshot;
+        if (current != null && !isExpired(current)) {
+            hits.increment();
+            return current;
+        }
+        misses.increment();
+        return reload();
+    }
+
+    private Snapshot reload() throws SQLException {
+        refreshLock.lock();
+        try {
+            // Another reader may have reloaded while this one waited for the lock
+            Snapshot current = snapshot;
+            if (current != null && !isExpired(current)) return current;
+
+            long seenGeneration = generation.get();
+            List<Flower> loaded = Collections.unmodifiableList(new ArrayList<>(loader.load()));
+            Snapshot fresh = new Snapshot(loaded, nanoClock.getAsLong());
+            // Data invalidated during the load may already be stale, so it is not cached
+            if (generation.get() == seenGeneration) {
+                snapshot = fresh;
+            }
+            refreshes.increment();
+            return fresh;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean isExpired(Snapshot current) {
+        return nanoClock.getAsLong() - current.loadedAtNanos() >= ttlNanos;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+        invalidations.increment();
+    }
+
+    @Override
+    public void flowersAdded(List<Flower> added) {
+        refreshLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null) return; // the next read loads everything anyway
+
+            // A reload that ran after the insert already contains the new rows
+            List<Flower> flowers = current.flowers();
+            int lastId = flowers.isEmpty() ? 0 : flowers.get(flowers.size() - 1).getId();
+            List<Flower> combined = new ArrayList<>(flowers.size() + added.size());
+            combined.addAll(flowers);
+            for (Flower flower : added) {
+                if (flower.getId() > lastId) combined.add(flower);
+            }
+            snapshot = new Snapshot(Collections.unmodifiableList(combined), current.loadedAtNanos());
+            incrementalUpdates.increment();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @Override
+    public void flowersChanged() {
+        invalidate();
+    }
+
+    public CatalogStats stats() {
+        Snapshot current = snapshot;
+        return new CatalogStats(hits.sum(), misses.sum(), refreshes.sum(), incrementalUpdates.sum(),
+                invalidations.sum(), current == null ? 0 : current.flowers().size());
+    }
+
+    @Override
+    public void close() {
+        DatabaseStorage.removeFlowerChangeListener(this);
+    }
+
+    public record CatalogStats(long hits, long misses, long refreshes, long incrementalUpdates,
+                               long invalidations, int size) {
+        @Override
+        public String toString() {
+            return String.format("Catalog: %d flowers | hits: %d | misses: %d | refreshes: %d | "
+                    + "incremental updates: %d | invalidations: %d",
+                    size, hits, misses, refreshes, incrementalUpdates, invalidations);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ideaprojects.bloomstore.service;
+
+import com.ideaprojects.bloomstore.model.Flower;
+
+import java.util.List;
+
+// Linear-time freshness ordering. Freshness is clamped to 0..100, so flowers can be
+// bucketed by level instead of compared; within a level the original order is kept.
+final class FreshnessBuckets {
+    static final int LEVELS = 101;
+
+    private FreshnessBuckets() {}
+
+    static int[] histogram(List<Flower> flowers) {
+        int[] counts = new int[LEVELS];
+        for (Flower f : flowers) counts[f.getFreshnessLevel()]++;
+        return counts;
+    }
+
+    // Stable counting sort, freshest first. counts must match the flowers' current levels.
+    static void sortDescending(List<Flower> flowers, int[] counts) {
+        int[] next = new int[LEVELS];
+        int position = 0;
+        for (int level = LEVELS - 1; level >= 0; level--) {
+            next[level] = position;
+            position += counts[level];
+        }
+
+        Flower[] sorted = new Flower[flowers.size()];
+        for (Flower f : flowers) sorted[next[f.getFreshnessLevel()]++] = f;
+        for (int i = 0; i < sorted.length; i++) flowers.set(i, sorted[i]);
+    }
+
+    // The k freshest flowers, freshest first, without reordering the source list
+    static List<Flower> freshest(List<Flower> flowers, int[] counts, int k) {
+        return select(flowers, counts, k, true);
+    }
+
+    // The k stalest flowers, stalest first, without reordering the source list
+    static List<Flower> stalest(List<Flower> flowers, int[] counts, int k) {
+        return select(flowers, counts, k, false);
+    }
+
+    private static List<Flower> select(List<Flower> flowers, int[] counts, int k, boolean freshestFirst) {
+        if (k < 0) throw new IllegalArgumentException("k must not be negative");
+        int wanted = Math.min(k, flowers.size());
+        if (wanted == 0) return List.of();
+
+        // Walk the levels in result order, giving each one a slot range until k are covered
+        int[] next = new int[LEVELS];
+        int[] quota = new int[LEVELS];
+        int position = 0;
+        for (int i = 0; i < LEVELS && position < wanted; i++) {
+            int level = freshestFirst ? LEVELS - 1 - i : i;
+            int take = Math.min(counts[level], wanted - position);
+            next[level] = position;
+            quota[level] = take;
+            position += take;
+        }
+
+        Flower[] result = new Flower[wanted];
+        int filled = 0;
+        for (Flower f : flowers) {
+            int level = f.getFreshnessLevel();
+            if (quota[level] > 0) {
+                result[next[level]++] = f;
+                quota[level]--;
+                if (++filled == wanted) break;
+            }
+        }
+        return List.of(result);
+    }
+}
@@ -0,0 +1,38 @@
+package com.ideaprojects.bloomstore.service;
+
+// Running total of prices with Neumaier compensation: the low-order bits each addition rounds
+// away are kept in a second double, so adding and later subtracting a price leaves no drift
+// (0.1 + 0.2 - 0.1 reads back as 0.2). Add and subtract are constant time.
+final class PriceSum {
+    private double sum;
+    private double compensation;
+
+    void add(double value) {
+        double t = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - t) + value;
+        } else {
+            compensation += (value - t) + sum;
+        }
+        sum = t;
+    }
+
+    void subtract(double value) {
+        add(-value);
+    }
+
+    // Carries the other total over with its compensation, as if its prices were added one by one
+    void add(PriceSum other) {
+        add(other.sum);
+        add(other.compensation);
+    }
+
+    double value() {
+        return sum + compensation;
+    }
+
+    void reset() {
+        sum = 0.0;
+        compensation = 0.0;
+    }
+}
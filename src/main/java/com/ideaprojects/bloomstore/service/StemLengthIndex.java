@@ -0,0 +1,133 @@
+package com.ideaprojects.bloomstore.service;
+
+import com.ideaprojects.bloomstore.model.Flower;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+// Flowers ordered by stem length: a tree of distinct lengths, each holding its flowers in
+// insertion order. Adds and removes are O(log n); a range lookup is O(log n) to find the first
+// length plus a walk over the k matches, and min/max are O(log n). Flowers keep identity
+// equality, so a bucket finds the exact object in constant time; the same object added twice
+// is counted twice and listed next to its first copy. Like Bouquet, not safe for concurrent use
+// while it is being changed.
+final class StemLengthIndex {
+    private static final Comparator<Flower> BY_LENGTH = Comparator.comparingDouble(Flower::getStemLengthCm);
+
+    // Flowers of one length, each with the number of times it was added
+    private static final class Bucket {
+        private final Map<Flower, Integer> copies = new LinkedHashMap<>();
+        private int count;
+
+        private void add(Flower flower) {
+            copies.merge(flower, 1, Integer::sum);
+            count++;
+        }
+
+        private boolean remove(Flower flower) {
+            Integer n = copies.get(flower);
+            if (n == null) return false;
+            if (n == 1) copies.remove(flower);
+            else copies.put(flower, n - 1);
+            count--;
+            return true;
+        }
+
+        private void forEach(Consumer<? super Flower> action) {
+            for (Map.Entry<Flower, Integer> entry : copies.entrySet()) {
+                for (int i = entry.getValue(); i > 0; i--) action.accept(entry.getKey());
+            }
+        }
+    }
+
+    private final NavigableMap<Double, Bucket> byLength = new TreeMap<>();
+    private int size;
+
+    // Bulk build with one sort; equal lengths then arrive together and share a bucket lookup
+    static StemLengthIndex of(List<Flower> source) {
+        Flower[] sorted = source.toArray(new Flower[0]);
+        Arrays.sort(sorted, BY_LENGTH);
+
+        StemLengthIndex index = new StemLengthIndex();
+        Bucket bucket = null;
+        double bucketLength = Double.NaN;
+        for (Flower flower : sorted) {
+            double length = flower.getStemLengthCm();
+            if (bucket == null || length != bucketLength) {
+                bucket = new Bucket();
+                bucketLength = length;
+                index.byLength.put(length, bucket);
+            }
+            bucket.add(flower);
+        }
+        index.size = sorted.length;
+        return index;
+    }
+
+    void add(Flower flower) {
+        byLength.computeIfAbsent(flower.getStemLengthCm(), length -> new Bucket()).add(flower);
+        size++;
+    }
+
+    // Removes this exact flower object; its stem length must not have changed since add
+    boolean remove(Flower flower) {
+        double length = flower.getStemLengthCm();
+        Bucket bucket = byLength.get(length);
+        if (bucket == null || !bucket.remove(flower)) return false;
+        if (bucket.count == 0) byLength.remove(length);
+        size--;
+        return true;
+    }
+
+    void clear() {
+        byLength.clear();
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    double min() {
+        return size == 0 ? 0.0 : byLength.firstKey();
+    }
+
+    double max() {
+        return size == 0 ? 0.0 : byLength.lastKey();
+    }
+
+    // Calls the action for each flower with minCm <= length <= maxCm, shortest first
+    void forEachInRange(double minCm, double maxCm, Consumer<? super Flower> action) {
+        for (Bucket bucket : range(minCm, maxCm).values()) bucket.forEach(action);
+    }
+
+    // Adds the matches to the sink and returns how many were added
+    int collectInRange(double minCm, double maxCm, Collection<? super Flower> sink) {
+        int added = 0;
+        for (Bucket bucket : range(minCm, maxCm).values()) {
+            bucket.forEach(sink::add);
+            added += bucket.count;
+        }
+        return added;
+    }
+
+    // One step per distinct length in the range, not per flower
+    int countInRange(double minCm, double maxCm) {
+        int count = 0;
+        for (Bucket bucket : range(minCm, maxCm).values()) count += bucket.count;
+        return count;
+    }
+
+    private NavigableMap<Double, Bucket> range(double minCm, double maxCm) {
+        if (maxCm < minCm || Double.isNaN(minCm) || Double.isNaN(maxCm)) return Collections.emptyNavigableMap();
+        return byLength.subMap(minCm, true, maxCm, true);
+    }
+}
@@ -0,0 +1,38 @@
+package com.ideaprojects.bloomstore.util;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+// One page of the saved-bouquet listing, newest first. next is where the following page starts,
+// or null on the last page.
+public record BouquetPage(List<BouquetSummary> bouquets, Cursor next) {
+
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    // Position of the last bouquet returned. Pages continue strictly after it in
+    // (created_date, id) descending order, so rows saved meanwhile never shift a page.
+    public record Cursor(LocalDate createdDate, int id) {
+
+        static Cursor of(BouquetSummary summary) {
+            return new Cursor(summary.createdDate(), summary.id());
+        }
+
+        // Opaque form for clients, e.g. "2025-10-18.42"
+        public String token() {
+            return createdDate + "." + id;
+        }
+
+        public static Cursor fromToken(String token) {
+            int dot = token.lastIndexOf('.');
+            try {
+                if (dot < 0) throw new IllegalArgumentException("Invalid page token: " + token);
+                return new Cursor(LocalDate.parse(token.substring(0, dot)), Integer.parseInt(token.substring(dot + 1)));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid page token: " + token, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ideaprojects.bloomstore.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Filters for the saved-bouquet listing, compiled into a parameterized WHERE clause like FlowerQuery
+public final class BouquetQuery {
+    private LocalDate createdFrom;
+    private LocalDate createdTo;
+    private String nameContains;
+
+    private BouquetQuery() {}
+
+    public static BouquetQuery all() {
+        return new BouquetQuery();
+    }
+
+    // Bouquets saved on any day from..to, both inclusive
+    public BouquetQuery createdBetween(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) throw new IllegalArgumentException("Created date range starts after it ends");
+        this.createdFrom = from;
+        this.createdTo = to;
+        return this;
+    }
+
+    // Substring of the name; ASCII letters match regardless of case
+    public BouquetQuery nameContains(String text) {
+        if (text == null || text.isEmpty()) throw new IllegalArgumentException("name filter must not be empty");
+        this.nameContains = text;
+        return this;
+    }
+
+    // Conditions joined with AND, or an empty list when nothing is filtered
+    List<String> conditions() {
+        List<String> conditions = new ArrayList<>();
+        // created_date holds ISO dates, which compare as text in date order
+        if (createdFrom != null) conditions.add("created_date BETWEEN ? AND ?");
+        if (nameContains != null) conditions.add("name LIKE ? ESCAPE '\\'");
+        return conditions;
+    }
+
+    // Binds the values in conditions() order, returns the next free parameter index
+    int bind(PreparedStatement pstmt, int index) throws SQLException {
+        if (createdFrom != null) {
+            pstmt.setString(index++, createdFrom.toString());
+            pstmt.setString(index++, createdTo.toString());
+        }
+        if (nameContains != null) pstmt.setString(index++, "%" + escapeLike(nameContains) + "%");
+        return index;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
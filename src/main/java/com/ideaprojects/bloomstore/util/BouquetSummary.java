@@ -0,0 +1,19 @@
+package com.ideaprojects.bloomstore.util;
+
+import java.time.LocalDate;
+
+// One saved bouquet in a listing, with the totals stored on its row instead of its flowers
+public record BouquetSummary(int id,
+                             String name,
+                             LocalDate createdDate,
+                             double totalPrice,
+                             int flowerCount,
+                             int accessoryCount,
+                             double averageFreshness) {
+
+    @Override
+    public String toString() {
+        return String.format("ID: %d | Name: %s | Date: %s | Flowers: %d | Total: %.2f $$$",
+                id, name, createdDate, flowerCount, totalPrice);
+    }
+}
@@ -0,0 +1,217 @@
+package com.ideaprojects.bloomstore.util;
+
+import com.ideaprojects.bloomstore.model.Accessory;
+import com.ideaprojects.bloomstore.model.Flower;
+import com.ideaprojects.bloomstore.service.Bouquet;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Write-behind saving with group commit. Callers enqueue bouquets and get their future ID; one
+// writer thread commits everything queued within maxLatency of the oldest waiting bouquet, up to
+// maxBatch bouquets per transaction, so many orders share one fsync. The queue is bounded: when
+// the writer falls behind, submit() blocks instead of letting memory grow.
+public class BouquetWriteQueue implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = DatabaseConfig.getInt("bloomstore.writebehind.capacity", 10_000);
+    private static final int DEFAULT_MAX_BATCH = DatabaseConfig.getInt("bloomstore.writebehind.maxBatch", 500);
+    private static final long DEFAULT_MAX_LATENCY_MS = DatabaseConfig.getLong("bloomstore.writebehind.maxLatencyMs", 10);
+
+    // A bouquet to save, or with a null entry, a marker that completes once everything before it is saved
+    private record Pending(DatabaseStorage.NamedBouquet entry, CompletableFuture<Integer> result,
+                           long enqueuedNanos, boolean stop) {}
+
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatch;
+    private final long maxLatencyNanos;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private final LongAdder committedBouquets = new LongAdder();
+    private final LongAdder committedBatches = new LongAdder();
+    private final LongAdder failedBouquets = new LongAdder();
+
+    public BouquetWriteQueue() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_BATCH, Duration.ofMillis(DEFAULT_MAX_LATENCY_MS));
+    }
+
+    public BouquetWriteQueue(int capacity, int maxBatch, Duration maxLatency) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+        if (maxBatch < 1) throw new IllegalArgumentException("Max batch must be positive");
+        if (maxLatency.isNegative()) throw new IllegalArgumentException("Max latency must not be negative");
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.maxLatencyNanos = maxLatency.toNanos();
+        this.writer = new Thread(this::drain, "bloomstore-bouquet-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Blocks while the queue is full. The bouquet's flowers and accessories are captured now;
+    // the flower objects themselves should not change until the future completes.
+    public CompletableFuture<Integer> submit(Bouquet bouquet, String name) throws InterruptedException {
+        Pending pending = pending(bouquet, name);
+        checkOpen();
+        queue.put(pending);
+        return pending.result();
+    }
+
+    // Like submit, but gives up with RejectedExecutionException when no room frees up in time
+    public CompletableFuture<Integer> submit(Bouquet bouquet, String name, Duration timeout)
+            throws InterruptedException {
+        Pending pending = pending(bouquet, name);
+        checkOpen();
+        if (!queue.offer(pending, timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new RejectedExecutionException("Write queue is full");
+        }
+        return pending.result();
+    }
+
+    private static Pending pending(Bouquet bouquet, String name) {
+        Objects.requireNonNull(bouquet, "bouquet must not be null");
+        Bouquet copy = new Bouquet();
+        for (Flower f : bouquet.getFlowers()) copy.addFlower(f);
+        for (Accessory a : bouquet.getAccessories()) copy.addAccessory(a);
+        return new Pending(new DatabaseStorage.NamedBouquet(name, copy), new CompletableFuture<>(),
+                System.nanoTime(), false);
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("Write queue is closed");
+    }
+
+    // Completes once every bouquet submitted before the call is committed (or has failed)
+    public CompletableFuture<Void> flush() throws InterruptedException {
+        checkOpen();
+        Pending marker = new Pending(null, new CompletableFuture<>(), System.nanoTime(), false);
+        queue.put(marker);
+        return marker.result().thenApply(id -> null);
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public long getCommittedBouquets() {
+        return committedBouquets.sum();
+    }
+
+    public long getCommittedBatches() {
+        return committedBatches.sum();
+    }
+
+    public long getFailedBouquets() {
+        return failedBouquets.sum();
+    }
+
+    // Stops accepting bouquets, commits everything already queued and waits for the writer
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(new Pending(null, new CompletableFuture<>(), System.nanoTime(), true));
+                writer.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        // Submitters that passed the open check while closing raced the stop marker
+        List<Pending> stranded = new ArrayList<>();
+        queue.drainTo(stranded);
+        for (Pending p : stranded) p.result().completeExceptionally(new IllegalStateException("Write queue is closed"));
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        boolean stop = false;
+        while (!stop) {
+            batch.clear();
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                // Only close() ends the writer; keep draining
+                continue;
+            }
+            stop = collect(batch);
+            commit(batch);
+        }
+    }
+
+    // Adds bouquets until the batch is full, the oldest one has waited maxLatency, or a marker
+    // arrives; returns true when the stop marker was taken
+    private boolean collect(List<Pending> batch) {
+        long deadline = batch.get(0).enqueuedNanos() + maxLatencyNanos;
+        while (true) {
+            Pending last = batch.get(batch.size() - 1);
+            if (last.entry() == null) return last.stop();
+            if (batch.size() >= maxBatch) return false;
+
+            Pending next = queue.poll();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return false;
+                try {
+                    next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    return false; // commit what is there
+                }
+                if (next == null) return false;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        List<Pending> bouquets = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            if (p.entry() != null) bouquets.add(p);
+        }
+
+        if (!bouquets.isEmpty()) {
+            try {
+                complete(bouquets, DatabaseStorage.saveAll(entries(bouquets), DatabaseStorage.getBatchSize()));
+                committedBatches.increment();
+            } catch (SQLException | RuntimeException e) {
+                // One bad bouquet must not fail its neighbours. saveAll has rolled the whole group
+                // back on any exception, so retrying each in its own transaction stores it once.
+                for (Pending p : bouquets) {
+                    try {
+                        complete(List.of(p), DatabaseStorage.saveAll(entries(List.of(p)), DatabaseStorage.getBatchSize()));
+                        committedBatches.increment();
+                    } catch (SQLException | RuntimeException single) {
+                        failedBouquets.increment();
+                        p.result().completeExceptionally(single);
+                    }
+                }
+            }
+        }
+
+        for (Pending p : batch) {
+            if (p.entry() == null) p.result().complete(null);
+        }
+    }
+
+    private static List<DatabaseStorage.NamedBouquet> entries(List<Pending> pending) {
+        List<DatabaseStorage.NamedBouquet> entries = new ArrayList<>(pending.size());
+        for (Pending p : pending) entries.add(p.entry());
+        return entries;
+    }
+
+    private void complete(List<Pending> pending, List<Integer> ids) {
+        committedBouquets.add(pending.size());
+        for (int i = 0; i < pending.size(); i++) pending.get(i).result().complete(ids.get(i));
+    }
+}
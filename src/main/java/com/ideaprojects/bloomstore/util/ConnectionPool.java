@@ -0,0 +1,291 @@
+package com.ideaprojects.bloomstore.util;
+
+import com.ideaprojects.bloomstore.metrics.Metrics;
+import com.ideaprojects.bloomstore.metrics.Operation;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded pool of physical JDBC connections. Borrowed connections are proxies whose
+// close() hands the physical connection back to the pool instead of closing it.
+public final class ConnectionPool implements AutoCloseable {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    // Time from borrow() to a usable connection, including the wait for a permit and any connect
+    private static final Operation ACQUIRE = Metrics.storage("pool.acquire");
+
+    private final String url;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long validationIdleMillis;
+    private final long leakThresholdMillis;
+    private final List<String> initStatements;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService leakDetector;
+    private volatile boolean closed;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder leaksDetected = new LongAdder();
+
+    public ConnectionPool(String url, int maxSize, long acquireTimeoutMillis,
+                          long validationIdleMillis, long leakThresholdMillis) {
+        this(url, maxSize, acquireTimeoutMillis, validationIdleMillis, leakThresholdMillis, List.of());
+    }
+
+    // initStatements run once on every new physical connection, e.g. PRAGMAs
+    public ConnectionPool(String url, int maxSize, long acquireTimeoutMillis,
+                          long validationIdleMillis, long leakThresholdMillis, List<String> initStatements) {
+        if (maxSize <= 0) throw new IllegalArgumentException("Pool size must be positive");
+        this.url = url;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.validationIdleMillis = validationIdleMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.initStatements = List.copyOf(initStatements);
+        this.permits = new Semaphore(maxSize, true);
+
+        // Leak detection is off when the threshold is zero
+        if (leakThresholdMillis > 0) {
+            leakDetector = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "bloomstore-pool-leak-detector");
+                t.setDaemon(true);
+                return t;
+            });
+            long period = Math.max(1, leakThresholdMillis / 2);
+            leakDetector.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            leakDetector = null;
+        }
+    }
+
+    public Connection borrow() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+
+        long timer = ACQUIRE.start();
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                ACQUIRE.stopFailed(timer);
+                throw new SQLException("Timed out after " + acquireTimeoutMillis
+                        + " ms waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ACQUIRE.stopFailed(timer);
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        long waited = System.nanoTime() - start;
+        acquisitions.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        try {
+            PooledConnection pooled = takeIdleOrCreate();
+            pooled.borrowedAtMillis = System.currentTimeMillis();
+            pooled.borrower = Thread.currentThread();
+            pooled.leakReported = false;
+            active.add(pooled);
+            Connection handle = pooled.newHandle();
+            ACQUIRE.stop(timer, 0);
+            return handle;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            ACQUIRE.stopFailed(timer);
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) return pooled;
+            validationFailures.increment();
+            closeQuietly(pooled.physical);
+        }
+        Connection physical = DriverManager.getConnection(url);
+        try (Statement stmt = physical.createStatement()) {
+            for (String sql : initStatements) {
+                stmt.execute(sql);
+            }
+        } catch (SQLException e) {
+            closeQuietly(physical);
+            throw e;
+        }
+        created.increment();
+        return new PooledConnection(physical);
+    }
+
+    // Connections that sat idle for a while are checked before being handed out again
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) return false;
+            long idleFor = System.currentTimeMillis() - pooled.returnedAtMillis;
+            return idleFor < validationIdleMillis || pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void giveBack(PooledConnection pooled) {
+        active.remove(pooled);
+        pooled.borrower = null;
+        boolean reusable = !closed;
+        try {
+            // Leave the connection the way the next borrower expects it
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            pooled.returnedAtMillis = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } else {
+            closeQuietly(pooled.physical);
+        }
+        permits.release();
+    }
+
+    private void detectLeaks() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : active) {
+            Thread borrower = pooled.borrower;
+            if (pooled.leakReported || borrower == null) continue;
+            long heldFor = now - pooled.borrowedAtMillis;
+            if (heldFor < leakThresholdMillis) continue;
+
+            pooled.leakReported = true;
+            leaksDetected.increment();
+            StringBuilder sb = new StringBuilder();
+            sb.append("Possible connection leak: held for ").append(heldFor)
+                    .append(" ms by thread ").append(borrower.getName()).append('\n');
+            for (StackTraceElement element : borrower.getStackTrace()) {
+                sb.append("\tat ").append(element).append('\n');
+            }
+            System.err.print(sb);
+        }
+    }
+
+    public PoolMetrics metrics() {
+        return new PoolMetrics(maxSize, active.size(), idle.size(), created.sum(),
+                acquisitions.sum(), totalWaitNanos.sum(), maxWaitNanos.get(),
+                permits.getQueueLength(), timeouts.sum(), validationFailures.sum(), leaksDetected.sum());
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (leakDetector != null) leakDetector.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closeQuietly(pooled.physical);
+        }
+        // Borrowed connections are closed when their borrowers give them back
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Nothing useful to do with a failure while discarding a connection
+        }
+    }
+
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long borrowedAtMillis;
+        private volatile long returnedAtMillis;
+        private volatile Thread borrower;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.returnedAtMillis = System.currentTimeMillis();
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+    }
+
+    // One handle per borrow, so a stale reference cannot touch a connection after it went back
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean released;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!released) {
+                        released = true;
+                        giveBack(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return released || pooled.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + url + (released ? ", released]" : "]");
+                }
+                default -> {
+                    if (released) throw new SQLException("Connection has been returned to the pool");
+                }
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
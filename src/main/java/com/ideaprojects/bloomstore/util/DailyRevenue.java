@@ -0,0 +1,12 @@
+package com.ideaprojects.bloomstore.util;
+
+import java.time.LocalDate;
+
+// Sales of one day, summed from the bouquet totals
+public record DailyRevenue(LocalDate date, int bouquets, long flowers, double revenue) {
+
+    @Override
+    public String toString() {
+        return String.format("%s | bouquets: %d | flowers: %d | revenue: %.2f $$$", date, bouquets, flowers, revenue);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ideaprojects.bloomstore.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+// Settings from bloomstore.properties on the classpath, optionally overlaid by the file named
+// in -Dbloomstore.config. System properties with the same key win over both.
+public final class DatabaseConfig {
+    private static final String CONFIG_RESOURCE = "/bloomstore.properties";
+    private static final String CONFIG_FILE_PROPERTY = "bloomstore.config";
+
+    private static final Properties PROPERTIES = load();
+
+    private DatabaseConfig() {}
+
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream in = DatabaseConfig.class.getResourceAsStream(CONFIG_RESOURCE)) {
+            if (in != null) properties.load(in);
+
+            String external = System.getProperty(CONFIG_FILE_PROPERTY);
+            if (external != null) {
+                try (InputStream file = Files.newInputStream(Path.of(external))) {
+                    properties.load(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read BloomStore configuration", e);
+        }
+        return properties;
+    }
+
+    public static String get(String key, String defaultValue) {
+        return System.getProperty(key, PROPERTIES.getProperty(key, defaultValue)).trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return Integer.parseInt(get(key, Integer.toString(defaultValue)));
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        return Long.parseLong(get(key, Long.toString(defaultValue)));
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(get(key, Boolean.toString(defaultValue)));
+    }
+
+    public static DatabaseProfile getProfile() {
+        return DatabaseProfile.fromName(get("bloomstore.db.profile", DatabaseProfile.BALANCED.name()));
+    }
+}
@@ -0,0 +1,48 @@
+package com.ideaprojects.bloomstore.util;
+
+import java.util.List;
+import java.util.Locale;
+
+// SQLite PRAGMA sets applied to every new physical connection. All profiles use WAL so readers
+// do not block the writer; they differ in how often SQLite syncs and how much it caches.
+public enum DatabaseProfile {
+    // fsync on every commit; survives power loss
+    DURABLE("FULL", -8_000, 0L, "DEFAULT", 5_000),
+    // fsync at checkpoints only; a power loss can drop the last commits but never corrupts
+    BALANCED("NORMAL", -32_000, 64L * 1024 * 1024, "MEMORY", 5_000),
+    // no fsync at all; for imports and benchmarks where the data can be rebuilt
+    THROUGHPUT("OFF", -131_072, 256L * 1024 * 1024, "MEMORY", 10_000);
+
+    private final String synchronous;
+    private final int cacheSize; // negative values are KiB, as in PRAGMA cache_size
+    private final long mmapSize;
+    private final String tempStore;
+    private final int busyTimeoutMs;
+
+    DatabaseProfile(String synchronous, int cacheSize, long mmapSize, String tempStore, int busyTimeoutMs) {
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+        this.busyTimeoutMs = busyTimeoutMs;
+    }
+
+    public static DatabaseProfile fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown database profile: " + name, e);
+        }
+    }
+
+    public List<String> pragmas() {
+        // busy_timeout goes first so switching the journal mode waits for other connections
+        return List.of(
+                "PRAGMA busy_timeout = " + busyTimeoutMs,
+                "PRAGMA journal_mode = WAL",
+                "PRAGMA synchronous = " + synchronous,
+                "PRAGMA cache_size = " + cacheSize,
+                "PRAGMA mmap_size = " + mmapSize,
+                "PRAGMA temp_store = " + tempStore);
+    }
+}
@@ -1,102 +1,153 @@
 package com.ideaprojects.bloomstore.util;
 
+import com.ideaprojects.bloomstore.metrics.Metrics;
+import com.ideaprojects.bloomstore.metrics.Operation;
 import com.ideaprojects.bloomstore.model.*;
 import com.ideaprojects.bloomstore.service.Bouquet;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public final class DatabaseStorage {
+    private static final String INSERT_FLOWER_SQL = """
+        INSERT INTO flowers (type, name, price, stem_length_cm, cut_date,
+                             freshness_level, thorn_count, color, fragrant, stock,
+                             initial_freshness, freshness_day)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    // Stems on hand for each sample flower
+    static final int SAMPLE_STOCK = 50;
+    // The totals are stored with the row, so listings and reports never rebuild the bouquet
+    private static final String INSERT_BOUQUET_SQL = """
+        INSERT INTO bouquets (name, created_date, total_price, flower_count, accessory_count, avg_freshness)
+        VALUES (?, ?, ?, ?, ?, ?)
+        """;
+    private static final String BOUQUET_SUMMARY_COLUMNS =
+            "id, name, created_date, total_price, flower_count, accessory_count, avg_freshness";
+    private static final String INSERT_BOUQUET_FLOWER_SQL = """
+        INSERT INTO bouquet_flowers (bouquet_id, flower_type, price, stem_length_cm,
+                                    cut_date, freshness_level, thorn_count, color, fragrant)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+    private static final String INSERT_BOUQUET_ACCESSORY_SQL =
+            "INSERT INTO bouquet_accessories (bouquet_id, accessory_name) VALUES (?, ?)";
+
+    // Each ID is bound twice per query, which keeps chunks under SQLite's 999 parameter limit
+    private static final int MAX_IDS_PER_QUERY = 400;
+
+    // Largest page listBouquets hands out
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // Rows the driver fetches per round trip when streaming
+    private static final int DEFAULT_FETCH_SIZE = DatabaseConfig.getInt("bloomstore.fetch.size", 1000);
+
+    // Rows per executeBatch call
+    private static volatile int batchSize = DatabaseConfig.getInt("bloomstore.batch.size", 500);
+
+    private static final List<FlowerChangeListener> flowerListeners = new CopyOnWriteArrayList<>();
+
+    // Recorded with the rows read or written; saveBouquet and loadBouquet report as the batch calls
+    private static final Operation INITIALIZE_SAMPLES = Metrics.storage("storage.initializeSampleFlowers");
+    private static final Operation LOAD_ALL_FLOWERS = Metrics.storage("storage.loadAllFlowers");
+    private static final Operation STREAM_FLOWERS = Metrics.storage("storage.streamFlowers");
+    private static final Operation CATALOG_REVISION = Metrics.storage("storage.getCatalogRevision");
+    private static final Operation SAVE_BOUQUETS = Metrics.storage("storage.saveBouquets");
+    private static final Operation LOAD_BOUQUETS = Metrics.storage("storage.loadBouquets");
+    private static final Operation BOUQUET_EXISTS = Metrics.storage("storage.bouquetExists");
+    private static final Operation SAVED_BOUQUETS = Metrics.storage("storage.getSavedBouquets");
+    private static final Operation LIST_BOUQUETS = Metrics.storage("storage.listBouquets");
+    private static final Operation BOUQUET_SUMMARY = Metrics.storage("storage.getBouquetSummary");
+    private static final Operation DAILY_REVENUE = Metrics.storage("storage.dailyRevenue");
+
     private DatabaseStorage() {}
 
     // Initialize database with sample flowers
     public static void initializeSampleFlowers() throws SQLException {
+        long start = INITIALIZE_SAMPLES.start();
         try (Connection conn = DatabaseUtil.getConnection();
              Statement stmt = conn.createStatement()) {
 
             // Check if flowers already exist
-            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM flowers");
-            if (rs.next() && rs.getInt(1) > 0) {
-                System.out.println("Sample flowers already exist in database");
-                return;
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM flowers")) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    System.out.println("Sample flowers already exist in database");
+                    INITIALIZE_SAMPLES.stop(start, 1);
+                    return;
+                }
             }
 
             // Insert sample flowers
-            String insertSql = """
-                INSERT INTO flowers (type, name, price, stem_length_cm, cut_date, 
-                                   freshness_level, thorn_count, color, fragrant)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
-                """;
-
-            try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
-                // Rose 1
-                insertRose(pstmt, 3.50, 40.0, LocalDate.now().minusDays(1), 90, 12);
-                // Rose 2
-                insertRose(pstmt, 4.00, 50.0, LocalDate.now().minusDays(2), 75, 8);
-                // Tulip 1
-                insertTulip(pstmt, 1.50, 30.0, LocalDate.now(), 95, "red");
-                // Lily 1
-                insertLily(pstmt, 2.80, 45.0, LocalDate.now().minusDays(3), 60, true);
-                // Tulip 2
-                insertTulip(pstmt, 1.70, 35.0, LocalDate.now().minusDays(1), 85, "yellow");
-                // Lily 2
-                insertLily(pstmt, 3.20, 42.0, LocalDate.now().minusDays(2), 80, false);
-                // Rose 3
-                insertRose(pstmt, 5.00, 55.0, LocalDate.now(), 70, 15);
-                // Tulip 3
-                insertTulip(pstmt, 2.00, 28.0, LocalDate.now(), 90, "pink");
+            List<Flower> samples = List.of(
+                    new Rose(3.50, 40.0, LocalDate.now().minusDays(1), 90, 12),
+                    new Rose(4.00, 50.0, LocalDate.now().minusDays(2), 75, 8),
+                    new Tulip(1.50, 30.0, LocalDate.now(), 95, "red"),
+                    new Lily(2.80, 45.0, LocalDate.now().minusDays(3), 60, true),
+                    new Tulip(1.70, 35.0, LocalDate.now().minusDays(1), 85, "yellow"),
+                    new Lily(3.20, 42.0, LocalDate.now().minusDays(2), 80, false),
+                    new Rose(5.00, 55.0, LocalDate.now(), 70, 15),
+                    new Tulip(2.00, 28.0, LocalDate.now(), 90, "pink"));
+
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_FLOWER_SQL,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                LocalDate today = LocalDate.now();
+                for (Flower flower : samples) {
+                    bindCatalogFlower(pstmt, flower, SAMPLE_STOCK, today);
+                    pstmt.executeUpdate();
+
+                    try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                        if (keys.next()) flower.setId(keys.getInt(1));
+                    }
+                }
             }
 
             System.out.println("Sample flowers added to database");
+            notifyFlowersAdded(samples);
+            INITIALIZE_SAMPLES.stop(start, 1 + samples.size());
+        } catch (SQLException | RuntimeException e) {
+            INITIALIZE_SAMPLES.stopFailed(start);
+            throw e;
         }
     }
 
-    private static void insertRose(PreparedStatement pstmt, double price, double stemLength,
-                                   LocalDate cutDate, int freshness, int thornCount) throws SQLException {
-        pstmt.setString(1, "Rose");
-        pstmt.setString(2, "Rose");
-        pstmt.setDouble(3, price);
-        pstmt.setDouble(4, stemLength);
-        pstmt.setString(5, cutDate.toString());
-        pstmt.setInt(6, freshness);
-        pstmt.setInt(7, thornCount);
-        pstmt.setNull(8, Types.VARCHAR);
-        pstmt.setNull(9, Types.INTEGER);
-        pstmt.executeUpdate();
+    public static void addFlowerChangeListener(FlowerChangeListener listener) {
+        flowerListeners.add(listener);
     }
 
-    private static void insertTulip(PreparedStatement pstmt, double price, double stemLength,
-                                    LocalDate cutDate, int freshness, String color) throws SQLException {
-        pstmt.setString(1, "Tulip");
-        pstmt.setString(2, "Tulip");
-        pstmt.setDouble(3, price);
-        pstmt.setDouble(4, stemLength);
-        pstmt.setString(5, cutDate.toString());
-        pstmt.setInt(6, freshness);
-        pstmt.setNull(7, Types.INTEGER);
-        pstmt.setString(8, color);
-        pstmt.setNull(9, Types.INTEGER);
-        pstmt.executeUpdate();
+    public static void removeFlowerChangeListener(FlowerChangeListener listener) {
+        flowerListeners.remove(listener);
     }
 
-    private static void insertLily(PreparedStatement pstmt, double price, double stemLength,
-                                   LocalDate cutDate, int freshness, boolean fragrant) throws SQLException {
-        pstmt.setString(1, "Lily");
-        pstmt.setString(2, "Lily");
-        pstmt.setDouble(3, price);
-        pstmt.setDouble(4, stemLength);
-        pstmt.setString(5, cutDate.toString());
-        pstmt.setInt(6, freshness);
-        pstmt.setNull(7, Types.INTEGER);
-        pstmt.setNull(8, Types.VARCHAR);
-        pstmt.setInt(9, fragrant ? 1 : 0);
-        pstmt.executeUpdate();
+    static void notifyFlowersAdded(List<Flower> added) {
+        List<Flower> view = Collections.unmodifiableList(added);
+        for (FlowerChangeListener listener : flowerListeners) {
+            listener.flowersAdded(view);
+        }
+    }
+
+    static void notifyFlowersChanged() {
+        for (FlowerChangeListener listener : flowerListeners) {
+            listener.flowersChanged();
+        }
     }
 
     // Load all available flowers from database
     public static List<Flower> loadAllFlowers() throws SQLException {
+        long start = LOAD_ALL_FLOWERS.start();
         List<Flower> flowers = new ArrayList<>();
 
         try (Connection conn = DatabaseUtil.getConnection();
@@ -104,163 +155,552 @@ public final class DatabaseStorage {
              ResultSet rs = stmt.executeQuery("SELECT * FROM flowers ORDER BY id")) {
 
             while (rs.next()) {
-                String type = rs.getString("type");
-                double price = rs.getDouble("price");
-                double stemLength = rs.getDouble("stem_length_cm");
-                LocalDate cutDate = LocalDate.parse(rs.getString("cut_date"));
-                int freshness = rs.getInt("freshness_level");
-
-                Flower flower = switch (type) {
-                    case "Rose" -> new Rose(price, stemLength, cutDate, freshness,
-                            rs.getInt("thorn_count"));
-                    case "Tulip" -> new Tulip(price, stemLength, cutDate, freshness,
-                            rs.getString("color"));
-                    case "Lily" -> new Lily(price, stemLength, cutDate, freshness,
-                            rs.getInt("fragrant") == 1);
-                    default -> null;
-                };
-
+                Flower flower = readCatalogFlower(rs);
                 if (flower != null) {
                     flowers.add(flower);
                 }
             }
+        } catch (SQLException | RuntimeException e) {
+            LOAD_ALL_FLOWERS.stopFailed(start);
+            throw e;
         }
 
+        LOAD_ALL_FLOWERS.stop(start, flowers.size());
         return flowers;
     }
 
+    // Lazily stream the flower catalog. The stream holds an open cursor and a pooled
+    // connection; close it (try-with-resources) unless it is consumed to the end.
+    public static Stream<Flower> streamFlowers(FlowerQuery query) throws SQLException {
+        return streamFlowers(query, DEFAULT_FETCH_SIZE);
+    }
+
+    public static Stream<Flower> streamFlowers(FlowerQuery query, int fetchSize) throws SQLException {
+        long start = STREAM_FLOWERS.start();
+        String sql = flowerQuerySql(query);
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseUtil.getConnection();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setFetchSize(fetchSize);
+            query.bind(pstmt, 1);
+            rs = pstmt.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            STREAM_FLOWERS.stopFailed(start);
+            closeCursor(rs, pstmt, conn);
+            throw e;
+        }
+
+        FlowerCursor cursor = new FlowerCursor(rs, pstmt, conn, start);
+        return StreamSupport.stream(cursor, false).onClose(cursor::close);
+    }
+
+    private static String flowerQuerySql(FlowerQuery query) {
+        return "SELECT * FROM flowers" + query.whereClause() + " ORDER BY id";
+    }
+
+    // SQLite's EXPLAIN QUERY PLAN detail lines for the query, to check which index it uses
+    static List<String> explainFlowerQuery(FlowerQuery query) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + flowerQuerySql(query))) {
+            query.bind(pstmt, 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) plan.add(rs.getString("detail"));
+            }
+        }
+        return plan;
+    }
+
+    private static void closeCursor(ResultSet rs, Statement stmt, Connection conn) throws SQLException {
+        try (conn; stmt; rs) {
+            // Closed in reverse order by try-with-resources
+        }
+    }
+
+    // Reads one flower per tryAdvance and releases its resources once exhausted or closed. The
+    // stream is recorded at close, from query start, with the number of rows it handed out, or
+    // as a failure if reading a row failed.
+    private static final class FlowerCursor extends Spliterators.AbstractSpliterator<Flower> {
+        private final ResultSet rs;
+        private final Statement stmt;
+        private final Connection conn;
+        private final long start;
+        private long rows;
+        private boolean failed;
+        private boolean closed;
+
+        private FlowerCursor(ResultSet rs, Statement stmt, Connection conn, long start) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rs = rs;
+            this.stmt = stmt;
+            this.conn = conn;
+            this.start = start;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Flower> action) {
+            if (closed) return false;
+            try {
+                while (rs.next()) {
+                    Flower flower = readCatalogFlower(rs);
+                    if (flower != null) {
+                        rows++;
+                        action.accept(flower);
+                        return true;
+                    }
+                }
+            } catch (SQLException e) {
+                failed = true;
+                close();
+                throw new IllegalStateException("Failed to read flower row", e);
+            }
+            close();
+            return false;
+        }
+
+        private void close() {
+            if (closed) return;
+            closed = true;
+            try {
+                closeCursor(rs, stmt, conn);
+            } catch (SQLException e) {
+                STREAM_FLOWERS.stopFailed(start);
+                throw new IllegalStateException("Failed to close flower cursor", e);
+            }
+            if (failed) {
+                STREAM_FLOWERS.stopFailed(start);
+            } else {
+                STREAM_FLOWERS.stop(start, rows);
+            }
+        }
+    }
+
+    // Counter bumped by the flowers triggers on the first catalog change after each read. The read
+    // re-arms the triggers and takes the revision in one transaction, so a write that lands after
+    // it always counts; stock changes never do.
+    public static long getCatalogRevision() throws SQLException {
+        long start = CATALOG_REVISION.start();
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("UPDATE catalog_revision SET observed = 1 WHERE id = 1 AND observed = 0");
+                long revision;
+                try (ResultSet rs = stmt.executeQuery("SELECT revision FROM catalog_revision WHERE id = 1")) {
+                    revision = rs.next() ? rs.getLong(1) : 0L;
+                }
+                conn.commit();
+                CATALOG_REVISION.stop(start, 1);
+                return revision;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException | RuntimeException e) {
+            CATALOG_REVISION.stopFailed(start);
+            throw e;
+        }
+    }
+
     // Save bouquet to database
     public static int saveBouquet(Bouquet bouquet, String name) throws SQLException {
+        return saveAll(List.of(new NamedBouquet(name, bouquet)), batchSize).get(0);
+    }
+
+    // Save many bouquets in a single transaction, keyed by bouquet name
+    public static Map<String, Integer> saveBouquets(Map<String, Bouquet> bouquets) throws SQLException {
+        return saveBouquets(bouquets, batchSize);
+    }
+
+    public static Map<String, Integer> saveBouquets(Map<String, Bouquet> bouquets, int batchSize) throws SQLException {
+        List<NamedBouquet> entries = new ArrayList<>(bouquets.size());
+        for (Map.Entry<String, Bouquet> entry : bouquets.entrySet()) {
+            entries.add(new NamedBouquet(entry.getKey(), entry.getValue()));
+        }
+
+        List<Integer> ids = saveAll(entries, batchSize);
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            result.put(entries.get(i).name(), ids.get(i));
+        }
+        return result;
+    }
+
+    public static int getBatchSize() {
+        return batchSize;
+    }
+
+    public static void setBatchSize(int size) {
+        if (size <= 0) throw new IllegalArgumentException("Batch size must be positive");
+        batchSize = size;
+    }
+
+    // Writes the bouquets in one transaction; child rows are sent to the driver in batches
+    static List<Integer> saveAll(List<NamedBouquet> bouquets, int batchSize) throws SQLException {
+        if (batchSize <= 0) throw new IllegalArgumentException("Batch size must be positive");
+        List<Integer> ids = new ArrayList<>(bouquets.size());
+        if (bouquets.isEmpty()) return ids;
+        long start = SAVE_BOUQUETS.start();
+
         try (Connection conn = DatabaseUtil.getConnection()) {
             conn.setAutoCommit(false);
 
-            try {
-                // Insert bouquet
-                String bouquetSql = "INSERT INTO bouquets (name, created_date) VALUES (?, ?)";
-                int bouquetId;
-
-                try (PreparedStatement pstmt = conn.prepareStatement(bouquetSql,
-                        Statement.RETURN_GENERATED_KEYS)) {
-                    pstmt.setString(1, name);
-                    pstmt.setString(2, LocalDate.now().toString());
-                    pstmt.executeUpdate();
-
-                    ResultSet rs = pstmt.getGeneratedKeys();
-                    if (rs.next()) {
-                        bouquetId = rs.getInt(1);
-                    } else {
-                        throw new SQLException("Failed to get bouquet ID");
+            try (PreparedStatement bouquetStmt = conn.prepareStatement(INSERT_BOUQUET_SQL,
+                         Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement flowerStmt = conn.prepareStatement(INSERT_BOUQUET_FLOWER_SQL);
+                 PreparedStatement accessoryStmt = conn.prepareStatement(INSERT_BOUQUET_ACCESSORY_SQL)) {
+
+                String today = LocalDate.now().toString();
+                int pendingFlowers = 0;
+                int pendingAccessories = 0;
+                long rows = bouquets.size();
+
+                for (NamedBouquet entry : bouquets) {
+                    int bouquetId = insertBouquetRow(bouquetStmt, entry.name(), today, entry.bouquet());
+                    ids.add(bouquetId);
+
+                    rows += entry.bouquet().getFlowerCount() + entry.bouquet().getAccessories().size();
+                    for (Flower flower : entry.bouquet().getFlowers()) {
+                        bindBouquetFlower(flowerStmt, bouquetId, flower);
+                        flowerStmt.addBatch();
+                        if (++pendingFlowers == batchSize) {
+                            flowerStmt.executeBatch();
+                            pendingFlowers = 0;
+                        }
                     }
-                }
 
-                // Insert flowers
-                String flowerSql = """
-                    INSERT INTO bouquet_flowers (bouquet_id, flower_type, price, stem_length_cm,
-                                                cut_date, freshness_level, thorn_count, color, fragrant)
-                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
-                    """;
-
-                try (PreparedStatement pstmt = conn.prepareStatement(flowerSql)) {
-                    for (Flower flower : bouquet.getFlowers()) {
-                        pstmt.setInt(1, bouquetId);
-                        pstmt.setString(2, flower.getClass().getSimpleName());
-                        pstmt.setDouble(3, flower.getPrice());
-                        pstmt.setDouble(4, flower.getStemLengthCm());
-                        pstmt.setString(5, flower.getCutDate().toString());
-                        pstmt.setInt(6, flower.getFreshnessLevel());
-
-                        if (flower instanceof Rose rose) {
-                            pstmt.setInt(7, rose.getThornCount());
-                            pstmt.setNull(8, Types.VARCHAR);
-                            pstmt.setNull(9, Types.INTEGER);
-                        } else if (flower instanceof Tulip tulip) {
-                            pstmt.setNull(7, Types.INTEGER);
-                            pstmt.setString(8, tulip.getColor());
-                            pstmt.setNull(9, Types.INTEGER);
-                        } else if (flower instanceof Lily lily) {
-                            pstmt.setNull(7, Types.INTEGER);
-                            pstmt.setNull(8, Types.VARCHAR);
-                            pstmt.setInt(9, lily.isFragrant() ? 1 : 0);
+                    for (Accessory accessory : entry.bouquet().getAccessories()) {
+                        accessoryStmt.setInt(1, bouquetId);
+                        accessoryStmt.setString(2, accessory.name());
+                        accessoryStmt.addBatch();
+                        if (++pendingAccessories == batchSize) {
+                            accessoryStmt.executeBatch();
+                            pendingAccessories = 0;
                         }
-
-                        pstmt.executeUpdate();
                     }
                 }
 
-                // Insert accessories
-                String accessorySql = "INSERT INTO bouquet_accessories (bouquet_id, accessory_name) VALUES (?, ?)";
-                try (PreparedStatement pstmt = conn.prepareStatement(accessorySql)) {
-                    for (Accessory accessory : bouquet.getAccessories()) {
-                        pstmt.setInt(1, bouquetId);
-                        pstmt.setString(2, accessory.name());
-                        pstmt.executeUpdate();
-                    }
-                }
+                if (pendingFlowers > 0) flowerStmt.executeBatch();
+                if (pendingAccessories > 0) accessoryStmt.executeBatch();
 
                 conn.commit();
-                return bouquetId;
+                SAVE_BOUQUETS.stop(start, rows);
+                return ids;
 
-            } catch (SQLException e) {
+            } catch (SQLException | RuntimeException e) {
+                // Restoring auto-commit below would otherwise commit the rows written so far
                 conn.rollback();
                 throw e;
             } finally {
                 conn.setAutoCommit(true);
             }
+        } catch (SQLException | RuntimeException e) {
+            SAVE_BOUQUETS.stopFailed(start);
+            throw e;
         }
     }
 
-    // Load bouquet from database
+    private static int insertBouquetRow(PreparedStatement pstmt, String name, String createdDate,
+                                        Bouquet bouquet) throws SQLException {
+        pstmt.setString(1, name);
+        pstmt.setString(2, createdDate);
+        pstmt.setDouble(3, bouquet.calculateTotalPrice());
+        pstmt.setInt(4, bouquet.getFlowerCount());
+        pstmt.setInt(5, bouquet.getAccessories().size());
+        pstmt.setDouble(6, bouquet.getAverageFreshness());
+        pstmt.executeUpdate();
+
+        try (ResultSet rs = pstmt.getGeneratedKeys()) {
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+            throw new SQLException("Failed to get bouquet ID");
+        }
+    }
+
+    private static void bindBouquetFlower(PreparedStatement pstmt, int bouquetId, Flower flower) throws SQLException {
+        pstmt.setInt(1, bouquetId);
+        pstmt.setString(2, flower.getClass().getSimpleName());
+        bindFlowerColumns(pstmt, 3, flower);
+    }
+
+    static PreparedStatement prepareFlowerInsert(Connection conn) throws SQLException {
+        return conn.prepareStatement(INSERT_FLOWER_SQL);
+    }
+
+    // Binds every parameter of INSERT_FLOWER_SQL; the flower's freshness is taken as today's reading
+    static void bindCatalogFlower(PreparedStatement pstmt, Flower flower, int stock, LocalDate today)
+            throws SQLException {
+        pstmt.setString(1, flower.getClass().getSimpleName());
+        pstmt.setString(2, flower.getName());
+        bindFlowerColumns(pstmt, 3, flower);
+        pstmt.setInt(10, stock);
+        bindDecayAnchor(pstmt, 11, flower, today);
+    }
+
+    private static void bindDecayAnchor(PreparedStatement pstmt, int index, Flower flower, LocalDate today)
+            throws SQLException {
+        long age = ChronoUnit.DAYS.between(flower.getCutDate(), today);
+        pstmt.setDouble(index, FreshnessDecay.initialFreshness(
+                flower.getClass().getSimpleName(), flower.getFreshnessLevel(), age));
+        pstmt.setLong(index + 1, today.toEpochDay());
+    }
+
+    // Binds price, stem length, cut date, freshness and the type-specific columns
+    // (thorn_count, color, fragrant), which both flowers and bouquet_flowers share
+    private static void bindFlowerColumns(PreparedStatement pstmt, int index, Flower flower) throws SQLException {
+        pstmt.setDouble(index, flower.getPrice());
+        pstmt.setDouble(index + 1, flower.getStemLengthCm());
+        pstmt.setString(index + 2, flower.getCutDate().toString());
+        pstmt.setInt(index + 3, flower.getFreshnessLevel());
+
+        if (flower instanceof Rose rose) {
+            pstmt.setInt(index + 4, rose.getThornCount());
+            pstmt.setNull(index + 5, Types.VARCHAR);
+            pstmt.setNull(index + 6, Types.INTEGER);
+        } else if (flower instanceof Tulip tulip) {
+            pstmt.setNull(index + 4, Types.INTEGER);
+            pstmt.setString(index + 5, tulip.getColor());
+            pstmt.setNull(index + 6, Types.INTEGER);
+        } else if (flower instanceof Lily lily) {
+            pstmt.setNull(index + 4, Types.INTEGER);
+            pstmt.setNull(index + 5, Types.VARCHAR);
+            pstmt.setInt(index + 6, lily.isFragrant() ? 1 : 0);
+        } else {
+            pstmt.setNull(index + 4, Types.INTEGER);
+            pstmt.setNull(index + 5, Types.VARCHAR);
+            pstmt.setNull(index + 6, Types.INTEGER);
+        }
+    }
+
+    // Bouquet paired with the name it is saved under
+    record NamedBouquet(String name, Bouquet bouquet) {}
+
+    // Load bouquet from database; an unknown ID yields an empty bouquet
     public static Bouquet loadBouquet(int bouquetId) throws SQLException {
-        Bouquet bouquet = new Bouquet();
+        return loadBouquets(List.of(bouquetId)).get(bouquetId);
+    }
+
+    // Load many bouquets with one query per chunk of IDs. The result has an entry for every
+    // requested ID, in request order.
+    public static Map<Integer, Bouquet> loadBouquets(Collection<Integer> bouquetIds) throws SQLException {
+        Map<Integer, Bouquet> bouquets = new LinkedHashMap<>();
+        for (Integer id : bouquetIds) {
+            bouquets.putIfAbsent(id, new Bouquet());
+        }
+        if (bouquets.isEmpty()) return bouquets;
 
+        long start = LOAD_BOUQUETS.start();
+        List<Integer> ids = new ArrayList<>(bouquets.keySet());
+        long rows = 0;
         try (Connection conn = DatabaseUtil.getConnection()) {
-            // Load flowers
-            String flowerSql = "SELECT * FROM bouquet_flowers WHERE bouquet_id = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(flowerSql)) {
-                pstmt.setInt(1, bouquetId);
-                ResultSet rs = pstmt.executeQuery();
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+                List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_QUERY));
+                rows += loadBouquetRows(conn, chunk, bouquets);
+            }
+        } catch (SQLException | RuntimeException e) {
+            LOAD_BOUQUETS.stopFailed(start);
+            throw e;
+        }
+        LOAD_BOUQUETS.stop(start, rows);
+        return bouquets;
+    }
+
+    // Returns the number of flower and accessory rows read
+    private static int loadBouquetRows(Connection conn, List<Integer> ids,
+                                       Map<Integer, Bouquet> bouquets) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        // Flower and accessory rows come back together; accessory rows have a NULL flower_type
+        String sql = """
+            SELECT bouquet_id, flower_type, price, stem_length_cm, cut_date, freshness_level,
+                   thorn_count, color, fragrant, NULL AS accessory_name, 0 AS kind, id
+            FROM bouquet_flowers WHERE bouquet_id IN (%1$s)
+            UNION ALL
+            SELECT bouquet_id, NULL, NULL, NULL, NULL, NULL,
+                   NULL, NULL, NULL, accessory_name, 1 AS kind, id
+            FROM bouquet_accessories WHERE bouquet_id IN (%1$s)
+            ORDER BY kind, id
+            """.formatted(placeholders);
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (int pass = 0; pass < 2; pass++) {
+                for (Integer id : ids) {
+                    pstmt.setInt(index++, id);
+                }
+            }
 
+            int rows = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
+                    rows++;
+                    Bouquet bouquet = bouquets.get(rs.getInt("bouquet_id"));
                     String type = rs.getString("flower_type");
-                    double price = rs.getDouble("price");
-                    double stemLength = rs.getDouble("stem_length_cm");
-                    LocalDate cutDate = LocalDate.parse(rs.getString("cut_date"));
-                    int freshness = rs.getInt("freshness_level");
-
-                    Flower flower = switch (type) {
-                        case "Rose" -> new Rose(price, stemLength, cutDate, freshness,
-                                rs.getInt("thorn_count"));
-                        case "Tulip" -> new Tulip(price, stemLength, cutDate, freshness,
-                                rs.getString("color"));
-                        case "Lily" -> new Lily(price, stemLength, cutDate, freshness,
-                                rs.getInt("fragrant") == 1);
-                        default -> null;
-                    };
-
-                    if (flower != null) {
-                        bouquet.addFlower(flower);
+                    if (type == null) {
+                        bouquet.addAccessory(Accessory.valueOf(rs.getString("accessory_name")));
+                    } else {
+                        Flower flower = readFlower(rs, type);
+                        if (flower != null) {
+                            bouquet.addFlower(flower);
+                        }
                     }
                 }
             }
+            return rows;
+        }
+    }
 
-            // Load accessories
-            String accessorySql = "SELECT * FROM bouquet_accessories WHERE bouquet_id = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(accessorySql)) {
-                pstmt.setInt(1, bouquetId);
-                ResultSet rs = pstmt.executeQuery();
+    // Builds a flower from a flowers table row, keeping its row id
+    private static Flower readCatalogFlower(ResultSet rs) throws SQLException {
+        Flower flower = readFlower(rs, rs.getString("type"));
+        if (flower != null) {
+            flower.setId(rs.getInt("id"));
+        }
+        return flower;
+    }
 
+    // Builds a flower from the shared flower columns of the flowers and bouquet_flowers tables
+    private static Flower readFlower(ResultSet rs, String type) throws SQLException {
+        double price = rs.getDouble("price");
+        double stemLength = rs.getDouble("stem_length_cm");
+        LocalDate cutDate = LocalDate.parse(rs.getString("cut_date"));
+        int freshness = rs.getInt("freshness_level");
+
+        return switch (type) {
+            case "Rose" -> new Rose(price, stemLength, cutDate, freshness,
+                    rs.getInt("thorn_count"));
+            case "Tulip" -> new Tulip(price, stemLength, cutDate, freshness,
+                    rs.getString("color"));
+            case "Lily" -> new Lily(price, stemLength, cutDate, freshness,
+                    rs.getInt("fragrant") == 1);
+            default -> null;
+        };
+    }
+
+    public static boolean bouquetExists(int bouquetId) throws SQLException {
+        long start = BOUQUET_EXISTS.start();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM bouquets WHERE id = ?")) {
+            pstmt.setInt(1, bouquetId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                boolean exists = rs.next();
+                BOUQUET_EXISTS.stop(start, exists ? 1 : 0);
+                return exists;
+            }
+        } catch (SQLException | RuntimeException e) {
+            BOUQUET_EXISTS.stopFailed(start);
+            throw e;
+        }
+    }
+
+    // One page of saved bouquets, newest first. Pass the previous page's next cursor to continue,
+    // or null to start from the newest. Every page is a bounded backward scan of
+    // idx_bouquets_created_date (which ends in the rowid), so it costs the same on the first
+    // page as on the thousandth and never holds more than pageSize rows.
+    public static BouquetPage listBouquets(BouquetQuery query, BouquetPage.Cursor after, int pageSize)
+            throws SQLException {
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be within 1.." + MAX_PAGE_SIZE);
+        }
+        long start = LIST_BOUQUETS.start();
+        List<BouquetSummary> bouquets = new ArrayList<>(pageSize);
+        BouquetPage.Cursor next = null;
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(listBouquetsSql(query, after))) {
+            int index = query.bind(pstmt, 1);
+            if (after != null) {
+                pstmt.setString(index++, after.createdDate().toString());
+                pstmt.setInt(index++, after.id());
+            }
+            // One extra row tells whether another page follows
+            pstmt.setInt(index, pageSize + 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    String name = rs.getString("accessory_name");
-                    bouquet.addAccessory(Accessory.valueOf(name));
+                    if (bouquets.size() == pageSize) {
+                        next = BouquetPage.Cursor.of(bouquets.get(pageSize - 1));
+                        break;
+                    }
+                    bouquets.add(readBouquetSummary(rs));
                 }
             }
+        } catch (SQLException | RuntimeException e) {
+            LIST_BOUQUETS.stopFailed(start);
+            throw e;
+        }
+        LIST_BOUQUETS.stop(start, bouquets.size());
+        return new BouquetPage(Collections.unmodifiableList(bouquets), next);
+    }
+
+    static String listBouquetsSql(BouquetQuery query, BouquetPage.Cursor after) {
+        List<String> conditions = query.conditions();
+        if (after != null) conditions.add("(created_date, id) < (?, ?)");
+        String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        return "SELECT " + BOUQUET_SUMMARY_COLUMNS + " FROM bouquets" + where
+                + " ORDER BY created_date DESC, id DESC LIMIT ?";
+    }
+
+    private static BouquetSummary readBouquetSummary(ResultSet rs) throws SQLException {
+        return new BouquetSummary(rs.getInt("id"), rs.getString("name"),
+                LocalDate.parse(rs.getString("created_date")), rs.getDouble("total_price"),
+                rs.getInt("flower_count"), rs.getInt("accessory_count"), rs.getDouble("avg_freshness"));
+    }
+
+    // Price and counts of a saved bouquet from its row alone, without loading its flowers
+    public static Optional<BouquetSummary> getBouquetSummary(int bouquetId) throws SQLException {
+        long start = BOUQUET_SUMMARY.start();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT " + BOUQUET_SUMMARY_COLUMNS + " FROM bouquets WHERE id = ?")) {
+            pstmt.setInt(1, bouquetId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                Optional<BouquetSummary> summary = rs.next() ? Optional.of(readBouquetSummary(rs)) : Optional.empty();
+                BOUQUET_SUMMARY.stop(start, summary.isPresent() ? 1 : 0);
+                return summary;
+            }
+        } catch (SQLException | RuntimeException e) {
+            BOUQUET_SUMMARY.stopFailed(start);
+            throw e;
         }
+    }
 
-        return bouquet;
+    // Bouquets sold, stems sold and revenue per day from..to (inclusive), for days with sales.
+    // Summed from the stored totals over a created_date index range; no bouquet is loaded.
+    public static List<DailyRevenue> dailyRevenue(LocalDate from, LocalDate to) throws SQLException {
+        if (from.isAfter(to)) throw new IllegalArgumentException("Report range starts after it ends");
+        long start = DAILY_REVENUE.start();
+        List<DailyRevenue> days = new ArrayList<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("""
+                     SELECT created_date, COUNT(*) AS bouquets, SUM(flower_count) AS flowers,
+                            SUM(total_price) AS revenue
+                     FROM bouquets WHERE created_date BETWEEN ? AND ?
+                     GROUP BY created_date ORDER BY created_date
+                     """)) {
+            pstmt.setString(1, from.toString());
+            pstmt.setString(2, to.toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    days.add(new DailyRevenue(LocalDate.parse(rs.getString("created_date")),
+                            rs.getInt("bouquets"), rs.getLong("flowers"), rs.getDouble("revenue")));
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            DAILY_REVENUE.stopFailed(start);
+            throw e;
+        }
+        DAILY_REVENUE.stop(start, days.size());
+        return days;
     }
 
-    // Get list of saved bouquets
+    // Every saved bouquet in one list; listings page through listBouquets instead
     public static List<String> getSavedBouquets() throws SQLException {
+        long start = SAVED_BOUQUETS.start();
         List<String> bouquets = new ArrayList<>();
 
         try (Connection conn = DatabaseUtil.getConnection();
@@ -274,8 +714,12 @@ public final class DatabaseStorage {
                 String date = rs.getString("created_date");
                 bouquets.add(String.format("ID: %d | Name: %s | Date: %s", id, name, date));
             }
+        } catch (SQLException | RuntimeException e) {
+            SAVED_BOUQUETS.stopFailed(start);
+            throw e;
         }
 
+        SAVED_BOUQUETS.stop(start, bouquets.size());
         return bouquets;
     }
 }
\ No newline at end of file
@@ -2,90 +2,105 @@ package com.ideaprojects.bloomstore.util;
 
 import java.io.File;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 public final class DatabaseUtil {
     private static final String DATA_DIR = "data";
     private static final String DB_FILE = "bloomstore.db";
-    private static final String DB_URL = "jdbc:sqlite:" + DATA_DIR + File.separator + DB_FILE;
+    private static final String DEFAULT_DB_PATH = DATA_DIR + File.separator + DB_FILE;
+
+    // Pool settings from bloomstore.properties, see DatabaseConfig
+    private static final int DEFAULT_POOL_SIZE = DatabaseConfig.getInt("bloomstore.pool.size", 4);
+    private static final long ACQUIRE_TIMEOUT_MS = DatabaseConfig.getLong("bloomstore.pool.acquireTimeoutMs", 30_000L);
+    private static final long VALIDATION_IDLE_MS = DatabaseConfig.getLong("bloomstore.pool.validationIdleMs", 30_000L);
+    private static final long LEAK_THRESHOLD_MS = DatabaseConfig.getLong("bloomstore.pool.leakThresholdMs", 60_000L);
+
+    private static volatile String databasePath = DEFAULT_DB_PATH;
+    private static volatile DatabaseProfile profile = DatabaseConfig.getProfile();
+    private static volatile ConnectionPool pool;
 
     private DatabaseUtil() {}
 
+    // Borrow a pooled connection; closing it returns it to the pool
     public static Connection getConnection() throws SQLException {
-        // Ensure data directory exists
+        return pool().borrow();
+    }
+
+    private static ConnectionPool pool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseUtil.class) {
+                current = pool;
+                if (current == null) {
+                    current = createPool(DEFAULT_POOL_SIZE);
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static ConnectionPool createPool(int size) {
+        // Checked once per pool instead of on every connection
         ensureDataDirectoryExists();
-        return DriverManager.getConnection(DB_URL);
+        return new ConnectionPool("jdbc:sqlite:" + databasePath, size,
+                ACQUIRE_TIMEOUT_MS, VALIDATION_IDLE_MS, LEAK_THRESHOLD_MS, profile.pragmas());
+    }
+
+    // Replace the pool with one of the given size; idle connections of the old pool are closed
+    public static synchronized void configurePool(int size) {
+        ConnectionPool previous = pool;
+        pool = createPool(size);
+        if (previous != null) previous.close();
+    }
+
+    public static PoolMetrics getPoolMetrics() {
+        return pool().metrics();
+    }
+
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
     }
 
     private static void ensureDataDirectoryExists() {
-        File dataDir = new File(DATA_DIR);
-        if (!dataDir.exists()) {
+        File dataDir = new File(databasePath).getAbsoluteFile().getParentFile();
+        if (dataDir != null && !dataDir.exists()) {
             dataDir.mkdirs();
         }
     }
 
     public static void initializeDatabase() throws SQLException {
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-
-            // Create flowers table
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS flowers (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    type TEXT NOT NULL,
-                    name TEXT NOT NULL,
-                    price REAL NOT NULL,
-                    stem_length_cm REAL NOT NULL,
-                    cut_date TEXT NOT NULL,
-                    freshness_level INTEGER NOT NULL,
-                    thorn_count INTEGER,
-                    color TEXT,
-                    fragrant INTEGER
-                )
-                """);
-
-            // Create bouquets table
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS bouquets (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    name TEXT,
-                    created_date TEXT NOT NULL
-                )
-                """);
-
-            // Create bouquet_flowers junction table
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS bouquet_flowers (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    bouquet_id INTEGER NOT NULL,
-                    flower_type TEXT NOT NULL,
-                    price REAL NOT NULL,
-                    stem_length_cm REAL NOT NULL,
-                    cut_date TEXT NOT NULL,
-                    freshness_level INTEGER NOT NULL,
-                    thorn_count INTEGER,
-                    color TEXT,
-                    fragrant INTEGER,
-                    FOREIGN KEY (bouquet_id) REFERENCES bouquets(id)
-                )
-                """);
-
-            // Create bouquet_accessories table
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS bouquet_accessories (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    bouquet_id INTEGER NOT NULL,
-                    accessory_name TEXT NOT NULL,
-                    FOREIGN KEY (bouquet_id) REFERENCES bouquets(id)
-                )
-                """);
-
-            System.out.println("Database initialized successfully at: " + DATA_DIR + File.separator + DB_FILE);
+        try (Connection conn = getConnection()) {
+            int applied = SchemaMigrations.migrate(conn);
+            if (applied > 0) {
+                System.out.println("Applied " + applied + " schema migration(s), schema version "
+                        + SchemaMigrations.currentVersion(conn));
+            }
+            System.out.println("Database initialized successfully at: " + databasePath
+                    + " (profile: " + profile.name().toLowerCase() + ")");
         }
     }
+
     public static String getDatabasePath() {
-        return DATA_DIR + File.separator + DB_FILE;
+        return databasePath;
+    }
+
+    // Point the application at another database file, e.g. a scratch file for tests and benchmarks
+    public static synchronized void useDatabase(String path) {
+        databasePath = path;
+        configurePool(pool != null ? pool.getMaxSize() : DEFAULT_POOL_SIZE);
+    }
+
+    public static DatabaseProfile getProfile() {
+        return profile;
+    }
+
+    // Switch the PRAGMA profile; takes effect for the connections of the new pool
+    public static synchronized void useProfile(DatabaseProfile newProfile) {
+        profile = newProfile;
+        configurePool(pool != null ? pool.getMaxSize() : DEFAULT_POOL_SIZE);
     }
 }
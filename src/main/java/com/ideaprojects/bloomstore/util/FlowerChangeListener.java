@@ -0,0 +1,14 @@
+package com.ideaprojects.bloomstore.util;
+
+import com.ideaprojects.bloomstore.model.Flower;
+
+import java.util.List;
+
+// Notified by DatabaseStorage after writes to the flowers table have been committed
+public interface FlowerChangeListener {
+    // New rows, in id order, with their ids set
+    void flowersAdded(List<Flower> added);
+
+    // Existing rows were updated or deleted
+    void flowersChanged();
+}
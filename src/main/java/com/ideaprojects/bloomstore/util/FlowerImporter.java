@@ -0,0 +1,469 @@
+package com.ideaprojects.bloomstore.util;
+
+import com.ideaprojects.bloomstore.model.Flower;
+import com.ideaprojects.bloomstore.model.Lily;
+import com.ideaprojects.bloomstore.model.Rose;
+import com.ideaprojects.bloomstore.model.Tulip;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+// Bulk loads supplier manifests into the flowers table. The file is read sequentially and cut into
+// chunks of raw records; parser threads turn chunks into flowers while the calling thread writes
+// finished chunks, in file order, through one batched INSERT and commits every commitRows rows.
+// Rows that fail to parse are reported with their line (CSV) or element (JSON) number and skipped.
+public class FlowerImporter {
+    public enum Format { CSV, JSON }
+
+    public record RowError(long row, String message) {}
+
+    public record Report(long imported, long rejected, List<RowError> errors, Duration elapsed) {
+        @Override
+        public String toString() {
+            return String.format("Imported %d flowers, rejected %d rows in %d ms",
+                    imported, rejected, elapsed.toMillis());
+        }
+    }
+
+    // Column names in CSV headers and keys in JSON objects, which follow the HTTP API
+    private enum Field {
+        TYPE("type", "type"),
+        PRICE("price", "price"),
+        STEM_LENGTH("stem_length_cm", "stemLengthCm"),
+        CUT_DATE("cut_date", "cutDate"),
+        FRESHNESS("freshness_level", "freshness"),
+        THORN_COUNT("thorn_count", "thornCount"),
+        COLOR("color", "color"),
+        FRAGRANT("fragrant", "fragrant"),
+        STOCK("stock", "stock");
+
+        private final String column;
+        private final String key;
+
+        Field(String column, String key) {
+            this.column = column;
+            this.key = key;
+        }
+    }
+
+    private static final int DEFAULT_CHUNK_ROWS = DatabaseConfig.getInt("bloomstore.import.chunkRows", 5_000);
+    private static final int DEFAULT_COMMIT_ROWS = DatabaseConfig.getInt("bloomstore.import.commitRows", 100_000);
+    // Only the first errors are kept with their messages; the rest are counted
+    private static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private record RawRecord(long row, String text) {}
+
+    private record ParsedChunk(List<Flower> flowers, int[] stock, List<RowError> errors) {}
+
+    @FunctionalInterface
+    private interface RecordSource {
+        // Up to max records, empty once the input is exhausted
+        List<RawRecord> next(int max) throws IOException;
+    }
+
+    private final int chunkRows;
+    private final int commitRows;
+    private final int parserThreads;
+
+    public FlowerImporter() {
+        this(DEFAULT_CHUNK_ROWS, DEFAULT_COMMIT_ROWS, Runtime.getRuntime().availableProcessors());
+    }
+
+    public FlowerImporter(int chunkRows, int commitRows, int parserThreads) {
+        if (chunkRows < 1) throw new IllegalArgumentException("Chunk rows must be positive");
+        if (commitRows < 1) throw new IllegalArgumentException("Commit rows must be positive");
+        if (parserThreads < 1) throw new IllegalArgumentException("Parser threads must be positive");
+        this.chunkRows = chunkRows;
+        this.commitRows = commitRows;
+        this.parserThreads = parserThreads;
+    }
+
+    // .csv is read as CSV; .json, .jsonl and .ndjson as JSON
+    public Report importFile(Path file) throws IOException, SQLException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        Format format;
+        if (name.endsWith(".csv")) {
+            format = Format.CSV;
+        } else if (name.endsWith(".json") || name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            format = Format.JSON;
+        } else {
+            throw new IllegalArgumentException("Unknown manifest format: " + file.getFileName());
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(reader, format);
+        }
+    }
+
+    // CSV needs a header row naming its columns; JSON is an array of objects or one object per line
+    public Report importFrom(Reader reader, Format format) throws IOException, SQLException {
+        BufferedReader in = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        return switch (format) {
+            case CSV -> importCsv(in);
+            case JSON -> run(jsonSource(in), FlowerImporter::parseJson);
+        };
+    }
+
+    private Report importCsv(BufferedReader in) throws IOException, SQLException {
+        String header = in.readLine();
+        if (header == null) throw new IllegalArgumentException("CSV manifest is empty");
+        if (header.startsWith("\uFEFF")) header = header.substring(1);
+
+        Map<Field, Integer> columns = new EnumMap<>(Field.class);
+        List<String> names = splitCsv(header);
+        for (int i = 0; i < names.size(); i++) {
+            for (Field field : Field.values()) {
+                if (field.column.equalsIgnoreCase(names.get(i).trim())) columns.put(field, i);
+            }
+        }
+        for (Field required : List.of(Field.TYPE, Field.PRICE, Field.STEM_LENGTH, Field.CUT_DATE, Field.FRESHNESS)) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header has no " + required.column + " column");
+            }
+        }
+
+        return run(lineSource(in, 1), text -> {
+            List<String> values = splitCsv(text);
+            return parseFlower(field -> {
+                Integer index = columns.get(field);
+                if (index == null || index >= values.size()) return null;
+                String value = values.get(index).trim();
+                return value.isEmpty() ? null : value;
+            });
+        });
+    }
+
+    private Report run(RecordSource source, Function<String, Parsed> parser) throws IOException, SQLException {
+        long start = System.nanoTime();
+        long imported = 0;
+        long rejected = 0;
+        List<RowError> errors = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+
+        ExecutorService parsers = Executors.newFixedThreadPool(parserThreads, r -> {
+            Thread t = new Thread(r, "bloomstore-import-parser");
+            t.setDaemon(true);
+            return t;
+        });
+        // Enough chunks in flight to keep every parser busy while one is being written
+        ArrayDeque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+        int maxInFlight = parserThreads * 2;
+        int batchSize = DatabaseStorage.getBatchSize();
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = DatabaseStorage.prepareFlowerInsert(conn)) {
+            conn.setAutoCommit(false);
+            try {
+                long batched = 0;
+                long uncommitted = 0;
+                boolean exhausted = false;
+                while (!exhausted || !inFlight.isEmpty()) {
+                    while (!exhausted && inFlight.size() < maxInFlight) {
+                        List<RawRecord> records = source.next(chunkRows);
+                        if (records.isEmpty()) {
+                            exhausted = true;
+                        } else {
+                            inFlight.add(parsers.submit(() -> parseChunk(records, parser)));
+                        }
+                    }
+                    if (inFlight.isEmpty()) break;
+
+                    ParsedChunk chunk = await(inFlight.poll());
+                    rejected += chunk.errors().size();
+                    for (RowError error : chunk.errors()) {
+                        if (errors.size() < MAX_REPORTED_ERRORS) errors.add(error);
+                    }
+                    for (int i = 0; i < chunk.flowers().size(); i++) {
+                        DatabaseStorage.bindCatalogFlower(pstmt, chunk.flowers().get(i), chunk.stock()[i], today);
+                        pstmt.addBatch();
+                        if (++batched % batchSize == 0) pstmt.executeBatch();
+                        if (++uncommitted == commitRows) {
+                            pstmt.executeBatch();
+                            conn.commit();
+                            imported += uncommitted;
+                            uncommitted = 0;
+                        }
+                    }
+                }
+                pstmt.executeBatch();
+                conn.commit();
+                imported += uncommitted;
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            parsers.shutdownNow();
+            // Rows committed before a failure are in the table already
+            if (imported > 0) DatabaseStorage.notifyFlowersChanged();
+        }
+        return new Report(imported, rejected, List.copyOf(errors), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while importing flowers", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to parse flowers", e.getCause());
+        }
+    }
+
+    private record Parsed(Flower flower, int stock) {}
+
+    private static ParsedChunk parseChunk(List<RawRecord> records, Function<String, Parsed> parser) {
+        List<Flower> flowers = new ArrayList<>(records.size());
+        int[] stock = new int[records.size()];
+        List<RowError> errors = new ArrayList<>();
+        for (RawRecord record : records) {
+            try {
+                Parsed parsed = parser.apply(record.text());
+                stock[flowers.size()] = parsed.stock();
+                flowers.add(parsed.flower());
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                errors.add(new RowError(record.row(), e.getMessage()));
+            }
+        }
+        return new ParsedChunk(flowers, stock, errors);
+    }
+
+    private static Parsed parseJson(String text) {
+        Map<String, Object> object = Json.parseObject(text);
+        return parseFlower(field -> object.get(field.key));
+    }
+
+    private static Parsed parseFlower(Function<Field, Object> fields) {
+        String type = text(fields, Field.TYPE, true);
+        double price = number(fields, Field.PRICE, true);
+        double stemLength = number(fields, Field.STEM_LENGTH, true);
+        LocalDate cutDate = date(fields, Field.CUT_DATE);
+        long freshness = integer(fields, Field.FRESHNESS, true);
+        long stock = integer(fields, Field.STOCK, false);
+
+        if (price < 0) throw new IllegalArgumentException("price must not be negative");
+        if (!(stemLength > 0)) throw new IllegalArgumentException("stem length must be positive");
+        if (freshness < 0 || freshness > 100) {
+            throw new IllegalArgumentException("freshness must be between 0 and 100: " + freshness);
+        }
+        if (stock < 0 || stock > Integer.MAX_VALUE) throw new IllegalArgumentException("stock out of range: " + stock);
+
+        Flower flower = switch (type.toLowerCase(Locale.ROOT)) {
+            case "rose" -> new Rose(price, stemLength, cutDate, (int) freshness, thornCount(fields));
+            case "tulip" -> new Tulip(price, stemLength, cutDate, (int) freshness, text(fields, Field.COLOR, false));
+            case "lily" -> new Lily(price, stemLength, cutDate, (int) freshness, bool(fields, Field.FRAGRANT));
+            default -> throw new IllegalArgumentException("unknown flower type: " + type);
+        };
+        return new Parsed(flower, (int) stock);
+    }
+
+    private static int thornCount(Function<Field, Object> fields) {
+        long thorns = integer(fields, Field.THORN_COUNT, false);
+        if (thorns < 0 || thorns > Integer.MAX_VALUE) throw new IllegalArgumentException("thorn_count out of range: " + thorns);
+        return (int) thorns;
+    }
+
+    private static Object value(Function<Field, Object> fields, Field field, boolean required) {
+        Object value = fields.apply(field);
+        if (value == null && required) throw new IllegalArgumentException(field.column + " is required");
+        return value;
+    }
+
+    private static String text(Function<Field, Object> fields, Field field, boolean required) {
+        Object value = value(fields, field, required);
+        return value == null ? null : value.toString();
+    }
+
+    private static double number(Function<Field, Object> fields, Field field, boolean required) {
+        Object value = value(fields, field, required);
+        if (value == null) return 0;
+        if (value instanceof Number n) return n.doubleValue();
+        try {
+            double parsed = Double.parseDouble(value.toString());
+            if (Double.isFinite(parsed)) return parsed;
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(field.column + " is not a number: " + value);
+    }
+
+    private static long integer(Function<Field, Object> fields, Field field, boolean required) {
+        Object value = value(fields, field, required);
+        if (value == null) return 0;
+        if (value instanceof Long l) return l;
+        if (value instanceof Double d && d == Math.rint(d) && Math.abs(d) < 1e15) return d.longValue();
+        try {
+            return Long.parseLong(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field.column + " is not a whole number: " + value);
+        }
+    }
+
+    private static boolean bool(Function<Field, Object> fields, Field field) {
+        Object value = value(fields, field, false);
+        if (value == null) return false;
+        if (value instanceof Boolean b) return b;
+        return switch (value.toString().toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "1" -> true;
+            case "false", "no", "0" -> false;
+            default -> throw new IllegalArgumentException(field.column + " is not a boolean: " + value);
+        };
+    }
+
+    private static LocalDate date(Function<Field, Object> fields, Field field) {
+        String value = text(fields, field, true);
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(field.column + " is not an ISO date: " + value);
+        }
+    }
+
+    // Comma separated, with RFC 4180 quoting inside a single line
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("unterminated quoted value");
+        values.add(value.toString());
+        return values;
+    }
+
+    // A leading '[' means one array of values; otherwise the input has one value per line
+    private static RecordSource jsonSource(BufferedReader in) throws IOException {
+        in.mark(JsonArraySource.BUFFER_SIZE);
+        int first;
+        do {
+            first = in.read();
+        } while (first != -1 && Character.isWhitespace(first));
+        if (first == '[') return new JsonArraySource(in);
+        in.reset();
+        return lineSource(in, 0);
+    }
+
+    // Non-blank lines, numbered from the line after firstLine
+    private static RecordSource lineSource(BufferedReader in, long firstLine) {
+        long[] line = {firstLine};
+        return max -> {
+            List<RawRecord> records = new ArrayList<>(max);
+            String text;
+            while (records.size() < max && (text = in.readLine()) != null) {
+                line[0]++;
+                if (!text.isBlank()) records.add(new RawRecord(line[0], text));
+            }
+            return records;
+        };
+    }
+
+    // Cuts a JSON array into the texts of its elements without parsing them, so the parser threads
+    // do the actual JSON work. Only strings and nesting are tracked.
+    private static final class JsonArraySource implements RecordSource {
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final Reader in;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        private long element;
+        private boolean done;
+
+        private JsonArraySource(Reader in) {
+            this.in = in;
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+
+        @Override
+        public List<RawRecord> next(int max) throws IOException {
+            List<RawRecord> records = new ArrayList<>(max);
+            StringBuilder text = new StringBuilder();
+            while (records.size() < max && !done) {
+                text.setLength(0);
+                int depth = 0;
+                boolean inString = false;
+                boolean escaped = false;
+                int c;
+                while ((c = read()) != -1) {
+                    if (inString) {
+                        if (escaped) {
+                            escaped = false;
+                        } else if (c == '\\') {
+                            escaped = true;
+                        } else if (c == '"') {
+                            inString = false;
+                        }
+                    } else if (c == '"') {
+                        inString = true;
+                    } else if (c == '{' || c == '[') {
+                        depth++;
+                    } else if (c == '}' || c == ']') {
+                        if (depth == 0) break; // end of the array
+                        depth--;
+                    } else if (c == ',' && depth == 0) {
+                        break;
+                    }
+                    text.append((char) c);
+                }
+                if (c != ',') done = true;
+                if (!text.isEmpty() && !text.toString().isBlank()) {
+                    // A value cut off by the end of the input fails to parse and is reported
+                    records.add(new RawRecord(++element, text.toString()));
+                }
+            }
+            return records;
+        }
+    }
+}
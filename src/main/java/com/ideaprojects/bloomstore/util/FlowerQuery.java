@@ -0,0 +1,135 @@
+package com.ideaprojects.bloomstore.util;
+
+import com.ideaprojects.bloomstore.model.Flower;
+import com.ideaprojects.bloomstore.model.Lily;
+import com.ideaprojects.bloomstore.model.Tulip;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Predicates over the flowers table. They are compiled into a parameterized WHERE clause,
+// so filtering happens in SQLite rather than after the rows are loaded. Migration 8 indexes
+// the common shapes: type with a price range or minimum freshness, a cut-date window, a tulip
+// color and lily fragrance. FlowerCatalog.find runs the same query in memory when it can.
+public final class FlowerQuery {
+    private String type;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double minStemLength;
+    private Double maxStemLength;
+    private Integer minFreshness;
+    private LocalDate cutFrom;
+    private LocalDate cutTo;
+    private String color;
+    private Boolean fragrant;
+
+    private FlowerQuery() {}
+
+    public static FlowerQuery all() {
+        return new FlowerQuery();
+    }
+
+    // Type as stored in the flowers table: Rose, Tulip or Lily
+    public FlowerQuery type(String type) {
+        this.type = type;
+        return this;
+    }
+
+    public FlowerQuery type(Class<? extends Flower> type) {
+        return type(type.getSimpleName());
+    }
+
+    public FlowerQuery priceBetween(double min, double max) {
+        if (min > max) throw new IllegalArgumentException("Minimum price exceeds maximum");
+        this.minPrice = min;
+        this.maxPrice = max;
+        return this;
+    }
+
+    public FlowerQuery stemLengthBetween(double minCm, double maxCm) {
+        if (minCm > maxCm) throw new IllegalArgumentException("Minimum stem length exceeds maximum");
+        this.minStemLength = minCm;
+        this.maxStemLength = maxCm;
+        return this;
+    }
+
+    public FlowerQuery minFreshness(int level) {
+        this.minFreshness = level;
+        return this;
+    }
+
+    // Flowers cut on any day from..to, both inclusive
+    public FlowerQuery cutBetween(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) throw new IllegalArgumentException("Cut date window starts after it ends");
+        this.cutFrom = from;
+        this.cutTo = to;
+        return this;
+    }
+
+    // Only tulips have a color, so this also limits the query to tulips
+    public FlowerQuery color(String color) {
+        if (color == null) throw new IllegalArgumentException("color must not be null");
+        this.color = color;
+        return this;
+    }
+
+    // Only lilies record fragrance, so this also limits the query to lilies
+    public FlowerQuery fragrant(boolean fragrant) {
+        this.fragrant = fragrant;
+        return this;
+    }
+
+    // Same predicates evaluated against a flower already in memory
+    public boolean matches(Flower flower) {
+        if (type != null && !type.equals(flower.getClass().getSimpleName())) return false;
+        if (minPrice != null && (flower.getPrice() < minPrice || flower.getPrice() > maxPrice)) return false;
+        if (minStemLength != null) {
+            double len = flower.getStemLengthCm();
+            if (len < minStemLength || len > maxStemLength) return false;
+        }
+        if (minFreshness != null && flower.getFreshnessLevel() < minFreshness) return false;
+        if (cutFrom != null && (flower.getCutDate().isBefore(cutFrom) || flower.getCutDate().isAfter(cutTo))) {
+            return false;
+        }
+        if (color != null && !(flower instanceof Tulip tulip && color.equals(tulip.getColor()))) return false;
+        return fragrant == null || flower instanceof Lily lily && lily.isFragrant() == fragrant;
+    }
+
+    // " WHERE ..." with one ? per bound value, or an empty string when nothing is filtered
+    String whereClause() {
+        List<String> conditions = new ArrayList<>();
+        if (type != null) conditions.add("type = ?");
+        if (minPrice != null) conditions.add("price BETWEEN ? AND ?");
+        if (minStemLength != null) conditions.add("stem_length_cm BETWEEN ? AND ?");
+        if (minFreshness != null) conditions.add("freshness_level >= ?");
+        // cut_date holds ISO dates, which compare as text in date order
+        if (cutFrom != null) conditions.add("cut_date BETWEEN ? AND ?");
+        if (color != null) conditions.add("color = ?");
+        if (fragrant != null) conditions.add("fragrant = ?");
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    // Binds the values in whereClause() order, returns the next free parameter index
+    int bind(PreparedStatement pstmt, int index) throws SQLException {
+        if (type != null) pstmt.setString(index++, type);
+        if (minPrice != null) {
+            pstmt.setDouble(index++, minPrice);
+            pstmt.setDouble(index++, maxPrice);
+        }
+        if (minStemLength != null) {
+            pstmt.setDouble(index++, minStemLength);
+            pstmt.setDouble(index++, maxStemLength);
+        }
+        if (minFreshness != null) pstmt.setInt(index++, minFreshness);
+        if (cutFrom != null) {
+            pstmt.setString(index++, cutFrom.toString());
+            pstmt.setString(index++, cutTo.toString());
+        }
+        if (color != null) pstmt.setString(index++, color);
+        if (fragrant != null) pstmt.setInt(index++, fragrant ? 1 : 0);
+        return index;
+    }
+}
@@ -0,0 +1,193 @@
+package com.ideaprojects.bloomstore.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Ages the freshness_level of every catalog flower from its cut date. Each row keeps
+// initial_freshness, its freshness extrapolated back to the cut date (it may exceed 100), and
+// freshness_day, the epoch day freshness_level was last computed for. A run only visits rows whose
+// freshness_day is behind today, and works through them in id ranges with set-based UPDATEs, one
+// short transaction per range, so WAL readers never wait and writers wait for one range at most.
+public class FreshnessDecay implements AutoCloseable {
+    // Freshness points lost per day once the grace period after cutting is over
+    public record DecayCurve(int graceDays, double dailyLoss) {
+        public double lossAt(long ageDays) {
+            return Math.max(0, ageDays - graceDays) * dailyLoss;
+        }
+
+        private String lossSql(String ageExpr) {
+            return "MAX(0, " + ageExpr + " - " + graceDays + ") * " + dailyLoss;
+        }
+    }
+
+    public record Result(int visited, int changed, int chunks) {}
+
+    private static final Map<String, DecayCurve> CURVES = Map.of(
+            "Rose", new DecayCurve(2, 8.0),
+            "Tulip", new DecayCurve(1, 10.0),
+            "Lily", new DecayCurve(3, 6.0));
+    // Rows of a type without a curve of its own
+    private static final DecayCurve DEFAULT_CURVE = new DecayCurve(1, 8.0);
+
+    private static final int DEFAULT_CHUNK_SIZE = DatabaseConfig.getInt("bloomstore.decay.chunkSize", 2000);
+    private static final long DEFAULT_PERIOD_MINUTES = DatabaseConfig.getLong("bloomstore.decay.periodMinutes", 60);
+
+    // ?1 is today's epoch day; ?2 and ?3 bound the id range of the chunk
+    private static final String AGE_SQL = "(?1 - CAST(julianday(cut_date) - 2440587.5 AS INTEGER))";
+    private static final String LOSS_SQL = lossSql();
+    private static final String FRESHNESS_SQL =
+            "MAX(0, MIN(100, CAST(ROUND(initial_freshness - " + LOSS_SQL + ") AS INTEGER)))";
+
+    private static final String BEHIND_SQL = "(freshness_day IS NULL OR freshness_day < ?1)";
+
+    // Rows written without a curve anchor take their current freshness as today's reading
+    private static final String SEED_SQL = "UPDATE flowers SET initial_freshness = freshness_level + "
+            + LOSS_SQL + ", freshness_day = ?1 WHERE id BETWEEN ?2 AND ?3 AND initial_freshness IS NULL";
+    private static final String DECAY_SQL = "UPDATE flowers SET freshness_level = " + FRESHNESS_SQL
+            + ", freshness_day = ?1 WHERE id BETWEEN ?2 AND ?3 AND " + BEHIND_SQL
+            + " AND freshness_level <> " + FRESHNESS_SQL;
+    // Rows whose level stays the same only move their day; the flowers triggers ignore the
+    // anchor columns, so seeding and advancing leave catalog_revision alone
+    private static final String ADVANCE_SQL =
+            "UPDATE flowers SET freshness_day = ?1 WHERE id BETWEEN ?2 AND ?3 AND " + BEHIND_SQL;
+    private static final String PENDING_RANGE_SQL = """
+        SELECT MIN(id), MAX(id) FROM flowers
+        WHERE freshness_day IS NULL OR freshness_day < ?
+        """;
+
+    private final int chunkSize;
+    private ScheduledExecutorService scheduler;
+
+    public FreshnessDecay() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public FreshnessDecay(int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be positive");
+        this.chunkSize = chunkSize;
+    }
+
+    public static DecayCurve curveFor(String type) {
+        return CURVES.getOrDefault(type, DEFAULT_CURVE);
+    }
+
+    // Value stored in initial_freshness for a flower read at the given freshness when ageDays old
+    public static double initialFreshness(String type, int freshness, long ageDays) {
+        return freshness + curveFor(type).lossAt(ageDays);
+    }
+
+    // Same rounding and clamping as the SQL, so Java callers agree with the table
+    public static int freshnessAt(String type, double initialFreshness, long ageDays) {
+        long level = Math.round(initialFreshness - curveFor(type).lossAt(ageDays));
+        return (int) Math.max(0, Math.min(100, level));
+    }
+
+    private static String lossSql() {
+        StringBuilder sql = new StringBuilder("(CASE type");
+        CURVES.forEach((type, curve) ->
+                sql.append(" WHEN '").append(type).append("' THEN ").append(curve.lossSql(AGE_SQL)));
+        return sql.append(" ELSE ").append(DEFAULT_CURVE.lossSql(AGE_SQL)).append(" END)").toString();
+    }
+
+    public Result run() throws SQLException {
+        return run(LocalDate.now());
+    }
+
+    public Result run(LocalDate today) throws SQLException {
+        long day = today.toEpochDay();
+        int visited = 0;
+        int changed = 0;
+        int chunks = 0;
+
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            long minId;
+            long maxId;
+            try (PreparedStatement pstmt = conn.prepareStatement(PENDING_RANGE_SQL)) {
+                pstmt.setLong(1, day);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    minId = rs.getLong(1);
+                    if (rs.wasNull()) return new Result(0, 0, 0);
+                    maxId = rs.getLong(2);
+                }
+            }
+
+            try (PreparedStatement seed = conn.prepareStatement(SEED_SQL);
+                 PreparedStatement decay = conn.prepareStatement(DECAY_SQL);
+                 PreparedStatement advance = conn.prepareStatement(ADVANCE_SQL)) {
+                for (long from = minId; from <= maxId; from += chunkSize) {
+                    long to = Math.min(maxId, from + chunkSize - 1);
+                    conn.setAutoCommit(false);
+                    try {
+                        visited += execute(seed, day, from, to);
+                        int decayed = execute(decay, day, from, to);
+                        changed += decayed;
+                        visited += decayed + execute(advance, day, from, to);
+                        conn.commit();
+                    } catch (SQLException | RuntimeException e) {
+                        conn.rollback();
+                        throw e;
+                    } finally {
+                        conn.setAutoCommit(true);
+                    }
+                    chunks++;
+                }
+            }
+        } finally {
+            // Chunks committed before a failure are visible already
+            if (changed > 0) DatabaseStorage.notifyFlowersChanged();
+        }
+        return new Result(visited, changed, chunks);
+    }
+
+    private static int execute(PreparedStatement pstmt, long day, long from, long to) throws SQLException {
+        pstmt.setLong(1, day);
+        pstmt.setLong(2, from);
+        pstmt.setLong(3, to);
+        return pstmt.executeUpdate();
+    }
+
+    public void schedule() {
+        schedule(Duration.ofMinutes(DEFAULT_PERIOD_MINUTES));
+    }
+
+    // Runs now and then every period on a background thread until closed
+    public synchronized void schedule(Duration period) {
+        if (scheduler != null) throw new IllegalStateException("Decay is already scheduled");
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "bloomstore-freshness-decay");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runScheduled, 0, period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runScheduled() {
+        // A failed run must not cancel the schedule; the next one picks up the same rows
+        try {
+            run();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Freshness decay failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler == null) return;
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+    }
+}
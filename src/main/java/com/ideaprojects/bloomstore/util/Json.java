@@ -0,0 +1,292 @@
+package com.ideaprojects.bloomstore.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Minimal JSON support for the HTTP API and the importers, so the project needs no JSON library.
+// Objects map to LinkedHashMap<String, Object>, arrays to ArrayList<Object>, integral numbers to
+// Long, other numbers to Double, and null to null.
+public final class Json {
+    // Deepest nesting parse() accepts, far below what would overflow the parser's stack
+    public static final int MAX_DEPTH = 256;
+
+    private Json() {}
+
+    public static String stringify(Object value) {
+        StringBuilder sb = new StringBuilder();
+        write(value, sb);
+        return sb.toString();
+    }
+
+    public static void write(Object value, Appendable out) {
+        try {
+            writeValue(value, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeValue(Object value, Appendable out) throws IOException {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof CharSequence s) {
+            writeString(s, out);
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            out.append(Double.isFinite(d) ? Double.toString(d) : "null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value.toString());
+        } else if (value instanceof Map<?, ?> map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                if (!first) out.append(',');
+                first = false;
+                writeString(String.valueOf(e.getKey()), out);
+                out.append(':');
+                writeValue(e.getValue(), out);
+            }
+            out.append('}');
+        } else if (value instanceof Iterable<?> items) {
+            out.append('[');
+            boolean first = true;
+            for (Object item : items) {
+                if (!first) out.append(',');
+                first = false;
+                writeValue(item, out);
+            }
+            out.append(']');
+        } else if (value instanceof Enum<?> e) {
+            writeString(e.name(), out);
+        } else {
+            writeString(value.toString(), out);
+        }
+    }
+
+    private static void writeString(CharSequence s, Appendable out) throws IOException {
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    // Throws IllegalArgumentException with the offset of the first problem
+    public static Object parse(CharSequence text) {
+        Parser parser = new Parser(text);
+        parser.skipWhitespace();
+        Object value = parser.value();
+        parser.skipWhitespace();
+        if (parser.pos < text.length()) throw parser.error("Unexpected trailing content");
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(CharSequence text) {
+        Object value = parse(text);
+        if (!(value instanceof Map)) throw new IllegalArgumentException("Expected a JSON object");
+        return (Map<String, Object>) value;
+    }
+
+    private static final class Parser {
+        private final CharSequence text;
+        private int pos;
+        private int depth;
+
+        private Parser(CharSequence text) {
+            this.text = text;
+        }
+
+        private Object value() {
+            if (pos >= text.length()) throw error("Unexpected end of input");
+            char c = text.charAt(pos);
+            return switch (c) {
+                case '{' -> object();
+                case '[' -> array();
+                case '"' -> string();
+                case 't' -> literal("true", Boolean.TRUE);
+                case 'f' -> literal("false", Boolean.FALSE);
+                case 'n' -> literal("null", null);
+                default -> {
+                    if (c == '-' || (c >= '0' && c <= '9')) yield number();
+                    throw error("Unexpected character '" + c + "'");
+                }
+            };
+        }
+
+        private Map<String, Object> object() {
+            enter();
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                depth--;
+                return map;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') throw error("Expected a string key");
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                map.put(key, value());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    depth--;
+                    return map;
+                }
+                if (c != ',') throw error("Expected ',' or '}'");
+            }
+        }
+
+        private List<Object> array() {
+            enter();
+            List<Object> list = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                depth--;
+                return list;
+            }
+            while (true) {
+                skipWhitespace();
+                list.add(value());
+                skipWhitespace();
+                char c = next();
+                if (c == ']') {
+                    depth--;
+                    return list;
+                }
+                if (c != ',') throw error("Expected ',' or ']'");
+            }
+        }
+
+        private void enter() {
+            if (++depth > MAX_DEPTH) throw error("Nesting deeper than " + MAX_DEPTH + " levels");
+        }
+
+        private String string() {
+            pos++;
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    if (c < 0x20) throw error("Control character in string");
+                    sb.append(c);
+                    continue;
+                }
+                char escape = next();
+                switch (escape) {
+                    case '"', '\\', '/' -> sb.append(escape);
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) throw error("Truncated unicode escape");
+                        try {
+                            sb.append((char) Integer.parseInt(text, pos, pos + 4, 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Invalid unicode escape");
+                        }
+                        pos += 4;
+                    }
+                    default -> throw error("Invalid escape '\\" + escape + "'");
+                }
+            }
+        }
+
+        private Object number() {
+            int start = pos;
+            boolean integral = true;
+            if (peek() == '-') pos++;
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c >= '0' && c <= '9') {
+                    pos++;
+                } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                    integral = false;
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+            String token = text.subSequence(start, pos).toString();
+            try {
+                if (integral) return Long.parseLong(token);
+                return Double.parseDouble(token);
+            } catch (NumberFormatException e) {
+                if (integral) {
+                    try {
+                        return Double.parseDouble(token);
+                    } catch (NumberFormatException ignored) {
+                        // Reported below
+                    }
+                }
+                pos = start;
+                throw error("Invalid number '" + token + "'");
+            }
+        }
+
+        private Object literal(String word, Object value) {
+            if (pos + word.length() > text.length()
+                    || !text.subSequence(pos, pos + word.length()).toString().equals(word)) {
+                throw error("Unexpected token");
+            }
+            pos += word.length();
+            return value;
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c != ' ' && c != '\n' && c != '\r' && c != '\t') break;
+                pos++;
+            }
+        }
+
+        private char peek() {
+            return pos < text.length() ? text.charAt(pos) : '\0';
+        }
+
+        private char next() {
+            if (pos >= text.length()) throw error("Unexpected end of input");
+            return text.charAt(pos++);
+        }
+
+        private void expect(char c) {
+            if (next() != c) {
+                pos--;
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at offset " + pos);
+        }
+    }
+}
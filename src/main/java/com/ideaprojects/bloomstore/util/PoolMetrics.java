@@ -0,0 +1,27 @@
+package com.ideaprojects.bloomstore.util;
+
+// Point-in-time view of the connection pool counters
+public record PoolMetrics(int maxSize,
+                          int activeCount,
+                          int idleCount,
+                          long connectionsCreated,
+                          long acquisitions,
+                          long totalWaitNanos,
+                          long maxWaitNanos,
+                          int waitingThreads,
+                          long timeouts,
+                          long validationFailures,
+                          long leaksDetected) {
+
+    public double averageWaitMillis() {
+        return acquisitions == 0 ? 0.0 : totalWaitNanos / 1_000_000.0 / acquisitions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pool %d/%d active, %d idle | created: %d | acquisitions: %d | "
+                        + "avg wait: %.3f ms | max wait: %.3f ms | waiting: %d | timeouts: %d | leaks: %d",
+                activeCount, maxSize, idleCount, connectionsCreated, acquisitions,
+                averageWaitMillis(), maxWaitNanos / 1_000_000.0, waitingThreads, timeouts, leaksDetected);
+    }
+}
@@ -0,0 +1,258 @@
+package com.ideaprojects.bloomstore.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Holds stems for bouquets being built. reserve() takes stock off the flowers row at once, so two
+// terminals can never sell the same stem; commit() makes the sale final and release() puts the
+// stems back. The stock check and the decrement are one conditional UPDATE, so no lost updates
+// are possible even across processes. Striped locks per flower queue builders in this process
+// that go for the same flower, instead of letting them all fight over the database write lock.
+public class ReservationService {
+    public enum Status { RESERVED, COMMITTED, RELEASED }
+
+    public record Reservation(int id, int flowerId, int quantity) {}
+
+    private static final int DEFAULT_STRIPES = 64;
+
+    private static final String TAKE_STOCK_SQL =
+            "UPDATE flowers SET stock = stock - ? WHERE id = ? AND stock >= ?";
+    private static final String RETURN_STOCK_SQL =
+            "UPDATE flowers SET stock = stock + ? WHERE id = ?";
+    private static final String INSERT_RESERVATION_SQL =
+            "INSERT INTO reservations (flower_id, quantity, status, created_at) VALUES (?, ?, ?, ?)";
+    private static final String RESOLVE_SQL =
+            "UPDATE reservations SET status = ?, resolved_at = ? WHERE id = ? AND status = ?";
+
+    private final ReentrantLock[] stripes;
+
+    public ReservationService() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public ReservationService(int stripeCount) {
+        if (stripeCount < 1) throw new IllegalArgumentException("Stripe count must be positive");
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) stripes[i] = new ReentrantLock();
+    }
+
+    private ReentrantLock stripe(int flowerId) {
+        return stripes[Math.floorMod(flowerId * 0x9E3779B9, stripes.length)];
+    }
+
+    // Empty when fewer than quantity stems are left
+    public Optional<Reservation> reserve(int flowerId, int quantity) throws SQLException {
+        if (quantity < 1) throw new IllegalArgumentException("Quantity must be positive");
+
+        ReentrantLock lock = stripe(flowerId);
+        lock.lock();
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement take = conn.prepareStatement(TAKE_STOCK_SQL)) {
+                    take.setInt(1, quantity);
+                    take.setInt(2, flowerId);
+                    take.setInt(3, quantity);
+                    if (take.executeUpdate() == 0) {
+                        conn.rollback();
+                        if (!flowerExists(conn, flowerId)) {
+                            throw new IllegalArgumentException("No flower with id " + flowerId);
+                        }
+                        return Optional.empty();
+                    }
+                }
+
+                int id;
+                try (PreparedStatement insert = conn.prepareStatement(INSERT_RESERVATION_SQL,
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    insert.setInt(1, flowerId);
+                    insert.setInt(2, quantity);
+                    insert.setString(3, Status.RESERVED.name());
+                    insert.setString(4, LocalDateTime.now().toString());
+                    insert.executeUpdate();
+                    try (ResultSet keys = insert.getGeneratedKeys()) {
+                        if (!keys.next()) throw new SQLException("Failed to get reservation ID");
+                        id = keys.getInt(1);
+                    }
+                }
+
+                conn.commit();
+                return Optional.of(new Reservation(id, flowerId, quantity));
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean flowerExists(Connection conn, int flowerId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM flowers WHERE id = ?")) {
+            pstmt.setInt(1, flowerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // The stems are sold; the stock was already taken at reserve time
+    public void commit(int reservationId) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            if (resolve(conn, reservationId, Status.COMMITTED) == 0) {
+                throw notReserved(conn, reservationId);
+            }
+        }
+    }
+
+    // Puts the stems back on the shelf
+    public void release(int reservationId) throws SQLException {
+        Reservation reservation;
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            reservation = find(conn, reservationId);
+        }
+        if (reservation == null) throw new IllegalArgumentException("No reservation with id " + reservationId);
+
+        ReentrantLock lock = stripe(reservation.flowerId());
+        lock.lock();
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // The status check makes a second release a no-op instead of returning the stems twice
+                if (resolve(conn, reservationId, Status.RELEASED) == 0) {
+                    conn.rollback();
+                    throw notReserved(conn, reservationId);
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(RETURN_STOCK_SQL)) {
+                    pstmt.setInt(1, reservation.quantity());
+                    pstmt.setInt(2, reservation.flowerId());
+                    pstmt.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Releases holds left behind by builders that never finished, e.g. a terminal that crashed
+    public int releaseExpired(Duration maxAge) throws SQLException {
+        String cutoff = LocalDateTime.now().minus(maxAge).toString();
+        List<Integer> expired = new ArrayList<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT id FROM reservations WHERE status = ? AND created_at < ?")) {
+            pstmt.setString(1, Status.RESERVED.name());
+            pstmt.setString(2, cutoff);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) expired.add(rs.getInt(1));
+            }
+        }
+
+        int released = 0;
+        for (int id : expired) {
+            try {
+                release(id);
+                released++;
+            } catch (IllegalStateException e) {
+                // Committed or released by its owner in the meantime
+            }
+        }
+        return released;
+    }
+
+    private static int resolve(Connection conn, int reservationId, Status status) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(RESOLVE_SQL)) {
+            pstmt.setString(1, status.name());
+            pstmt.setString(2, LocalDateTime.now().toString());
+            pstmt.setInt(3, reservationId);
+            pstmt.setString(4, Status.RESERVED.name());
+            return pstmt.executeUpdate();
+        }
+    }
+
+    private static RuntimeException notReserved(Connection conn, int reservationId) throws SQLException {
+        Status status = status(conn, reservationId);
+        if (status == null) return new IllegalArgumentException("No reservation with id " + reservationId);
+        return new IllegalStateException("Reservation " + reservationId + " is already " + status);
+    }
+
+    private static Reservation find(Connection conn, int reservationId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT flower_id, quantity FROM reservations WHERE id = ?")) {
+            pstmt.setInt(1, reservationId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? new Reservation(reservationId, rs.getInt(1), rs.getInt(2)) : null;
+            }
+        }
+    }
+
+    private static Status status(Connection conn, int reservationId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT status FROM reservations WHERE id = ?")) {
+            pstmt.setInt(1, reservationId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? Status.valueOf(rs.getString(1)) : null;
+            }
+        }
+    }
+
+    public Status getStatus(int reservationId) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            return status(conn, reservationId);
+        }
+    }
+
+    public int getStock(int flowerId) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT stock FROM flowers WHERE id = ?")) {
+            pstmt.setInt(1, flowerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) throw new IllegalArgumentException("No flower with id " + flowerId);
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    // Stock per flower id, for showing availability next to the catalog
+    public Map<Integer, Integer> stockLevels() throws SQLException {
+        Map<Integer, Integer> levels = new HashMap<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, stock FROM flowers")) {
+            while (rs.next()) levels.put(rs.getInt(1), rs.getInt(2));
+        }
+        return levels;
+    }
+
+    public void restock(int flowerId, int quantity) throws SQLException {
+        if (quantity < 1) throw new IllegalArgumentException("Quantity must be positive");
+        ReentrantLock lock = stripe(flowerId);
+        lock.lock();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(RETURN_STOCK_SQL)) {
+            pstmt.setInt(1, quantity);
+            pstmt.setInt(2, flowerId);
+            if (pstmt.executeUpdate() == 0) throw new IllegalArgumentException("No flower with id " + flowerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.ideaprojects.bloomstore.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Ordered schema migrations. The applied versions are recorded in the schema_version table,
+// so every start only runs the migrations the database has not seen yet.
+public final class SchemaMigrations {
+    public record Migration(int version, String description, List<String> statements) {}
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Create base tables", List.of(
+                    """
+                    CREATE TABLE IF NOT EXISTS flowers (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        type TEXT NOT NULL,
+                        name TEXT NOT NULL,
+                        price REAL NOT NULL,
+                        stem_length_cm REAL NOT NULL,
+                        cut_date TEXT NOT NULL,
+                        freshness_level INTEGER NOT NULL,
+                        thorn_count INTEGER,
+                        color TEXT,
+                        fragrant INTEGER
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS bouquets (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT,
+                        created_date TEXT NOT NULL
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS bouquet_flowers (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        bouquet_id INTEGER NOT NULL,
+                        flower_type TEXT NOT NULL,
+                        price REAL NOT NULL,
+                        stem_length_cm REAL NOT NULL,
+                        cut_date TEXT NOT NULL,
+                        freshness_level INTEGER NOT NULL,
+                        thorn_count INTEGER,
+                        color TEXT,
+                        fragrant INTEGER,
+                        FOREIGN KEY (bouquet_id) REFERENCES bouquets(id)
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS bouquet_accessories (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        bouquet_id INTEGER NOT NULL,
+                        accessory_name TEXT NOT NULL,
+                        FOREIGN KEY (bouquet_id) REFERENCES bouquets(id)
+                    )
+                    """)),
+            new Migration(2, "Index bouquet_flowers by bouquet", List.of(
+                    "CREATE INDEX IF NOT EXISTS idx_bouquet_flowers_bouquet_id ON bouquet_flowers(bouquet_id)")),
+            new Migration(3, "Index bouquet_accessories by bouquet", List.of(
+                    "CREATE INDEX IF NOT EXISTS idx_bouquet_accessories_bouquet_id ON bouquet_accessories(bouquet_id)")),
+            new Migration(4, "Index bouquets by created date", List.of(
+                    "CREATE INDEX IF NOT EXISTS idx_bouquets_created_date ON bouquets(created_date)")),
+            // Lets derived copies such as the inventory snapshot tell whether they are stale without
+            // rescanning the table. Triggers catch every catalog change, whoever makes it, but only
+            // the first change after the revision was read (observed = 1) writes the row; the rest
+            // of a bulk write pays one single-row lookup per row instead of an update.
+            new Migration(5, "Track flowers catalog revision", List.of(
+                    """
+                    CREATE TABLE IF NOT EXISTS catalog_revision (
+                        id INTEGER PRIMARY KEY CHECK (id = 1),
+                        revision INTEGER NOT NULL,
+                        observed INTEGER NOT NULL DEFAULT 1
+                    )
+                    """,
+                    "INSERT OR IGNORE INTO catalog_revision (id, revision) VALUES (1, 0)",
+                    """
+                    CREATE TRIGGER IF NOT EXISTS flowers_revision_insert AFTER INSERT ON flowers
+                    WHEN (SELECT observed FROM catalog_revision WHERE id = 1) = 1
+                    BEGIN
+                        UPDATE catalog_revision SET revision = revision + 1, observed = 0 WHERE id = 1;
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS flowers_revision_update
+                    AFTER UPDATE OF type, price, stem_length_cm, cut_date, freshness_level,
+                                    thorn_count, color, fragrant ON flowers
+                    WHEN (SELECT observed FROM catalog_revision WHERE id = 1) = 1
+                    BEGIN
+                        UPDATE catalog_revision SET revision = revision + 1, observed = 0 WHERE id = 1;
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS flowers_revision_delete AFTER DELETE ON flowers
+                    WHEN (SELECT observed FROM catalog_revision WHERE id = 1) = 1
+                    BEGIN
+                        UPDATE catalog_revision SET revision = revision + 1, observed = 0 WHERE id = 1;
+                    END
+                    """)),
+            // Stems on hand per catalog flower and the holds placed on them by bouquet builders.
+            // Rows that existed before stock was tracked start with none: nobody counted them, so
+            // nothing is sold until the real counts are loaded with ReservationService.restock.
+            new Migration(6, "Track flower stock and reservations", List.of(
+                    "ALTER TABLE flowers ADD COLUMN stock INTEGER NOT NULL DEFAULT 0",
+                    """
+                    CREATE TABLE IF NOT EXISTS reservations (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        flower_id INTEGER NOT NULL,
+                        quantity INTEGER NOT NULL,
+                        status TEXT NOT NULL,
+                        created_at TEXT NOT NULL,
+                        resolved_at TEXT,
+                        FOREIGN KEY (flower_id) REFERENCES flowers(id)
+                    )
+                    """,
+                    "CREATE INDEX IF NOT EXISTS idx_reservations_status_created ON reservations(status, created_at)")),
+            // Anchors for FreshnessDecay. Existing rows stay NULL; the first decay run takes
+            // their stored freshness as that day's reading.
+            new Migration(7, "Track freshness decay", List.of(
+                    "ALTER TABLE flowers ADD COLUMN initial_freshness REAL",
+                    "ALTER TABLE flowers ADD COLUMN freshness_day INTEGER",
+                    "CREATE INDEX IF NOT EXISTS idx_flowers_freshness_day ON flowers(freshness_day)")),
+            // Access paths for FlowerQuery. Color and fragrance are only set on tulips and lilies,
+            // so their indexes are partial and skip the rest of the catalog.
+            new Migration(8, "Index flowers for catalog queries", List.of(
+                    "CREATE INDEX IF NOT EXISTS idx_flowers_type_price ON flowers(type, price, freshness_level)",
+                    "CREATE INDEX IF NOT EXISTS idx_flowers_cut_date ON flowers(cut_date)",
+                    "CREATE INDEX IF NOT EXISTS idx_flowers_color ON flowers(color, price) WHERE color IS NOT NULL",
+                    """
+                    CREATE INDEX IF NOT EXISTS idx_flowers_fragrant ON flowers(fragrant, freshness_level)
+                    WHERE fragrant IS NOT NULL
+                    """)),
+            // Totals written with each bouquet row, so listings and revenue reports never rebuild
+            // a bouquet. Existing rows are summed from their flowers and accessories; accessory
+            // prices are not stored, so they are backfilled at the catalog prices of the time.
+            new Migration(9, "Store bouquet totals", List.of(
+                    "ALTER TABLE bouquets ADD COLUMN total_price REAL NOT NULL DEFAULT 0",
+                    "ALTER TABLE bouquets ADD COLUMN flower_count INTEGER NOT NULL DEFAULT 0",
+                    "ALTER TABLE bouquets ADD COLUMN accessory_count INTEGER NOT NULL DEFAULT 0",
+                    "ALTER TABLE bouquets ADD COLUMN avg_freshness REAL NOT NULL DEFAULT 0",
+                    """
+                    UPDATE bouquets SET
+                        flower_count = (SELECT COUNT(*) FROM bouquet_flowers f WHERE f.bouquet_id = bouquets.id),
+                        accessory_count = (SELECT COUNT(*) FROM bouquet_accessories a WHERE a.bouquet_id = bouquets.id),
+                        avg_freshness = (SELECT COALESCE(AVG(freshness_level), 0) FROM bouquet_flowers f
+                                         WHERE f.bouquet_id = bouquets.id),
+                        total_price = (SELECT COALESCE(SUM(price), 0) FROM bouquet_flowers f
+                                       WHERE f.bouquet_id = bouquets.id)
+                                    + (SELECT COALESCE(SUM(CASE accessory_name
+                                                               WHEN 'WRAPPING' THEN 5.0
+                                                               WHEN 'RIBBON' THEN 1.5
+                                                               WHEN 'CARD' THEN 3.0
+                                                               WHEN 'WATER_RESERVOIR' THEN 2.0
+                                                               ELSE 0 END), 0)
+                                       FROM bouquet_accessories a WHERE a.bouquet_id = bouquets.id)
+                    """))
+    );
+
+    private SchemaMigrations() {}
+
+    public static List<Migration> all() {
+        return MIGRATIONS;
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    // Apply every pending migration, each in its own transaction; returns how many were applied
+    public static int migrate(Connection conn) throws SQLException {
+        return migrateTo(conn, latestVersion());
+    }
+
+    // Applies pending migrations up to and including the given version
+    static int migrateTo(Connection conn, int version) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INTEGER PRIMARY KEY,
+                    description TEXT NOT NULL,
+                    applied_at TEXT NOT NULL
+                )
+                """);
+        }
+
+        int current = currentVersion(conn);
+        int applied = 0;
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version() <= current || migration.version() > version) continue;
+            apply(conn, migration);
+            applied++;
+        }
+        return applied;
+    }
+
+    public static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : migration.statements()) {
+                    stmt.execute(sql);
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)")) {
+                pstmt.setInt(1, migration.version());
+                pstmt.setString(2, migration.description());
+                pstmt.setString(3, LocalDateTime.now().toString());
+                pstmt.executeUpdate();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migration " + migration.version() + " (" + migration.description()
+                    + ") failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+}
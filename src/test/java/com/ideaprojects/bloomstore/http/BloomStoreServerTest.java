@@ -0,0 +1,185 @@
+package com.ideaprojects.bloomstore.http;
+
+import com.ideaprojects.bloomstore.service.FlowerCatalog;
+import com.ideaprojects.bloomstore.util.DatabaseStorage;
+import com.ideaprojects.bloomstore.util.DatabaseUtil;
+import com.ideaprojects.bloomstore.util.Json;
+import com.ideaprojects.bloomstore.util.ReservationService;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BloomStore Server Tests")
+class BloomStoreServerTest {
+    @TempDir
+    Path tempDir;
+
+    private String previousDatabase;
+    private FlowerCatalog catalog;
+    private BloomStoreServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        DatabaseUtil.useDatabase(tempDir.resolve("server.db").toString());
+        DatabaseUtil.initializeDatabase();
+        DatabaseStorage.initializeSampleFlowers();
+        catalog = FlowerCatalog.forDatabase(Duration.ofMinutes(5));
+        server = BloomStoreServer.start(0, catalog);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        catalog.close();
+        client.close();
+        DatabaseUtil.useDatabase(previousDatabase);
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> flowers(HttpResponse<String> response) {
+        return (List<Map<String, Object>>) Json.parseObject(response.body()).get("flowers");
+    }
+
+    private static List<Long> ids(HttpResponse<String> response) {
+        assertEquals(200, response.statusCode(), response.body());
+        return flowers(response).stream().map(f -> (Long) f.get("id")).toList();
+    }
+
+    @Test
+    @DisplayName("Should list the catalog")
+    void testFlowers() throws Exception {
+        HttpResponse<String> response = get("/api/flowers");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+        List<Map<String, Object>> flowers = flowers(response);
+        assertEquals(8, flowers.size());
+        assertEquals("Rose", flowers.get(0).get("type"));
+        assertEquals(12L, flowers.get(0).get("thornCount"));
+    }
+
+    @Test
+    @DisplayName("Should filter the catalog by query parameters")
+    void testFlowerFilters() throws Exception {
+        // First from SQLite, then again from the snapshot the unfiltered listing loads
+        for (int pass = 0; pass < 2; pass++) {
+            assertEquals(List.of(2L, 7L), ids(get("/api/flowers?type=Rose&minPrice=3.75")));
+            assertEquals(List.of(1L, 4L, 6L), ids(get("/api/flowers?minStem=40&maxStem=45")));
+            assertEquals(List.of(1L, 3L, 8L), ids(get("/api/flowers?minFreshness=90")));
+            assertEquals(List.of(3L), ids(get("/api/flowers?color=red")));
+            assertEquals(List.of(4L), ids(get("/api/flowers?fragrant=true")));
+            assertEquals(List.of(3L, 7L, 8L), ids(get("/api/flowers?cutFrom=" + LocalDate.now())));
+            assertEquals(8, flowers(get("/api/flowers")).size());
+        }
+
+        assertEquals(400, get("/api/flowers?type=Orchid").statusCode());
+        assertEquals(400, get("/api/flowers?minPrice=5&maxPrice=1").statusCode());
+        assertEquals(400, get("/api/flowers?fragrant=maybe").statusCode());
+        assertEquals(400, get("/api/flowers?cutTo=yesterday").statusCode());
+    }
+
+    @Test
+    @DisplayName("Should price, sort and search a bouquet")
+    void testBouquetOperations() throws Exception {
+        // Roses of 40 and 50 cm with freshness 90 and 75, then the 30 cm tulip at 95
+        String body = "{\"flowers\": [1, 2, 3], \"accessories\": [\"ribbon\"]}";
+
+        Map<String, Object> price = Json.parseObject(post("/api/bouquets/price", body).body());
+        assertEquals(3.50 + 4.00 + 1.50 + 1.5, (Double) price.get("totalPrice"), 0.001);
+        assertEquals(3L, price.get("flowerCount"));
+
+        List<Map<String, Object>> sorted = flowers(post("/api/bouquets/sort", body));
+        assertEquals(List.of(95L, 90L, 75L), sorted.stream().map(f -> f.get("freshness")).toList());
+
+        List<Map<String, Object>> found = flowers(post("/api/bouquets/search?minStem=35&maxStem=45", body));
+        assertEquals(1, found.size());
+        assertEquals(1L, found.get(0).get("id"));
+    }
+
+    @Test
+    @DisplayName("Should save and load bouquets")
+    void testSaveAndLoad() throws Exception {
+        HttpResponse<String> saved = post("/api/bouquets", "{\"name\": \"Wedding\", \"flowers\": [4, 4, 5]}");
+        assertEquals(201, saved.statusCode());
+        long id = (Long) Json.parseObject(saved.body()).get("id");
+
+        HttpResponse<String> loaded = get("/api/bouquets/" + id);
+        assertEquals(200, loaded.statusCode());
+        Map<String, Object> bouquet = Json.parseObject(loaded.body());
+        assertEquals(3L, bouquet.get("flowerCount"));
+        assertEquals(2.80 + 2.80 + 1.70, (Double) bouquet.get("totalPrice"), 0.001);
+
+        String list = get("/api/bouquets").body();
+        assertTrue(list.contains("Wedding"));
+
+        post("/api/bouquets", "{\"name\": \"Birthday\", \"flowers\": [1]}");
+        Map<String, Object> page = Json.parseObject(get("/api/bouquets?limit=1&name=wed").body());
+        assertEquals(1, ((List<?>) page.get("bouquets")).size());
+        assertNull(page.get("next"));
+        Map<String, Object> newest = Json.parseObject(get("/api/bouquets?limit=1&from=2000-01-01").body());
+        assertEquals("Birthday", ((Map<?, ?>) ((List<?>) newest.get("bouquets")).get(0)).get("name"));
+        Map<String, Object> older = Json.parseObject(get("/api/bouquets?limit=1&after=" + newest.get("next")).body());
+        assertEquals("Wedding", ((Map<?, ?>) ((List<?>) older.get("bouquets")).get(0)).get("name"));
+        assertEquals(400, get("/api/bouquets?after=nonsense").statusCode());
+    }
+
+    @Test
+    @DisplayName("Should take stems from stock and refuse orders it cannot fill")
+    void testSaveTakesStock() throws Exception {
+        ReservationService reservations = new ReservationService();
+        assertEquals(201, post("/api/bouquets", "{\"name\": \"Pair\", \"flowers\": [4, 4, 5]}").statusCode());
+        assertEquals(48, reservations.getStock(4));
+        assertEquals(49, reservations.getStock(5));
+
+        // Flower 2 is held before flower 3 runs short, and is put back
+        String tooMany = "{\"name\": \"Huge\", \"flowers\": [2" + ", 3".repeat(51) + "]}";
+        HttpResponse<String> refused = post("/api/bouquets", tooMany);
+        assertEquals(409, refused.statusCode());
+        assertEquals("Not enough stock for flower 3", Json.parseObject(refused.body()).get("error"));
+        assertEquals(50, reservations.getStock(2));
+        assertEquals(50, reservations.getStock(3));
+    }
+
+    @Test
+    @DisplayName("Should report client errors as JSON")
+    void testErrors() throws Exception {
+        assertEquals(404, get("/api/bouquets/999").statusCode());
+        assertEquals(404, get("/api/unknown").statusCode());
+        assertEquals(405, get("/api/bouquets/price").statusCode());
+        assertEquals(400, post("/api/bouquets/price", "{not json").statusCode());
+        assertEquals(400, post("/api/bouquets/price", "{\"flowers\": [12345]}").statusCode());
+        assertEquals(400, post("/api/bouquets/price", "{\"accessories\": [\"balloon\"]}").statusCode());
+
+        HttpResponse<String> missingName = post("/api/bouquets", "{\"flowers\": [1]}");
+        assertEquals(400, missingName.statusCode());
+        assertEquals("name is required", Json.parseObject(missingName.body()).get("error"));
+    }
+}
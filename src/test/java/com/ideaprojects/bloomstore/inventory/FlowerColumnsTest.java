@@ -0,0 +1,87 @@
+package com.ideaprojects.bloomstore.inventory;
+
+import com.ideaprojects.bloomstore.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Flower Columns Tests")
+class FlowerColumnsTest {
+    private FlowerColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        columns = new FlowerColumns(2);
+        columns.add(new Rose(3.50, 40.0, LocalDate.of(2025, 10, 1), 90, 12));
+        columns.add(new Tulip(1.50, 30.0, LocalDate.of(2025, 10, 2), 95, "red"));
+        columns.add(new Lily(2.80, 45.0, LocalDate.of(2025, 10, 3), 60, true));
+        columns.add(new Tulip(1.70, 35.0, LocalDate.of(2025, 10, 4), 85, "red"));
+    }
+
+    @Test
+    @DisplayName("Should store every attribute in its column")
+    void testColumns() {
+        assertEquals(4, columns.size());
+        assertEquals(FlowerColumns.ROSE, columns.type(0));
+        assertEquals(12, columns.thornCount(0));
+        assertEquals("red", columns.color(1));
+        assertNull(columns.color(0));
+        assertTrue(columns.fragrant(2));
+        assertEquals(LocalDate.of(2025, 10, 3).toEpochDay(), columns.cutEpochDay(2));
+        assertEquals(85, columns.freshness(3));
+    }
+
+    @Test
+    @DisplayName("Should rebuild equal flowers on demand")
+    void testToFlower() {
+        Flower flower = columns.toFlower(1);
+
+        assertInstanceOf(Tulip.class, flower);
+        Tulip tulip = (Tulip) flower;
+        assertEquals(1.50, tulip.getPrice(), 0.001);
+        assertEquals(30.0, tulip.getStemLengthCm(), 0.001);
+        assertEquals(LocalDate.of(2025, 10, 2), tulip.getCutDate());
+        assertEquals(95, tulip.getFreshnessLevel());
+        assertEquals("red", tulip.getColor());
+    }
+
+    @Test
+    @DisplayName("Should filter and aggregate over the columns")
+    void testFilterAndAggregate() {
+        int[] tulips = columns.filter((c, row) -> c.type(row) == FlowerColumns.TULIP);
+
+        assertArrayEquals(new int[]{1, 3}, tulips);
+        assertEquals(3.20, columns.totalPrice(tulips), 0.001);
+        assertEquals(9.50, columns.totalPrice(), 0.001);
+        assertEquals(82.5, columns.averageFreshness(), 0.001);
+        assertArrayEquals(new int[]{1, 2, 1}, columns.countByType());
+        assertEquals(2, columns.countWhere((c, row) -> c.price(row) > 2.0));
+    }
+
+    @Test
+    @DisplayName("Should select rows by stem length and freshness")
+    void testSelect() {
+        int[] rows = columns.select(30.0, 40.0, 86);
+
+        List<Flower> flowers = columns.toFlowers(rows);
+        assertEquals(2, flowers.size());
+        assertInstanceOf(Rose.class, flowers.get(0));
+        assertInstanceOf(Tulip.class, flowers.get(1));
+    }
+
+    @Test
+    @DisplayName("Should clamp freshness updates")
+    void testSetFreshness() {
+        columns.setFreshness(0, 150);
+        columns.setFreshness(1, -5);
+
+        assertEquals(100, columns.freshness(0));
+        assertEquals(0, columns.freshness(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> columns.freshness(4));
+    }
+}
@@ -0,0 +1,154 @@
+package com.ideaprojects.bloomstore.inventory;
+
+import com.ideaprojects.bloomstore.model.*;
+import com.ideaprojects.bloomstore.util.DatabaseStorage;
+import com.ideaprojects.bloomstore.util.DatabaseUtil;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Inventory Snapshot Tests")
+class InventorySnapshotTest {
+    @TempDir
+    Path tempDir;
+
+    private String previousDatabase;
+    private Path snapshotFile;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        DatabaseUtil.useDatabase(tempDir.resolve("snapshot.db").toString());
+        DatabaseUtil.initializeDatabase();
+        DatabaseStorage.initializeSampleFlowers();
+        snapshotFile = tempDir.resolve("inventory.snapshot");
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseUtil.useDatabase(previousDatabase);
+    }
+
+    @Test
+    @DisplayName("Should round-trip the flowers table through the mapped file")
+    void testWriteAndOpen() throws SQLException, IOException {
+        List<Flower> expected = DatabaseStorage.loadAllFlowers();
+
+        try (InventorySnapshot snapshot = InventorySnapshot.write(snapshotFile)) {
+            assertEquals(expected.size(), snapshot.size());
+            assertEquals(DatabaseStorage.getCatalogRevision(), snapshot.revision());
+            // Records, then the color table
+            assertTrue(Files.size(snapshotFile) > InventorySnapshot.HEADER_SIZE
+                    + (long) expected.size() * InventorySnapshot.RECORD_SIZE);
+
+            List<Flower> actual = snapshot.toFlowers();
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getId(), actual.get(i).getId());
+                assertEquals(expected.get(i).description(), actual.get(i).description());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep tulip colors of any length intact")
+    void testLongColors() throws SQLException, IOException {
+        String longColor = "deep burgundy with cream edges";
+        String multiByte = "rosé pâle — dégradé abricot";
+        try (Connection conn = DatabaseUtil.getConnection(); Statement stmt = conn.createStatement()) {
+            for (String color : List.of(longColor, multiByte, longColor)) {
+                stmt.executeUpdate("INSERT INTO flowers (type, name, price, stem_length_cm, cut_date, freshness_level, color)"
+                        + " VALUES ('Tulip', 'Tulip', 1.5, 30.0, '2025-10-01', 90, '" + color + "')");
+            }
+        }
+        List<Flower> tulips = DatabaseStorage.loadAllFlowers();
+        Flower first = tulips.get(tulips.size() - 3);
+        Flower second = tulips.get(tulips.size() - 2);
+        Flower third = tulips.get(tulips.size() - 1);
+
+        try (InventorySnapshot snapshot = InventorySnapshot.write(snapshotFile)) {
+            assertEquals(longColor, snapshot.color(snapshot.indexOf(first.getId())));
+            assertEquals(multiByte, snapshot.color(snapshot.indexOf(second.getId())));
+            assertEquals(longColor, ((Tulip) snapshot.toFlower(snapshot.indexOf(third.getId()))).getColor());
+        }
+        try (InventorySnapshot reopened = InventorySnapshot.open(snapshotFile)) {
+            assertEquals(multiByte, reopened.color(reopened.indexOf(second.getId())));
+            assertNull(reopened.color(reopened.indexOf(DatabaseStorage.loadAllFlowers().stream()
+                    .filter(f -> f instanceof Rose).findFirst().orElseThrow().getId())));
+        }
+    }
+
+    @Test
+    @DisplayName("Should look up, scan and update records in place")
+    void testLookupScanAndUpdate() throws SQLException, IOException {
+        Flower tulip = DatabaseStorage.loadAllFlowers().stream()
+                .filter(f -> f instanceof Tulip).findFirst().orElseThrow();
+
+        try (InventorySnapshot snapshot = InventorySnapshot.write(snapshotFile)) {
+            int record = snapshot.indexOf(tulip.getId());
+            assertTrue(record >= 0);
+            assertEquals(FlowerColumns.TULIP, snapshot.type(record));
+            assertEquals(((Tulip) tulip).getColor(), snapshot.color(record));
+            assertEquals(-1, snapshot.indexOf(Integer.MAX_VALUE));
+
+            List<Integer> matches = new ArrayList<>();
+            int count = snapshot.scan(0, 100, 0, matches::add);
+            assertEquals(snapshot.size(), count);
+            assertEquals(0, snapshot.scan(1000, 2000, 0, r -> fail("no flower is that long")));
+
+            snapshot.setFreshness(record, 7);
+            snapshot.setFreshness(0, 250);
+            assertEquals(100, snapshot.freshness(0));
+        }
+
+        // Updates were written to the file itself
+        try (InventorySnapshot reopened = InventorySnapshot.open(snapshotFile)) {
+            assertEquals(7, reopened.freshness(reopened.indexOf(tulip.getId())));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reuse a current snapshot and rebuild a stale one")
+    void testOpenOrRebuild() throws SQLException, IOException {
+        long written;
+        try (InventorySnapshot snapshot = InventorySnapshot.write(snapshotFile)) {
+            written = snapshot.revision();
+            snapshot.setFreshness(0, 1);
+        }
+
+        try (InventorySnapshot snapshot = InventorySnapshot.openOrRebuild(snapshotFile)) {
+            assertEquals(written, snapshot.revision());
+            assertEquals(1, snapshot.freshness(0));
+        }
+
+        try (Connection conn = DatabaseUtil.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE flowers SET price = price + 1 WHERE id = (SELECT MIN(id) FROM flowers)");
+        }
+
+        try (InventorySnapshot snapshot = InventorySnapshot.openOrRebuild(snapshotFile)) {
+            assertTrue(snapshot.revision() > written);
+            assertNotEquals(1, snapshot.freshness(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject and rebuild a damaged file")
+    void testDamagedFile() throws SQLException, IOException {
+        Files.write(snapshotFile, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16,
+                17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32});
+
+        assertThrows(IOException.class, () -> InventorySnapshot.open(snapshotFile));
+        try (InventorySnapshot snapshot = InventorySnapshot.openOrRebuild(snapshotFile)) {
+            assertEquals(DatabaseStorage.loadAllFlowers().size(), snapshot.size());
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.ideaprojects.bloomstore.metrics;
+
+import com.ideaprojects.bloomstore.model.*;
+import com.ideaprojects.bloomstore.service.Bouquet;
+import com.ideaprojects.bloomstore.util.ConnectionPool;
+import com.ideaprojects.bloomstore.util.DatabaseStorage;
+import com.ideaprojects.bloomstore.util.DatabaseUtil;
+import com.ideaprojects.bloomstore.util.FlowerQuery;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Metrics Tests")
+class MetricsTest {
+    @TempDir
+    Path tempDir;
+
+    private String previousDatabase;
+    private boolean previouslyEnabled;
+    private MetricsRegistry previousRegistry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        previouslyEnabled = Metrics.isEnabled();
+        previousRegistry = Metrics.getRegistry();
+        DatabaseUtil.useDatabase(tempDir.resolve("metrics.db").toString());
+        DatabaseUtil.initializeDatabase();
+        Metrics.defaultRegistry().reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.setEnabled(previouslyEnabled);
+        Metrics.useRegistry(previousRegistry);
+        DatabaseUtil.useDatabase(previousDatabase);
+    }
+
+    private static Bouquet bouquet() {
+        Bouquet bouquet = new Bouquet();
+        bouquet.addFlower(new Rose(3.5, 40.0, LocalDate.now(), 90, 12));
+        bouquet.addFlower(new Tulip(1.5, 30.0, LocalDate.now(), 95, "red"));
+        bouquet.addFlower(new Lily(2.8, 45.0, LocalDate.now(), 60, true));
+        bouquet.addAccessory(Accessory.RIBBON);
+        return bouquet;
+    }
+
+    @Test
+    @DisplayName("Should record nothing while disabled")
+    void testDisabled() throws SQLException {
+        Metrics.setEnabled(false);
+        Bouquet bouquet = bouquet();
+        bouquet.calculateTotalPrice();
+        bouquet.sortByFreshnessDescending();
+        DatabaseStorage.saveBouquet(bouquet, "Quiet");
+
+        assertEquals(List.of(), Metrics.defaultRegistry().snapshot());
+    }
+
+    @Test
+    @DisplayName("Should count calls and rows for storage and bouquet operations")
+    void testEnabled() throws SQLException {
+        Metrics.setEnabled(true);
+        Bouquet bouquet = bouquet();
+        bouquet.calculateTotalPrice();
+        bouquet.sortByFreshnessDescending();
+        bouquet.findByStemLengthRange(35, 50);
+        int id = DatabaseStorage.saveBouquet(bouquet, "Counted");
+        DatabaseStorage.loadBouquet(id);
+        DatabaseStorage.initializeSampleFlowers();
+        try (Stream<Flower> flowers = DatabaseStorage.streamFlowers(FlowerQuery.all())) {
+            assertEquals(8, flowers.count());
+        }
+
+        InMemoryMetricsRegistry registry = Metrics.defaultRegistry();
+        // Once here and once by saveBouquet for the stored total
+        assertEquals(2, registry.snapshot("bouquet.calculateTotalPrice").calls());
+        assertEquals(3, registry.snapshot("bouquet.sortByFreshness").rows());
+        assertEquals(1, registry.snapshot("bouquet.findByStemLength").calls());
+        // One bouquet row, three flower rows and one accessory row each way
+        assertEquals(5, registry.snapshot("storage.saveBouquets").rows());
+        assertEquals(4, registry.snapshot("storage.loadBouquets").rows());
+        assertEquals(8, registry.snapshot("storage.streamFlowers").rows());
+        assertTrue(registry.snapshot("pool.acquire").calls() >= 4);
+
+        OperationSnapshot save = registry.snapshot("storage.saveBouquets");
+        assertTrue(save.p50Nanos() > 0 && save.p50Nanos() <= save.maxNanos());
+    }
+
+    @Test
+    @DisplayName("Should count failed calls apart from completed ones")
+    void testFailures() throws SQLException {
+        Metrics.setEnabled(true);
+        try (ConnectionPool pool = new ConnectionPool("jdbc:sqlite:" + tempDir.resolve("pool.db"), 1, 50, 30_000, 0);
+             Connection held = pool.borrow()) {
+            assertNotNull(held);
+            assertThrows(SQLException.class, pool::borrow);
+        }
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE bouquets");
+        }
+        assertThrows(SQLException.class, () -> DatabaseStorage.getBouquetSummary(1));
+
+        InMemoryMetricsRegistry registry = Metrics.defaultRegistry();
+        OperationSnapshot acquire = registry.snapshot("pool.acquire");
+        assertTrue(acquire.failures() >= 1);
+        assertTrue(acquire.calls() >= 2);
+        OperationSnapshot summary = registry.snapshot("storage.getBouquetSummary");
+        assertEquals(0, summary.calls());
+        assertEquals(1, summary.failures());
+        assertTrue(registry.snapshot().contains(summary));
+    }
+
+    @Test
+    @DisplayName("Should route operations to a plugged-in registry")
+    void testCustomRegistry() {
+        Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+        Metrics.useRegistry(operation -> (elapsed, count) ->
+                calls.computeIfAbsent(operation, k -> new LongAdder()).increment());
+        Metrics.setEnabled(true);
+
+        Bouquet bouquet = bouquet();
+        bouquet.topFreshest(2);
+        bouquet.stalest(1);
+
+        assertEquals(2, calls.get("bouquet.selectByFreshness").sum());
+        assertEquals(List.of(), Metrics.defaultRegistry().snapshot());
+    }
+
+    @Test
+    @DisplayName("Should emit JFR events with row counts and bouquet sizes")
+    void testJfrEvents() throws Exception {
+        Metrics.setEnabled(true);
+        Path file = tempDir.resolve("metrics.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("bloomstore.Storage");
+            recording.enable("bloomstore.Bouquet");
+            recording.start();
+            Bouquet bouquet = bouquet();
+            bouquet.sortByFreshnessDescending();
+            DatabaseStorage.saveBouquet(bouquet, "Recorded");
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent sort = events.stream()
+                .filter(e -> e.getEventType().getName().equals("bloomstore.Bouquet"))
+                .filter(e -> e.getString("operation").equals("bouquet.sortByFreshness"))
+                .findFirst().orElseThrow();
+        assertEquals(3, sort.getLong("flowers"));
+        RecordedEvent save = events.stream()
+                .filter(e -> e.getEventType().getName().equals("bloomstore.Storage"))
+                .filter(e -> e.getString("operation").equals("storage.saveBouquets"))
+                .findFirst().orElseThrow();
+        assertEquals(5, save.getLong("rows"));
+        assertTrue(save.getDuration("latency").toNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("Should bound histogram percentiles within a bucket")
+    void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.5));
+        for (long nanos = 1; nanos <= 1_000; nanos++) histogram.record(nanos * 1_000);
+
+        assertEquals(1_000, histogram.count());
+        assertEquals(1_000_000, histogram.maxNanos());
+        long p50 = histogram.percentile(0.5);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.125, "p50 " + p50);
+        long p99 = histogram.percentile(0.99);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99 " + p99);
+        assertEquals(1_000_000, histogram.percentile(1.0));
+
+        for (long value : new long[]{0, 7, 8, 15, 16, 1_234_567, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(LatencyHistogram.upperBound(bucket) >= value);
+            if (bucket > 0) assertTrue(LatencyHistogram.upperBound(bucket - 1) < value);
+        }
+    }
+}
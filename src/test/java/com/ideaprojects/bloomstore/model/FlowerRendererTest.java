@@ -0,0 +1,88 @@
+package com.ideaprojects.bloomstore.model;
+
+import com.ideaprojects.bloomstore.service.Bouquet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Flower Renderer Tests")
+class FlowerRendererTest {
+    private static final LocalDate TODAY = LocalDate.of(2025, 10, 18);
+
+    private static String fixed(FlowerRenderer renderer, double value, int scale) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        renderer.appendFixed(sb, value, scale);
+        return sb.toString();
+    }
+
+    @Test
+    @DisplayName("Should write the same digits as String.format")
+    void testAppendFixed() throws IOException {
+        FlowerRenderer renderer = new FlowerRenderer(TODAY, Locale.US);
+        double[] edges = {0, -0.0, 0.005, 0.125, 1.005, 2.675, 1.45, 9.995, -1.25, -0.001, 1e12, Double.NaN};
+        for (double value : edges) {
+            for (int scale = 0; scale <= 3; scale++) {
+                assertEquals(String.format(Locale.US, "%." + scale + "f", value), fixed(renderer, value, scale),
+                        value + " at scale " + scale);
+            }
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            double value = Math.round(random.nextDouble() * 1_000_000) / 1_000.0;
+            assertEquals(String.format(Locale.US, "%.2f", value), fixed(renderer, value, 2));
+            assertEquals(String.format(Locale.US, "%.1f", value), fixed(renderer, value, 1));
+        }
+
+        // Large values whose ties the binary product can no longer tell apart from a near miss
+        for (int i = 0; i < 100_000; i++) {
+            double value = (random.nextInt(1_000_000_000) * 1_000L + 5 + random.nextInt(2) * 10) / 1_000.0;
+            for (int scale = 0; scale <= 3; scale++) {
+                assertEquals(String.format(Locale.US, "%." + scale + "f", value), fixed(renderer, value, scale),
+                        value + " at scale " + scale);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should use the locale's decimal separator")
+    void testLocale() throws IOException {
+        assertEquals("3,50", fixed(new FlowerRenderer(TODAY, Locale.GERMANY), 3.5, 2));
+    }
+
+    @Test
+    @DisplayName("Should match the formatted description")
+    void testRender() {
+        FlowerRenderer renderer = new FlowerRenderer(TODAY, Locale.US);
+        Rose rose = new Rose(3.5, 40.0, TODAY.minusDays(3), 90, 12);
+        Tulip tulip = new Tulip(1.25, 30.25, TODAY, 95, "red");
+        Lily lily = new Lily(2.8, 45.0, TODAY.minusDays(1), 60, true);
+
+        assertEquals("Rose (40.0 cm) cut 3 days ago, freshness = 90%, price = 3.50 - thorns: 12", renderer.describe(rose));
+        assertEquals("Tulip (30.3 cm) cut 0 days ago, freshness = 95%, price = 1.25 - color: red", renderer.describe(tulip));
+        assertEquals("Lily (45.0 cm) cut 1 days ago, freshness = 60%, price = 2.80 - fragrant: true", renderer.describe(lily));
+    }
+
+    @Test
+    @DisplayName("Should stream the bouquet report to a writer")
+    void testBouquetRender() throws IOException {
+        Bouquet bouquet = new Bouquet();
+        bouquet.addFlower(new Rose(3.5, 40.0, LocalDate.now(), 90, 12));
+        bouquet.addFlower(new Tulip(1.5, 30.0, LocalDate.now(), 95, null));
+        bouquet.addAccessory(Accessory.RIBBON);
+
+        StringWriter out = new StringWriter();
+        bouquet.render(out);
+
+        assertEquals(bouquet.toString(), out.toString());
+        assertTrue(out.toString().startsWith("Bouquet:\n - Rose (40.0 cm) cut 0 days ago"));
+        assertTrue(out.toString().endsWith("Total price: " + String.format("%.2f", bouquet.calculateTotalPrice()) + " $$$\n"));
+    }
+}
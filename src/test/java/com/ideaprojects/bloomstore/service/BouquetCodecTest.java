@@ -0,0 +1,120 @@
+package com.ideaprojects.bloomstore.service;
+
+import com.ideaprojects.bloomstore.model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bouquet Codec Tests")
+class BouquetCodecTest {
+
+    private static Bouquet sample() {
+        Bouquet bouquet = new Bouquet();
+        Rose rose = new Rose(3.5, 40.0, LocalDate.of(2025, 10, 1), 90, 12);
+        rose.setId(7);
+        bouquet.addFlower(rose);
+        bouquet.addFlower(new Tulip(1.25, 30.5, LocalDate.of(2025, 10, 2), 95, "red"));
+        bouquet.addFlower(new Tulip(1.5, 31.0, LocalDate.of(2025, 10, 2), 94, "teal ✿"));
+        bouquet.addFlower(new Tulip(1.5, 32.0, LocalDate.of(2025, 10, 2), 93, "teal ✿"));
+        bouquet.addFlower(new Lily(2.8, 45.0, LocalDate.of(1969, 12, 31), 0, true));
+        bouquet.addFlower(new Lily(3.2, 42.0, LocalDate.of(2025, 10, 3), 100, false));
+        bouquet.addAccessory(Accessory.RIBBON);
+        bouquet.addAccessory(Accessory.WATER_RESERVOIR);
+        return bouquet;
+    }
+
+    private static void assertSameBouquet(Bouquet expected, Bouquet actual) {
+        List<Flower> e = expected.getFlowers();
+        List<Flower> a = actual.getFlowers();
+        assertEquals(e.size(), a.size());
+        for (int i = 0; i < e.size(); i++) {
+            assertEquals(e.get(i).getClass(), a.get(i).getClass());
+            assertEquals(e.get(i).getId(), a.get(i).getId());
+            FlowerRenderer renderer = new FlowerRenderer(LocalDate.of(2025, 10, 18));
+            assertEquals(renderer.describe(e.get(i)), renderer.describe(a.get(i)));
+        }
+        assertEquals(expected.getAccessories(), actual.getAccessories());
+        assertEquals(expected.calculateTotalPrice(), actual.calculateTotalPrice(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Should round trip through a direct buffer, plain and deflated")
+    void testRoundTrip() {
+        Bouquet bouquet = sample();
+        for (boolean compress : new boolean[]{false, true}) {
+            ByteBuffer buffer = BouquetCodec.encode(bouquet, compress);
+            assertTrue(buffer.isDirect());
+            assertSameBouquet(bouquet, BouquetCodec.decode(buffer));
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    @DisplayName("Should read back-to-back bouquets and restore the byte order")
+    void testConsecutive() {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        Bouquet first = sample();
+        Bouquet second = new Bouquet();
+        Tulip colorless = new Tulip(2, 28, LocalDate.of(2025, 10, 1), 90, null);
+        colorless.setColor(null);
+        second.addFlower(colorless);
+        Rose thornless = new Rose(5, 55, LocalDate.of(2025, 10, 1), 70, 0);
+        thornless.setThornCount(-3);
+        second.addFlower(thornless);
+
+        BouquetCodec.encode(first, buffer, true);
+        BouquetCodec.encode(second, buffer, false);
+        BouquetCodec.encode(first, buffer, false);
+        buffer.flip();
+
+        assertSameBouquet(first, BouquetCodec.decode(buffer));
+        Bouquet decoded = BouquetCodec.decode(buffer);
+        assertNull(((Tulip) decoded.getFlowers().get(0)).getColor());
+        assertEquals(-3, ((Rose) decoded.getFlowers().get(1)).getThornCount());
+        assertSameBouquet(first, BouquetCodec.decode(buffer));
+        assertFalse(buffer.hasRemaining());
+        assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+    }
+
+    @Test
+    @DisplayName("Should be compact and shrink further when deflated")
+    void testSize() {
+        Random random = new Random(42);
+        Bouquet bouquet = new Bouquet();
+        for (int i = 0; i < 1000; i++) {
+            bouquet.addFlower(new Tulip(1 + random.nextInt(5), 30, LocalDate.of(2025, 10, 1), 90, "red"));
+        }
+        int plain = BouquetCodec.encode(bouquet, false).remaining();
+        int deflated = BouquetCodec.encode(bouquet, true).remaining();
+        assertTrue(plain <= BouquetCodec.maxEncodedSize(bouquet));
+        assertTrue(plain < 1000 * 32, "plain: " + plain);
+        assertTrue(deflated < plain / 4, "deflated: " + deflated);
+    }
+
+    @Test
+    @DisplayName("Should reject short buffers and corrupt input")
+    void testErrors() {
+        ByteBuffer small = ByteBuffer.allocate(20);
+        assertThrows(BufferOverflowException.class, () -> BouquetCodec.encode(sample(), small, false));
+        assertEquals(0, small.position());
+
+        ByteBuffer encoded = BouquetCodec.encode(sample(), true);
+        ByteBuffer truncated = encoded.slice(0, encoded.remaining() - 5);
+        assertThrows(IllegalArgumentException.class, () -> BouquetCodec.decode(truncated));
+        assertEquals(0, truncated.position());
+
+        ByteBuffer plain = BouquetCodec.encode(sample(), false);
+        assertThrows(IllegalArgumentException.class, () -> BouquetCodec.decode(plain.slice(0, plain.remaining() - 1)));
+        assertThrows(IllegalArgumentException.class, () -> BouquetCodec.decode(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6})));
+        plain.put(4, (byte) 9);
+        assertThrows(IllegalArgumentException.class, () -> BouquetCodec.decode(plain));
+    }
+}
@@ -5,7 +5,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -161,4 +164,266 @@ class BouquetTest {
         assertNotNull(str);
         assertFalse(str.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should maintain aggregates as flowers are added and removed")
+    void testAggregates() {
+        Rose rose = new Rose(3.50, 40.0, LocalDate.now(), 70, 12);
+        Tulip tulip = new Tulip(1.50, 30.0, LocalDate.now(), 95, "red");
+        Lily lily = new Lily(2.80, 45.0, LocalDate.now(), 60, true);
+
+        bouquet.addFlower(rose);
+        bouquet.addFlower(tulip);
+        bouquet.addFlower(lily);
+
+        assertEquals(3, bouquet.getFlowerCount());
+        assertEquals(60, bouquet.getMinFreshness());
+        assertEquals(95, bouquet.getMaxFreshness());
+        assertEquals(75.0, bouquet.getAverageFreshness(), 0.001);
+        assertEquals(30.0, bouquet.getMinStemLengthCm(), 0.001);
+        assertEquals(45.0, bouquet.getMaxStemLengthCm(), 0.001);
+        assertEquals(38.333, bouquet.getAverageStemLengthCm(), 0.001);
+
+        bouquet.removeFlower(lily);
+        bouquet.removeFlower(tulip);
+
+        assertEquals(1, bouquet.getFlowerCount());
+        assertEquals(70, bouquet.getMinFreshness());
+        assertEquals(70, bouquet.getMaxFreshness());
+        assertEquals(40.0, bouquet.getMaxStemLengthCm(), 0.001);
+        assertEquals(3.50, bouquet.calculateTotalPrice(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should not accumulate rounding error as flowers come and go")
+    void testPriceWithoutDrift() {
+        Rose first = new Rose(0.1, 40.0, LocalDate.now(), 90, 12);
+        bouquet.addFlower(first);
+        bouquet.addFlower(new Rose(0.2, 40.0, LocalDate.now(), 90, 12));
+        bouquet.removeFlower(first);
+        assertEquals(0.2, bouquet.calculateTotalPrice());
+
+        Rose updated = new Rose(0.1, 40.0, LocalDate.now(), 90, 12);
+        bouquet.addFlower(updated);
+        bouquet.updateFlower(updated, f -> f.setPrice(0.7));
+        assertEquals(0.2 + 0.7, bouquet.calculateTotalPrice());
+    }
+
+    @Test
+    @DisplayName("Should keep the price exact over many adds and removes")
+    void testPriceOverChurn() {
+        Random random = new Random(7);
+        List<Flower> kept = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            if (kept.isEmpty() || random.nextInt(3) > 0) {
+                Rose rose = new Rose(random.nextInt(1_000) / 100.0, 40.0, LocalDate.now(), 90, 1);
+                bouquet.addFlower(rose);
+                kept.add(rose);
+            } else {
+                bouquet.removeFlower(kept.remove(random.nextInt(kept.size())));
+            }
+        }
+
+        long cents = 0;
+        for (Flower flower : kept) cents += Math.round(flower.getPrice() * 100);
+        assertEquals(cents / 100.0, bouquet.calculateTotalPrice(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should leave the bouquet unchanged when a flower is rejected")
+    void testRejectedFlower() {
+        bouquet.addFlower(new Rose(3.50, 40.0, LocalDate.now(), 90, 12));
+        Rose noStem = new Rose(2.00, 0.0, LocalDate.now(), 50, 3);
+
+        assertThrows(IllegalArgumentException.class, () -> bouquet.addFlower(noStem));
+        assertEquals(1, bouquet.getFlowerCount());
+        assertEquals(3.50, bouquet.calculateTotalPrice());
+        assertEquals(90, bouquet.getMinFreshness());
+        assertEquals(40.0, bouquet.getMinStemLengthCm());
+        assertEquals(40.0, bouquet.getAverageStemLengthCm());
+        assertEquals(1, bouquet.findByStemLengthRange(0, 100).size());
+    }
+
+    @Test
+    @DisplayName("Should drop a flower that an update leaves invalid")
+    void testInvalidUpdate() {
+        double[] stem = {45.0};
+        Rose shrinking = new Rose(2.00, 45.0, LocalDate.now(), 50, 3) {
+            @Override
+            public double getStemLengthCm() {
+                if (stem[0] <= 0) throw new IllegalArgumentException("Stem length must be positive");
+                return stem[0];
+            }
+        };
+        bouquet.addFlower(new Rose(3.50, 40.0, LocalDate.now(), 90, 12));
+        bouquet.addFlower(shrinking);
+
+        assertThrows(IllegalArgumentException.class, () -> bouquet.updateFlower(shrinking, f -> stem[0] = 0));
+        assertEquals(1, bouquet.getFlowerCount());
+        assertEquals(3.50, bouquet.calculateTotalPrice());
+        assertEquals(90, bouquet.getMinFreshness());
+        assertEquals(40.0, bouquet.getMaxStemLengthCm());
+    }
+
+    @Test
+    @DisplayName("Should ignore removal of a flower not in the bouquet")
+    void testRemoveUnknownFlower() {
+        bouquet.addFlower(new Rose(3.50, 40.0, LocalDate.now(), 90, 12));
+        bouquet.removeFlower(new Rose(3.50, 40.0, LocalDate.now(), 90, 12));
+
+        assertEquals(1, bouquet.getFlowerCount());
+        assertEquals(3.50, bouquet.calculateTotalPrice(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should keep aggregates in sync when a flower is updated")
+    void testUpdateFlower() {
+        Rose rose = new Rose(3.50, 40.0, LocalDate.now(), 90, 12);
+        bouquet.addFlower(rose);
+
+        bouquet.updateFlower(rose, f -> {
+            f.setPrice(5.00);
+            f.setFreshnessLevel(40);
+        });
+
+        assertEquals(5.00, bouquet.calculateTotalPrice(), 0.001);
+        assertEquals(40, bouquet.getMaxFreshness());
+        assertThrows(IllegalArgumentException.class,
+                () -> bouquet.updateFlower(new Rose(1.0, 10.0, LocalDate.now(), 50, 0), f -> {}));
+    }
+
+    @Test
+    @DisplayName("Should not expose mutable flower and accessory lists")
+    void testReadOnlyViews() {
+        bouquet.addFlower(new Rose(3.50, 40.0, LocalDate.now(), 90, 12));
+
+        assertThrows(UnsupportedOperationException.class, () -> bouquet.getFlowers().clear());
+        assertThrows(UnsupportedOperationException.class, () -> bouquet.getAccessories().add(Accessory.CARD));
+    }
+
+    @Test
+    @DisplayName("Should reset everything on clear")
+    void testClear() {
+        bouquet.addFlower(new Rose(3.50, 40.0, LocalDate.now(), 90, 12));
+        bouquet.addAccessory(Accessory.RIBBON);
+
+        bouquet.clear();
+
+        assertTrue(bouquet.getFlowers().isEmpty());
+        assertTrue(bouquet.getAccessories().isEmpty());
+        assertEquals(0.0, bouquet.calculateTotalPrice(), 0.001);
+        assertEquals(0, bouquet.getMaxFreshness());
+        assertEquals(0.0, bouquet.getAverageStemLengthCm(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should return range matches ordered by stem length")
+    void testFindByStemLengthRangeOrdered() {
+        bouquet.addFlower(new Rose(3.50, 50.0, LocalDate.now(), 90, 12));
+        bouquet.addFlower(new Tulip(1.50, 30.0, LocalDate.now(), 95, "red"));
+        bouquet.addFlower(new Lily(2.80, 40.0, LocalDate.now(), 60, true));
+        bouquet.addFlower(new Tulip(1.70, 40.0, LocalDate.now(), 85, "yellow"));
+
+        List<Flower> found = bouquet.findByStemLengthRange(30.0, 45.0);
+
+        assertEquals(3, found.size());
+        assertEquals(30.0, found.get(0).getStemLengthCm(), 0.001);
+        assertInstanceOf(Lily.class, found.get(1));
+        assertInstanceOf(Tulip.class, found.get(2));
+    }
+
+    @Test
+    @DisplayName("Should keep the stem length index in sync on removal")
+    void testStemLengthIndexAfterRemoval() {
+        Rose first = new Rose(3.50, 40.0, LocalDate.now(), 90, 12);
+        Rose second = new Rose(3.50, 40.0, LocalDate.now(), 90, 12);
+        bouquet.addFlower(first);
+        bouquet.addFlower(second);
+
+        bouquet.removeFlower(first);
+
+        List<Flower> found = bouquet.findByStemLengthRange(40.0, 40.0);
+        assertEquals(1, found.size());
+        assertSame(second, found.get(0));
+    }
+
+    @Test
+    @DisplayName("Should match a full scan while adds, removes and lookups interleave")
+    void testStemLengthIndexInterleaved() {
+        Random random = new Random(7);
+        List<Flower> added = new ArrayList<>();
+        for (int step = 0; step < 2_000; step++) {
+            int action = random.nextInt(4);
+            if (action < 2 || added.isEmpty()) {
+                Flower flower = new Rose(1.0, 20 + random.nextInt(30), LocalDate.now(), 50, 1);
+                bouquet.addFlower(flower);
+                added.add(flower);
+            } else if (action == 2) {
+                bouquet.removeFlower(added.remove(random.nextInt(added.size())));
+            } else {
+                double min = 20 + random.nextInt(30);
+                List<Flower> expected = added.stream()
+                        .filter(f -> f.getStemLengthCm() >= min && f.getStemLengthCm() <= min + 5)
+                        .sorted(Comparator.comparingDouble(Flower::getStemLengthCm))
+                        .toList();
+                assertEquals(expected, bouquet.findByStemLengthRange(min, min + 5));
+            }
+        }
+        assertEquals(added.stream().mapToDouble(Flower::getStemLengthCm).min().orElse(0.0),
+                bouquet.getMinStemLengthCm(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should fill a caller-supplied sink")
+    void testFindByStemLengthRangeIntoSink() {
+        bouquet.addFlower(new Rose(3.50, 40.0, LocalDate.now(), 90, 12));
+        bouquet.addFlower(new Tulip(1.50, 30.0, LocalDate.now(), 95, "red"));
+        List<Flower> sink = new ArrayList<>();
+
+        assertEquals(1, bouquet.findByStemLengthRange(35.0, 45.0, sink));
+        assertEquals(2, bouquet.findByStemLengthRange(0.0, 100.0, sink));
+        assertEquals(3, sink.size());
+
+        int[] visited = {0};
+        bouquet.forEachByStemLengthRange(25.0, 35.0, f -> visited[0]++);
+        assertEquals(1, visited[0]);
+    }
+
+    @Test
+    @DisplayName("Should keep equal freshness in insertion order when sorting")
+    void testSortIsStable() {
+        Rose first = new Rose(3.50, 40.0, LocalDate.now(), 80, 12);
+        Tulip second = new Tulip(1.50, 30.0, LocalDate.now(), 90, "red");
+        Lily third = new Lily(2.80, 45.0, LocalDate.now(), 80, true);
+        bouquet.addFlower(first);
+        bouquet.addFlower(second);
+        bouquet.addFlower(third);
+
+        bouquet.sortByFreshnessDescending();
+        assertEquals(List.of(second, first, third), bouquet.getFlowers());
+
+        bouquet.sortByFreshnessDescending();
+        assertEquals(List.of(second, first, third), bouquet.getFlowers());
+    }
+
+    @Test
+    @DisplayName("Should select the freshest and stalest flowers without reordering")
+    void testTopFreshestAndStalest() {
+        int[] levels = {50, 95, 10, 70, 95, 30};
+        for (int level : levels) {
+            bouquet.addFlower(new Rose(3.50, 40.0, LocalDate.now(), level, 12));
+        }
+        List<Flower> before = List.copyOf(bouquet.getFlowers());
+
+        List<Flower> freshest = bouquet.topFreshest(3);
+        List<Flower> stalest = bouquet.stalest(2);
+
+        assertEquals(List.of(95, 95, 70), freshest.stream().map(Flower::getFreshnessLevel).toList());
+        assertSame(before.get(1), freshest.get(0));
+        assertSame(before.get(4), freshest.get(1));
+        assertEquals(List.of(10, 30), stalest.stream().map(Flower::getFreshnessLevel).toList());
+        assertEquals(before, bouquet.getFlowers());
+        assertEquals(6, bouquet.stalest(100).size());
+        assertTrue(bouquet.topFreshest(0).isEmpty());
+    }
+}
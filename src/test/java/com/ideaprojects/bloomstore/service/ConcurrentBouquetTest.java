@@ -0,0 +1,151 @@
+package com.ideaprojects.bloomstore.service;
+
+import com.ideaprojects.bloomstore.model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Concurrent Bouquet Tests")
+class ConcurrentBouquetTest {
+    private static final int CLERKS = 8;
+    private static final int FLOWERS_PER_CLERK = 2_000;
+
+    @Test
+    @DisplayName("Should keep every flower added by parallel clerks")
+    void testParallelAdds() throws Exception {
+        ConcurrentBouquet bouquet = new ConcurrentBouquet(4);
+        runClerks(clerk -> {
+            for (int i = 0; i < FLOWERS_PER_CLERK; i++) {
+                bouquet.addFlower(new Rose(1.0, 40.0, LocalDate.now(), i % 101, 5));
+            }
+            bouquet.addAccessory(Accessory.RIBBON);
+        });
+
+        assertEquals(CLERKS * FLOWERS_PER_CLERK, bouquet.getFlowerCount());
+        assertEquals(CLERKS, bouquet.getAccessories().size());
+        assertEquals(CLERKS * FLOWERS_PER_CLERK + CLERKS * Accessory.RIBBON.getPrice(),
+                bouquet.calculateTotalPrice(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should remove flowers added by any clerk")
+    void testParallelAddAndRemove() throws Exception {
+        ConcurrentBouquet bouquet = new ConcurrentBouquet();
+        Flower shared = new Lily(9.0, 50.0, LocalDate.now(), 80, true);
+        bouquet.addFlower(shared);
+
+        runClerks(clerk -> {
+            List<Flower> own = new ArrayList<>();
+            for (int i = 0; i < FLOWERS_PER_CLERK; i++) {
+                Flower flower = new Tulip(2.0, 30.0, LocalDate.now(), 90, "red");
+                own.add(flower);
+                bouquet.addFlower(flower);
+            }
+            for (int i = 0; i < own.size(); i += 2) {
+                assertTrue(bouquet.removeFlower(own.get(i)));
+            }
+        });
+
+        assertTrue(bouquet.removeFlower(shared));
+        assertFalse(bouquet.removeFlower(shared));
+        assertEquals(CLERKS * FLOWERS_PER_CLERK / 2, bouquet.getFlowerCount());
+        assertEquals(CLERKS * FLOWERS_PER_CLERK, bouquet.calculateTotalPrice(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should take consistent snapshots while clerks keep adding")
+    void testSnapshotWhileWriting() throws Exception {
+        ConcurrentBouquet bouquet = new ConcurrentBouquet();
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            Future<?> writer = pool.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    bouquet.addFlower(new Rose(1.0, 40.0, LocalDate.now(), i % 101, 5));
+                }
+            });
+            while (!writer.isDone()) {
+                Bouquet snapshot = bouquet.snapshot();
+                assertEquals(snapshot.getFlowerCount(), snapshot.calculateTotalPrice(), 0.001);
+            }
+            writer.get();
+        }
+
+        List<Flower> sorted = bouquet.sortedByFreshness();
+        assertEquals(20_000, sorted.size());
+        for (int i = 1; i < sorted.size(); i++) {
+            assertTrue(sorted.get(i - 1).getFreshnessLevel() >= sorted.get(i).getFreshnessLevel());
+        }
+
+        bouquet.clear();
+        assertEquals(0, bouquet.getFlowerCount());
+        assertEquals(0.0, bouquet.calculateTotalPrice(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should total the same as a Bouquet over the same adds and removes")
+    void testPriceMatchesBouquet() {
+        ConcurrentBouquet concurrent = new ConcurrentBouquet(4);
+        Bouquet plain = new Bouquet();
+        Random random = new Random(7);
+        List<Flower> kept = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            if (kept.isEmpty() || random.nextInt(3) > 0) {
+                Rose rose = new Rose(random.nextInt(1_000) / 100.0, 40.0, LocalDate.now(), 90, 1);
+                concurrent.addFlower(rose);
+                plain.addFlower(rose);
+                kept.add(rose);
+            } else {
+                Flower flower = kept.remove(random.nextInt(kept.size()));
+                assertTrue(concurrent.removeFlower(flower));
+                plain.removeFlower(flower);
+            }
+        }
+        concurrent.addAccessory(Accessory.RIBBON);
+        plain.addAccessory(Accessory.RIBBON);
+
+        assertEquals(plain.calculateTotalPrice(), concurrent.calculateTotalPrice());
+        long cents = Math.round(Accessory.RIBBON.getPrice() * 100);
+        for (Flower flower : kept) cents += Math.round(flower.getPrice() * 100);
+        assertEquals(cents / 100.0, concurrent.calculateTotalPrice(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid arguments")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentBouquet(0));
+        ConcurrentBouquet bouquet = new ConcurrentBouquet(1);
+        assertThrows(NullPointerException.class, () -> bouquet.addFlower(null));
+        assertThrows(NullPointerException.class, () -> bouquet.addAccessory(null));
+    }
+
+    private interface Clerk {
+        void work(int clerk) throws Exception;
+    }
+
+    // Starts all clerks together and rethrows the first failure
+    private static void runClerks(Clerk clerk) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService pool = Executors.newFixedThreadPool(CLERKS)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CLERKS; c++) {
+                int id = c;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    clerk.work(id);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.ideaprojects.bloomstore.service;
+
+import com.ideaprojects.bloomstore.model.*;
+import com.ideaprojects.bloomstore.util.FlowerQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Flower Catalog Tests")
+class FlowerCatalogTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<Flower> table = new ArrayList<>();
+    private FlowerCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        table.add(flower(1, new Rose(3.50, 40.0, LocalDate.now(), 90, 12)));
+        table.add(flower(2, new Tulip(1.50, 30.0, LocalDate.now(), 95, "red")));
+        catalog = new FlowerCatalog(() -> {
+            loads.incrementAndGet();
+            return List.copyOf(table);
+        }, Duration.ofSeconds(10), clock::get);
+    }
+
+    private static Flower flower(int id, Flower flower) {
+        flower.setId(id);
+        return flower;
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from memory")
+    void testCachedReads() throws SQLException {
+        assertEquals(2, catalog.getFlowers().size());
+        assertEquals(2, catalog.getFlowers().size());
+
+        assertEquals(1, loads.get());
+        assertEquals(1, catalog.stats().hits());
+        assertEquals(1, catalog.stats().misses());
+    }
+
+    @Test
+    @DisplayName("Should find flowers by id")
+    void testFindById() throws SQLException {
+        assertEquals(2, catalog.findById(2).orElseThrow().getId());
+        assertTrue(catalog.findById(3).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reload after the TTL")
+    void testTtlExpiry() throws SQLException {
+        catalog.getFlowers();
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        catalog.getFlowers();
+
+        assertEquals(2, loads.get());
+        assertEquals(2, catalog.stats().refreshes());
+    }
+
+    @Test
+    @DisplayName("Should reload after invalidation")
+    void testInvalidate() throws SQLException {
+        catalog.getFlowers();
+        table.add(flower(3, new Lily(2.80, 45.0, LocalDate.now(), 60, true)));
+        catalog.flowersChanged();
+
+        assertEquals(3, catalog.getFlowers().size());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should append added flowers without reloading")
+    void testIncrementalUpdate() throws SQLException {
+        catalog.getFlowers();
+        Flower lily = flower(3, new Lily(2.80, 45.0, LocalDate.now(), 60, true));
+        catalog.flowersAdded(List.of(lily));
+
+        List<Flower> flowers = catalog.getFlowers();
+        assertEquals(3, flowers.size());
+        assertSame(lily, flowers.get(2));
+        assertEquals(1, loads.get());
+        assertEquals(1, catalog.stats().incrementalUpdates());
+    }
+
+    @Test
+    @DisplayName("Should skip added flowers the snapshot already contains")
+    void testIncrementalUpdateDeduplicates() throws SQLException {
+        catalog.getFlowers();
+        catalog.flowersAdded(List.of(table.get(1)));
+
+        assertEquals(2, catalog.getFlowers().size());
+    }
+
+    @Test
+    @DisplayName("Should not allow callers to modify the catalog")
+    void testUnmodifiable() throws SQLException {
+        List<Flower> flowers = catalog.getFlowers();
+        assertThrows(UnsupportedOperationException.class, flowers::clear);
+    }
+
+    @Test
+    @DisplayName("Should load once for many concurrent readers")
+    void testConcurrentReaders() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Flower>>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(catalog::getFlowers));
+            }
+            for (Future<List<Flower>> result : results) {
+                assertEquals(2, result.get().size());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(200, catalog.stats().hits() + catalog.stats().misses());
+    }
+
+    @Test
+    @DisplayName("Should search the catalog by stem length")
+    void testFindByStemLengthRange() throws SQLException {
+        List<Flower> found = catalog.findByStemLengthRange(35.0, 45.0);
+
+        assertEquals(1, found.size());
+        assertInstanceOf(Rose.class, found.get(0));
+    }
+
+    @Test
+    @DisplayName("Should run catalog queries in memory")
+    void testFind() throws SQLException {
+        assertEquals(List.of(2), catalog.find(FlowerQuery.all().color("red")).stream().map(Flower::getId).toList());
+        assertEquals(List.of(1, 2), catalog.find(FlowerQuery.all().minFreshness(90)).stream().map(Flower::getId).toList());
+        assertTrue(catalog.find(FlowerQuery.all().fragrant(true)).isEmpty());
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,143 @@
+package com.ideaprojects.bloomstore.util;
+
+import com.ideaprojects.bloomstore.model.Rose;
+import com.ideaprojects.bloomstore.service.Bouquet;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bouquet Query Tests")
+class BouquetQueryTest {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 10, 1);
+
+    @TempDir
+    Path tempDir;
+
+    private String previousDatabase;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        DatabaseUtil.useDatabase(tempDir.resolve("listing.db").toString());
+        DatabaseUtil.initializeDatabase();
+
+        Bouquet bouquet = new Bouquet();
+        bouquet.addFlower(new Rose(3.50, 40.0, FIRST_DAY, 90, 12));
+        for (int i = 1; i <= 25; i++) {
+            DatabaseStorage.saveBouquet(bouquet, (i % 5 == 0 ? "Wedding_" : "Order ") + i);
+        }
+        // Spread the orders over five days, five a day
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("UPDATE bouquets SET created_date = ? WHERE id = ?")) {
+            for (int id = 1; id <= 25; id++) {
+                pstmt.setString(1, FIRST_DAY.plusDays((id - 1) / 5).toString());
+                pstmt.setInt(2, id);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseUtil.useDatabase(previousDatabase);
+    }
+
+    private static List<Integer> allIds(BouquetQuery query, int pageSize) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        BouquetPage page = DatabaseStorage.listBouquets(query, null, pageSize);
+        while (true) {
+            assertTrue(page.bouquets().size() <= pageSize);
+            page.bouquets().forEach(summary -> ids.add(summary.id()));
+            if (!page.hasNext()) return ids;
+            page = DatabaseStorage.listBouquets(query, page.next(), pageSize);
+        }
+    }
+
+    @Test
+    @DisplayName("Should page through every bouquet newest first")
+    void testPaging() throws SQLException {
+        BouquetPage first = DatabaseStorage.listBouquets(BouquetQuery.all(), null, 10);
+        assertEquals(10, first.bouquets().size());
+        assertEquals(new BouquetSummary(25, "Wedding_25", FIRST_DAY.plusDays(4), 3.5, 1, 0, 90.0),
+                first.bouquets().get(0));
+        assertEquals(new BouquetPage.Cursor(FIRST_DAY.plusDays(3), 16), first.next());
+
+        List<Integer> ids = allIds(BouquetQuery.all(), 10);
+        assertEquals(25, ids.size());
+        for (int i = 0; i < ids.size(); i++) assertEquals(25 - i, ids.get(i));
+
+        // A page that ends exactly on the last row has no next page
+        assertFalse(DatabaseStorage.listBouquets(BouquetQuery.all(), null, 25).hasNext());
+    }
+
+    @Test
+    @DisplayName("Should keep pages stable while new bouquets are saved")
+    void testStableCursor() throws SQLException {
+        BouquetPage first = DatabaseStorage.listBouquets(BouquetQuery.all(), null, 5);
+        DatabaseStorage.saveBouquet(new Bouquet(), "Late order");
+
+        BouquetPage second = DatabaseStorage.listBouquets(BouquetQuery.all(), first.next(), 5);
+        assertEquals(List.of(20, 19, 18, 17, 16), second.bouquets().stream().map(BouquetSummary::id).toList());
+        assertEquals(second.next(), BouquetPage.Cursor.fromToken(second.next().token()));
+    }
+
+    @Test
+    @DisplayName("Should filter by created date and name")
+    void testFilters() throws SQLException {
+        assertEquals(List.of(15, 14, 13, 12, 11, 10, 9, 8, 7, 6),
+                allIds(BouquetQuery.all().createdBetween(FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(2)), 3));
+        assertEquals(List.of(25, 20, 15, 10, 5), allIds(BouquetQuery.all().nameContains("wedding_"), 2));
+        // LIKE wildcards in the filter are matched literally
+        assertEquals(List.of(), allIds(BouquetQuery.all().nameContains("Order_"), 2));
+        assertEquals(List.of(10), allIds(BouquetQuery.all().nameContains("Wedding")
+                .createdBetween(FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(1)), 2));
+    }
+
+    @Test
+    @DisplayName("Should read each page from the created date index")
+    void testQueryPlan() throws SQLException {
+        String sql = DatabaseStorage.listBouquetsSql(BouquetQuery.all().createdBetween(FIRST_DAY, FIRST_DAY),
+                new BouquetPage.Cursor(FIRST_DAY, 3));
+        List<String> plan = new ArrayList<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) plan.add(rs.getString("detail"));
+        }
+        assertTrue(plan.stream().anyMatch(line -> line.contains("idx_bouquets_created_date")), plan.toString());
+        assertTrue(plan.stream().noneMatch(line -> line.contains("TEMP B-TREE")), plan.toString());
+    }
+
+    @Test
+    @DisplayName("Should sum daily revenue from the stored totals")
+    void testDailyRevenue() throws SQLException {
+        List<DailyRevenue> days = DatabaseStorage.dailyRevenue(FIRST_DAY.plusDays(3), FIRST_DAY.plusDays(10));
+
+        assertEquals(2, days.size());
+        assertEquals(new DailyRevenue(FIRST_DAY.plusDays(3), 5, 5, 17.5), days.get(0));
+        assertEquals(FIRST_DAY.plusDays(4), days.get(1).date());
+        assertTrue(DatabaseStorage.dailyRevenue(FIRST_DAY.minusDays(5), FIRST_DAY.minusDays(1)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject bad page sizes, ranges and tokens")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> DatabaseStorage.listBouquets(BouquetQuery.all(), null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> DatabaseStorage.listBouquets(BouquetQuery.all(), null, DatabaseStorage.MAX_PAGE_SIZE + 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> BouquetQuery.all().createdBetween(FIRST_DAY, FIRST_DAY.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> BouquetPage.Cursor.fromToken("yesterday.3"));
+        assertThrows(IllegalArgumentException.class, () -> BouquetPage.Cursor.fromToken("2025-10-01"));
+    }
+}
@@ -0,0 +1,177 @@
+package com.ideaprojects.bloomstore.util;
+
+import com.ideaprojects.bloomstore.model.*;
+import com.ideaprojects.bloomstore.service.Bouquet;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bouquet Write Queue Tests")
+class BouquetWriteQueueTest {
+    @TempDir
+    Path tempDir;
+
+    private String previousDatabase;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        DatabaseUtil.useDatabase(tempDir.resolve("writes.db").toString());
+        DatabaseUtil.initializeDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseUtil.useDatabase(previousDatabase);
+    }
+
+    private static Bouquet bouquet(int flowers) {
+        Bouquet bouquet = new Bouquet();
+        for (int i = 0; i < flowers; i++) {
+            bouquet.addFlower(new Rose(2.0 + i, 40.0, LocalDate.now(), 90, i));
+        }
+        bouquet.addAccessory(Accessory.CARD);
+        return bouquet;
+    }
+
+    @Test
+    @DisplayName("Should group concurrent saves into shared transactions")
+    void testGroupCommit() throws Exception {
+        List<CompletableFuture<Integer>> ids = new ArrayList<>();
+        try (BouquetWriteQueue queue = new BouquetWriteQueue(1_000, 100, Duration.ofMillis(50));
+             ExecutorService clerks = Executors.newFixedThreadPool(8)) {
+            List<Future<CompletableFuture<Integer>>> submitted = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                int n = i;
+                submitted.add(clerks.submit(() -> queue.submit(bouquet(1 + n % 3), "Order " + n)));
+            }
+            for (Future<CompletableFuture<Integer>> f : submitted) ids.add(f.get());
+            CompletableFuture.allOf(ids.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+
+            assertEquals(400, queue.getCommittedBouquets());
+            assertTrue(queue.getCommittedBatches() < 400, "batches: " + queue.getCommittedBatches());
+        }
+
+        Set<Integer> distinct = new HashSet<>();
+        for (CompletableFuture<Integer> id : ids) distinct.add(id.join());
+        assertEquals(400, distinct.size());
+
+        Bouquet loaded = DatabaseStorage.loadBouquet(ids.get(4).join());
+        assertEquals(2, loaded.getFlowerCount());
+        assertEquals(2.0 + 3.0 + Accessory.CARD.getPrice(), loaded.calculateTotalPrice(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should capture the bouquet at submit time")
+    void testSubmitCopiesBouquet() throws Exception {
+        Bouquet bouquet = bouquet(2);
+        CompletableFuture<Integer> id;
+        try (BouquetWriteQueue queue = new BouquetWriteQueue(10, 10, Duration.ofMillis(20))) {
+            id = queue.submit(bouquet, "Snapshot");
+            bouquet.clear();
+        }
+        assertEquals(2, DatabaseStorage.loadBouquet(id.get()).getFlowerCount());
+    }
+
+    @Test
+    @DisplayName("Should flush and commit queued bouquets on close")
+    void testFlushAndClose() throws Exception {
+        BouquetWriteQueue queue = new BouquetWriteQueue(1_000, 1_000, Duration.ofSeconds(30));
+        CompletableFuture<Integer> first = queue.submit(bouquet(1), "First");
+        queue.flush().get(10, TimeUnit.SECONDS);
+        assertTrue(first.isDone());
+
+        List<CompletableFuture<Integer>> pending = new ArrayList<>();
+        for (int i = 0; i < 50; i++) pending.add(queue.submit(bouquet(1), "Pending " + i));
+        queue.close();
+
+        for (CompletableFuture<Integer> id : pending) assertTrue(id.isDone() && !id.isCompletedExceptionally());
+        assertEquals(51, DatabaseStorage.getSavedBouquets().size());
+        assertThrows(IllegalStateException.class, () -> queue.submit(bouquet(1), "Late"));
+    }
+
+    @Test
+    @DisplayName("Should store each good bouquet once when a bad one shares its group")
+    void testBadBouquetInGroup() throws Exception {
+        Bouquet bad = new Bouquet();
+        bad.addFlower(new Tulip(1.5, 30.0, null, 95, "red"));
+        List<CompletableFuture<Integer>> good = new ArrayList<>();
+        CompletableFuture<Integer> failed;
+        // The fourth bouquet fills the batch, so all four go to the writer as one group
+        try (BouquetWriteQueue queue = new BouquetWriteQueue(10, 4, Duration.ofSeconds(30))) {
+            good.add(queue.submit(bouquet(1), "Good 0"));
+            good.add(queue.submit(bouquet(2), "Good 1"));
+            failed = queue.submit(bad, "Bad");
+            good.add(queue.submit(bouquet(1), "Good 2"));
+            queue.flush().get(10, TimeUnit.SECONDS);
+
+            assertEquals(3, queue.getCommittedBouquets());
+            assertEquals(1, queue.getFailedBouquets());
+        }
+
+        assertTrue(failed.isCompletedExceptionally());
+        for (CompletableFuture<Integer> id : good) assertNotNull(id.join());
+        assertEquals(3, count("bouquets"));
+        assertEquals(4, count("bouquet_flowers"));
+        assertEquals(3, count("bouquet_accessories"));
+    }
+
+    private static int count(String table) throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DatabaseUtil.getDatabasePath());
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should push back when the writer falls behind")
+    void testBackpressure() throws Exception {
+        try (BouquetWriteQueue queue = new BouquetWriteQueue(1, 1, Duration.ZERO)) {
+            CompletableFuture<Integer> blocked;
+            CompletableFuture<Integer> queued;
+            // Another connection holds the write lock, so the writer waits inside its commit
+            try (Connection locker = DriverManager.getConnection("jdbc:sqlite:" + DatabaseUtil.getDatabasePath());
+                 Statement stmt = locker.createStatement()) {
+                stmt.execute("BEGIN IMMEDIATE");
+                blocked = queue.submit(bouquet(1), "Blocked");
+                while (queue.getQueuedCount() > 0) Thread.sleep(5);
+                queued = queue.submit(bouquet(1), "Queued");
+
+                assertThrows(RejectedExecutionException.class,
+                        () -> queue.submit(bouquet(1), "Rejected", Duration.ofMillis(50)));
+                stmt.execute("ROLLBACK");
+            }
+            assertNotNull(blocked.get(10, TimeUnit.SECONDS));
+            assertNotNull(queued.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject invalid settings")
+    void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new BouquetWriteQueue(0, 1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new BouquetWriteQueue(1, 0, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new BouquetWriteQueue(1, 1, Duration.ofMillis(-1)));
+    }
+}
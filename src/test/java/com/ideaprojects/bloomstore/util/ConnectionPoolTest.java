@@ -0,0 +1,113 @@
+package com.ideaprojects.bloomstore.util;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Connection Pool Tests")
+class ConnectionPoolTest {
+    @TempDir
+    Path tempDir;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        String url = "jdbc:sqlite:" + tempDir.resolve("pool-test.db");
+        pool = new ConnectionPool(url, 2, 200, 30_000, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Should reuse the physical connection after close")
+    void testConnectionReuse() throws SQLException {
+        try (Connection conn = pool.borrow()) {
+            assertFalse(conn.isClosed());
+        }
+        try (Connection conn = pool.borrow()) {
+            assertFalse(conn.isClosed());
+        }
+
+        PoolMetrics metrics = pool.metrics();
+        assertEquals(1, metrics.connectionsCreated());
+        assertEquals(2, metrics.acquisitions());
+        assertEquals(0, metrics.activeCount());
+        assertEquals(1, metrics.idleCount());
+    }
+
+    @Test
+    @DisplayName("Should report active connections")
+    void testActiveCount() throws SQLException {
+        try (Connection first = pool.borrow(); Connection second = pool.borrow()) {
+            assertNotSame(first, second);
+            assertEquals(2, pool.metrics().activeCount());
+            assertEquals(0, pool.metrics().idleCount());
+        }
+        assertEquals(0, pool.metrics().activeCount());
+        assertEquals(2, pool.metrics().idleCount());
+    }
+
+    @Test
+    @DisplayName("Should time out when the pool is exhausted")
+    void testBoundedSize() throws SQLException {
+        try (Connection first = pool.borrow(); Connection second = pool.borrow()) {
+            assertFalse(first.isClosed() || second.isClosed());
+            assertThrows(SQLException.class, () -> pool.borrow());
+        }
+        assertEquals(1, pool.metrics().timeouts());
+    }
+
+    @Test
+    @DisplayName("Should reject use of a returned connection")
+    void testReturnedConnectionIsUnusable() throws SQLException {
+        Connection conn = pool.borrow();
+        conn.close();
+
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, conn::createStatement);
+        assertDoesNotThrow(conn::close);
+    }
+
+    @Test
+    @DisplayName("Should roll back an unfinished transaction on return")
+    void testResetOnReturn() throws SQLException {
+        try (Connection conn = pool.borrow(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE items (id INTEGER)");
+        }
+        try (Connection conn = pool.borrow(); Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            stmt.execute("INSERT INTO items VALUES (1)");
+        }
+        try (Connection conn = pool.borrow(); Statement stmt = conn.createStatement()) {
+            assertTrue(conn.getAutoCommit());
+            var rs = stmt.executeQuery("SELECT COUNT(*) FROM items");
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Should detect connections held past the leak threshold")
+    void testLeakDetection() throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("leak-test.db");
+        try (ConnectionPool leaky = new ConnectionPool(url, 1, 200, 30_000, 50)) {
+            Connection conn = leaky.borrow();
+            long deadline = System.currentTimeMillis() + 2_000;
+            while (leaky.metrics().leaksDetected() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(1, leaky.metrics().leaksDetected());
+            conn.close();
+        }
+    }
+}
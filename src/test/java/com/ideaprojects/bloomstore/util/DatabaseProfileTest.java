@@ -0,0 +1,55 @@
+package com.ideaprojects.bloomstore.util;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Database Profile Tests")
+class DatabaseProfileTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should resolve profile names case-insensitively")
+    void testFromName() {
+        assertEquals(DatabaseProfile.DURABLE, DatabaseProfile.fromName("durable"));
+        assertEquals(DatabaseProfile.THROUGHPUT, DatabaseProfile.fromName(" Throughput "));
+        assertThrows(IllegalArgumentException.class, () -> DatabaseProfile.fromName("fastest"));
+    }
+
+    @Test
+    @DisplayName("Should read the default profile from the config file")
+    void testConfiguredProfile() {
+        assertEquals(DatabaseProfile.BALANCED, DatabaseConfig.getProfile());
+    }
+
+    @Test
+    @DisplayName("Should apply profile PRAGMAs to pooled connections")
+    void testPragmasApplied() throws SQLException {
+        String url = "jdbc:sqlite:" + tempDir.resolve("profile.db");
+        try (ConnectionPool pool = new ConnectionPool(url, 1, 1_000, 30_000, 0,
+                DatabaseProfile.THROUGHPUT.pragmas());
+             Connection conn = pool.borrow();
+             Statement stmt = conn.createStatement()) {
+
+            assertEquals("wal", pragma(stmt, "journal_mode"));
+            assertEquals("0", pragma(stmt, "synchronous"));
+            assertEquals("2", pragma(stmt, "temp_store"));
+            assertEquals("10000", pragma(stmt, "busy_timeout"));
+        }
+    }
+
+    private static String pragma(Statement stmt, String name) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA " + name)) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+}
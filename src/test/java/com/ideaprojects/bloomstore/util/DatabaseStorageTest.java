@@ -6,7 +6,10 @@ import org.junit.jupiter.api.*;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -157,4 +160,132 @@ class DatabaseStorageTest {
         assertEquals(90, loadedRose.getFreshnessLevel());
         assertEquals(12, loadedRose.getThornCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(9)
+    @DisplayName("Should save many bouquets in one call")
+    void testSaveBouquets() throws SQLException {
+        Map<String, Bouquet> bouquets = new LinkedHashMap<>();
+        for (int i = 0; i < 5; i++) {
+            Bouquet bouquet = new Bouquet();
+            for (int j = 0; j <= i; j++) {
+                bouquet.addFlower(new Tulip(1.50 + j, 30.0, LocalDate.now(), 95, "red"));
+            }
+            bouquet.addAccessory(Accessory.RIBBON);
+            bouquets.put("Batch " + i, bouquet);
+        }
+
+        // Batch size smaller than the row count forces several executeBatch calls
+        Map<String, Integer> ids = DatabaseStorage.saveBouquets(bouquets, 2);
+
+        assertEquals(5, ids.size());
+        for (int i = 0; i < 5; i++) {
+            Bouquet loaded = DatabaseStorage.loadBouquet(ids.get("Batch " + i));
+            assertEquals(i + 1, loaded.getFlowers().size());
+            assertEquals(1, loaded.getAccessories().size());
+        }
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Should reject non-positive batch size")
+    void testInvalidBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> DatabaseStorage.setBatchSize(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> DatabaseStorage.saveBouquets(Map.of("x", new Bouquet()), -1));
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Should load many bouquets at once")
+    void testLoadBouquets() throws SQLException {
+        Bouquet first = new Bouquet();
+        first.addFlower(new Rose(3.50, 40.0, LocalDate.now(), 90, 12));
+        first.addAccessory(Accessory.CARD);
+
+        Bouquet second = new Bouquet();
+        second.addFlower(new Tulip(1.50, 30.0, LocalDate.now(), 95, "red"));
+        second.addFlower(new Lily(2.80, 45.0, LocalDate.now(), 60, true));
+
+        int firstId = DatabaseStorage.saveBouquet(first, "Dispatch 1");
+        int secondId = DatabaseStorage.saveBouquet(second, "Dispatch 2");
+        int missingId = Integer.MAX_VALUE;
+
+        Map<Integer, Bouquet> loaded = DatabaseStorage.loadBouquets(List.of(secondId, firstId, missingId));
+
+        assertEquals(List.of(secondId, firstId, missingId), List.copyOf(loaded.keySet()));
+        assertEquals(1, loaded.get(firstId).getFlowers().size());
+        assertEquals(List.of(Accessory.CARD), loaded.get(firstId).getAccessories());
+        assertEquals(2, loaded.get(secondId).getFlowers().size());
+        assertTrue(loaded.get(secondId).getAccessories().isEmpty());
+        assertTrue(loaded.get(missingId).getFlowers().isEmpty());
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Should stream flowers matching a query")
+    void testStreamFlowers() throws SQLException {
+        try (Stream<Flower> roses = DatabaseStorage.streamFlowers(FlowerQuery.all().type(Rose.class), 2)) {
+            assertEquals(3, roses.count());
+        }
+
+        FlowerQuery fresh = FlowerQuery.all().minFreshness(85).priceBetween(1.0, 4.0);
+        try (Stream<Flower> flowers = DatabaseStorage.streamFlowers(fresh)) {
+            List<Flower> result = flowers.toList();
+            assertFalse(result.isEmpty());
+            assertTrue(result.stream().allMatch(fresh::matches));
+        }
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Should return the connection when a stream is closed early")
+    void testStreamReleasesConnection() throws SQLException {
+        int activeBefore = DatabaseUtil.getPoolMetrics().activeCount();
+
+        try (Stream<Flower> flowers = DatabaseStorage.streamFlowers(FlowerQuery.all())) {
+            assertTrue(flowers.findFirst().isPresent());
+            assertEquals(activeBefore + 1, DatabaseUtil.getPoolMetrics().activeCount());
+        }
+
+        assertEquals(activeBefore, DatabaseUtil.getPoolMetrics().activeCount());
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Should store bouquet totals with the bouquet row")
+    void testBouquetSummary() throws SQLException {
+        Bouquet bouquet = new Bouquet();
+        bouquet.addFlower(new Rose(3.50, 40.0, LocalDate.now(), 90, 12));
+        bouquet.addFlower(new Lily(2.80, 45.0, LocalDate.now(), 60, true));
+        bouquet.addAccessory(Accessory.RIBBON);
+        bouquet.addAccessory(Accessory.CARD);
+        int id = DatabaseStorage.saveBouquet(bouquet, "Totals");
+
+        BouquetSummary summary = DatabaseStorage.getBouquetSummary(id).orElseThrow();
+        assertEquals("Totals", summary.name());
+        assertEquals(bouquet.calculateTotalPrice(), summary.totalPrice(), 1e-9);
+        assertEquals(2, summary.flowerCount());
+        assertEquals(2, summary.accessoryCount());
+        assertEquals(75.0, summary.averageFreshness(), 1e-9);
+        assertTrue(DatabaseStorage.getBouquetSummary(Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Should roll back the whole save when a bouquet fails part-way")
+    void testSaveBouquetsRollsBack() throws SQLException {
+        int savedBefore = DatabaseStorage.getSavedBouquets().size();
+        Bouquet good = new Bouquet();
+        good.addFlower(new Rose(3.50, 40.0, LocalDate.now(), 90, 12));
+        // No cut date: binding the flower row throws after the good bouquet is written
+        Bouquet bad = new Bouquet();
+        bad.addFlower(new Tulip(1.50, 30.0, null, 95, "red"));
+        Map<String, Bouquet> bouquets = new LinkedHashMap<>();
+        bouquets.put("Good", good);
+        bouquets.put("Bad", bad);
+
+        assertThrows(NullPointerException.class, () -> DatabaseStorage.saveBouquets(bouquets, 1));
+        assertEquals(savedBefore, DatabaseStorage.getSavedBouquets().size());
+    }
+}
@@ -0,0 +1,134 @@
+package com.ideaprojects.bloomstore.util;
+
+import com.ideaprojects.bloomstore.model.*;
+import com.ideaprojects.bloomstore.service.FlowerCatalog;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Flower Importer Tests")
+class FlowerImporterTest {
+    @TempDir
+    Path tempDir;
+
+    private String previousDatabase;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        DatabaseUtil.useDatabase(tempDir.resolve("import.db").toString());
+        DatabaseUtil.initializeDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseUtil.useDatabase(previousDatabase);
+    }
+
+    @Test
+    @DisplayName("Should import CSV rows and report bad ones by line")
+    void testCsv() throws Exception {
+        String csv = """
+                type,price,stem_length_cm,cut_date,freshness_level,thorn_count,color,fragrant,stock
+                Rose,3.50,40,2025-10-01,90,12,,,20
+                tulip,1.5,30,2025-10-02,95,,"dark, red",,5
+
+                Lily,2.80,45,2025-10-03,60,,,yes,
+                Orchid,9,30,2025-10-03,60,,,,
+                Rose,abc,40,2025-10-01,90,1,,,
+                Rose,3,40,2025-13-01,90,1,,,
+                Rose,3,40,2025-10-01,,1,,,
+                """;
+        FlowerImporter.Report report = new FlowerImporter(2, 2, 2).importFrom(new StringReader(csv),
+                FlowerImporter.Format.CSV);
+
+        assertEquals(3, report.imported());
+        assertEquals(4, report.rejected());
+        assertEquals(List.of(6L, 7L, 8L, 9L), report.errors().stream().map(FlowerImporter.RowError::row).toList());
+        assertEquals("unknown flower type: Orchid", report.errors().get(0).message());
+        assertEquals("freshness_level is required", report.errors().get(3).message());
+
+        List<Flower> flowers = DatabaseStorage.loadAllFlowers();
+        assertEquals(3, flowers.size());
+        assertEquals(12, ((Rose) flowers.get(0)).getThornCount());
+        assertEquals("dark, red", ((Tulip) flowers.get(1)).getColor());
+        assertTrue(((Lily) flowers.get(2)).isFragrant());
+        assertEquals(LocalDate.of(2025, 10, 3), flowers.get(2).getCutDate());
+        assertEquals(20, new ReservationService().getStock(flowers.get(0).getId()));
+    }
+
+    @Test
+    @DisplayName("Should import a JSON array and JSON lines")
+    void testJson() throws Exception {
+        Path array = tempDir.resolve("manifest.json");
+        Files.writeString(array, """
+                [
+                  {"type": "Rose", "price": 4, "stemLengthCm": 50.5, "cutDate": "2025-10-01", "freshness": 75, "thornCount": 8},
+                  {"type": "Tulip", "price": 1.7, "stemLengthCm": 35, "cutDate": "2025-10-02", "freshness": 85, "color": "y[e]llow}"},
+                  {"type": "Lily", "price": -1, "stemLengthCm": 45, "cutDate": "2025-10-03", "freshness": 60},
+                  {"type": "Lily", "price": 3.2, "stemLengthCm": 42, "cutDate": "2025-10-03", "freshness": 80, "fragrant": false, "stock": 7}
+                ]
+                """);
+        FlowerImporter.Report report = new FlowerImporter(3, 100, 2).importFile(array);
+        assertEquals(3, report.imported());
+        assertEquals(List.of(new FlowerImporter.RowError(3, "price must not be negative")), report.errors());
+        assertEquals("y[e]llow}", ((Tulip) DatabaseStorage.loadAllFlowers().get(1)).getColor());
+
+        Path lines = tempDir.resolve("manifest.jsonl");
+        Files.writeString(lines, """
+                {"type": "Rose", "price": 4, "stemLengthCm": 50, "cutDate": "2025-10-01", "freshness": 75}
+                {"type": "Rose", "price": 4,
+                """);
+        FlowerImporter.Report second = new FlowerImporter().importFile(lines);
+        assertEquals(1, second.imported());
+        assertEquals(2, second.errors().get(0).row());
+        assertEquals(4, DatabaseStorage.loadAllFlowers().size());
+
+        // A hostile row is reported like any other bad row
+        Path deep = tempDir.resolve("deep.jsonl");
+        Files.writeString(deep, "{\"type\": \"Rose\", \"x\": " + "[".repeat(100_000) + "\n"
+                + "{\"type\": \"Rose\", \"price\": 4, \"stemLengthCm\": 50, \"cutDate\": \"2025-10-01\", \"freshness\": 75}\n");
+        FlowerImporter.Report third = new FlowerImporter().importFile(deep);
+        assertEquals(1, third.imported());
+        assertEquals(1, third.errors().get(0).row());
+    }
+
+    @Test
+    @DisplayName("Should import many rows across chunks and refresh the catalog")
+    void testManyRows() throws Exception {
+        StringBuilder csv = new StringBuilder("type,price,stem_length_cm,cut_date,freshness_level,color\n");
+        for (int i = 0; i < 20_000; i++) {
+            csv.append("Tulip,").append(1 + i % 5).append(",30,2025-10-01,").append(i % 101).append(",red\n");
+        }
+        try (FlowerCatalog catalog = FlowerCatalog.forDatabase(Duration.ofHours(1))) {
+            assertEquals(0, catalog.getFlowers().size());
+            long revision = DatabaseStorage.getCatalogRevision();
+            FlowerImporter.Report report = new FlowerImporter(1_000, 7_000, 4)
+                    .importFrom(new StringReader(csv.toString()), FlowerImporter.Format.CSV);
+            assertEquals(20_000, report.imported());
+            // Once per read of the revision, however many rows and transactions
+            assertEquals(revision + 1, DatabaseStorage.getCatalogRevision());
+            assertEquals(20_000, catalog.getFlowers().size());
+            assertEquals(100, catalog.getFlowers().get(100).getFreshnessLevel());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject manifests it cannot read")
+    void testInvalidManifest() {
+        FlowerImporter importer = new FlowerImporter();
+        assertThrows(IllegalArgumentException.class,
+                () -> importer.importFrom(new StringReader("type,price\n"), FlowerImporter.Format.CSV));
+        assertThrows(IllegalArgumentException.class, () -> importer.importFile(tempDir.resolve("manifest.xml")));
+        assertThrows(IllegalArgumentException.class, () -> new FlowerImporter(0, 1, 1));
+    }
+}
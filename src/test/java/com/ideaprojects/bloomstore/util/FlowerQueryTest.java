@@ -0,0 +1,140 @@
+package com.ideaprojects.bloomstore.util;
+
+import com.ideaprojects.bloomstore.model.*;
+import com.ideaprojects.bloomstore.service.FlowerCatalog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Flower Query Tests")
+class FlowerQueryTest {
+    @TempDir
+    Path tempDir;
+
+    private String previousDatabase;
+
+    @AfterEach
+    void tearDown() {
+        if (previousDatabase != null) DatabaseUtil.useDatabase(previousDatabase);
+    }
+
+    private void useTempDatabase() throws SQLException {
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        DatabaseUtil.useDatabase(tempDir.resolve("query.db").toString());
+        DatabaseUtil.initializeDatabase();
+        DatabaseStorage.initializeSampleFlowers();
+    }
+
+    @Test
+    @DisplayName("Should produce no WHERE clause without predicates")
+    void testEmptyQuery() {
+        FlowerQuery query = FlowerQuery.all();
+
+        assertEquals("", query.whereClause());
+        assertTrue(query.matches(new Rose(3.50, 40.0, LocalDate.now(), 90, 12)));
+    }
+
+    @Test
+    @DisplayName("Should combine predicates into one WHERE clause")
+    void testWhereClause() {
+        FlowerQuery query = FlowerQuery.all().type(Tulip.class).priceBetween(1.0, 2.0).minFreshness(80);
+
+        assertEquals(" WHERE type = ? AND price BETWEEN ? AND ? AND freshness_level >= ?", query.whereClause());
+        assertEquals(" WHERE cut_date BETWEEN ? AND ? AND color = ? AND fragrant = ?", FlowerQuery.all()
+                .cutBetween(LocalDate.now(), LocalDate.now()).color("red").fragrant(true).whereClause());
+    }
+
+    @Test
+    @DisplayName("Should match flowers in memory")
+    void testMatches() {
+        FlowerQuery query = FlowerQuery.all().type("Tulip").stemLengthBetween(25.0, 35.0).minFreshness(80);
+
+        assertTrue(query.matches(new Tulip(1.50, 30.0, LocalDate.now(), 95, "red")));
+        assertFalse(query.matches(new Tulip(1.50, 40.0, LocalDate.now(), 95, "red")));
+        assertFalse(query.matches(new Tulip(1.50, 30.0, LocalDate.now(), 70, "red")));
+        assertFalse(query.matches(new Lily(1.50, 30.0, LocalDate.now(), 95, true)));
+    }
+
+    @Test
+    @DisplayName("Should match cut date, color and fragrance in memory")
+    void testMatchesAttributes() {
+        LocalDate today = LocalDate.now();
+        FlowerQuery recent = FlowerQuery.all().cutBetween(today.minusDays(2), today.minusDays(1));
+        assertTrue(recent.matches(new Rose(3.50, 40.0, today.minusDays(2), 90, 12)));
+        assertFalse(recent.matches(new Rose(3.50, 40.0, today, 90, 12)));
+
+        FlowerQuery red = FlowerQuery.all().color("red");
+        assertTrue(red.matches(new Tulip(1.50, 30.0, today, 95, "red")));
+        assertFalse(red.matches(new Tulip(1.50, 30.0, today, 95, "pink")));
+        assertFalse(red.matches(new Rose(3.50, 40.0, today, 90, 12)));
+
+        FlowerQuery scentless = FlowerQuery.all().fragrant(false);
+        assertTrue(scentless.matches(new Lily(2.80, 45.0, today, 60, false)));
+        assertFalse(scentless.matches(new Lily(2.80, 45.0, today, 60, true)));
+        assertFalse(scentless.matches(new Tulip(1.50, 30.0, today, 95, "red")));
+    }
+
+    @Test
+    @DisplayName("Should reject inverted ranges")
+    void testInvalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> FlowerQuery.all().priceBetween(5.0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> FlowerQuery.all().stemLengthBetween(50.0, 10.0));
+        assertThrows(IllegalArgumentException.class,
+                () -> FlowerQuery.all().cutBetween(LocalDate.now(), LocalDate.now().minusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Should answer each query shape from an index")
+    void testQueryPlans() throws SQLException {
+        useTempDatabase();
+        LocalDate today = LocalDate.now();
+
+        assertUsesIndex("idx_flowers_type_price", FlowerQuery.all().type(Rose.class).priceBetween(3.0, 4.5));
+        assertUsesIndex("idx_flowers_type_price", FlowerQuery.all().type(Lily.class).minFreshness(70));
+        assertUsesIndex("idx_flowers_cut_date", FlowerQuery.all().cutBetween(today.minusDays(1), today));
+        assertUsesIndex("idx_flowers_color", FlowerQuery.all().color("red"));
+        assertUsesIndex("idx_flowers_fragrant", FlowerQuery.all().fragrant(true).minFreshness(70));
+    }
+
+    private static void assertUsesIndex(String index, FlowerQuery query) throws SQLException {
+        List<String> plan = DatabaseStorage.explainFlowerQuery(query);
+        assertTrue(plan.stream().anyMatch(line -> line.contains("USING INDEX " + index)
+                        || line.contains("USING COVERING INDEX " + index)),
+                query.whereClause() + " -> " + plan);
+    }
+
+    @Test
+    @DisplayName("Should give the same flowers from SQLite and from memory")
+    void testPushdownMatchesMemory() throws SQLException {
+        useTempDatabase();
+        LocalDate today = LocalDate.now();
+        List<FlowerQuery> queries = List.of(
+                FlowerQuery.all().type(Rose.class).priceBetween(3.0, 4.5),
+                FlowerQuery.all().cutBetween(today.minusDays(2), today.minusDays(1)),
+                FlowerQuery.all().color("yellow"),
+                FlowerQuery.all().fragrant(true),
+                FlowerQuery.all().minFreshness(85).stemLengthBetween(25.0, 40.0));
+
+        try (FlowerCatalog catalog = FlowerCatalog.forDatabase(Duration.ofHours(1))) {
+            for (FlowerQuery query : queries) {
+                // The first find goes to SQLite, the second to the snapshot getFlowers loaded
+                List<Integer> pushedDown = catalog.find(query).stream().map(Flower::getId).toList();
+                catalog.getFlowers();
+                List<Integer> inMemory = catalog.find(query).stream().map(Flower::getId).toList();
+                catalog.invalidate();
+
+                assertFalse(pushedDown.isEmpty(), query.whereClause());
+                assertEquals(pushedDown, inMemory, query.whereClause());
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.ideaprojects.bloomstore.util;
+
+import com.ideaprojects.bloomstore.model.Flower;
+import com.ideaprojects.bloomstore.service.FlowerCatalog;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Freshness Decay Tests")
+class FreshnessDecayTest {
+    @TempDir
+    Path tempDir;
+
+    private String previousDatabase;
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        DatabaseUtil.useDatabase(tempDir.resolve("decay.db").toString());
+        DatabaseUtil.initializeDatabase();
+        DatabaseStorage.initializeSampleFlowers();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseUtil.useDatabase(previousDatabase);
+    }
+
+    // Reads through the store so each read re-arms the triggers
+    private static long revision() throws SQLException {
+        return DatabaseStorage.getCatalogRevision();
+    }
+
+    @Test
+    @DisplayName("Should follow the per-type curves")
+    void testCurves() {
+        assertEquals(90, FreshnessDecay.freshnessAt("Rose", 90, 2));
+        assertEquals(82, FreshnessDecay.freshnessAt("Rose", 90, 3));
+        assertEquals(80, FreshnessDecay.freshnessAt("Tulip", 90, 2));
+        assertEquals(84, FreshnessDecay.freshnessAt("Lily", 90, 4));
+        assertEquals(0, FreshnessDecay.freshnessAt("Tulip", 90, 30));
+        assertEquals(100, FreshnessDecay.freshnessAt("Rose", 130, 0));
+        assertEquals(106.0, FreshnessDecay.initialFreshness("Tulip", 96, 2), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should decay the table as the Java curves do")
+    void testRunMatchesCurves() throws SQLException {
+        List<Flower> before = DatabaseStorage.loadAllFlowers();
+        LocalDate later = today.plusDays(4);
+        long revision = revision();
+
+        FreshnessDecay.Result result = new FreshnessDecay(3).run(later);
+        assertEquals(8, result.visited());
+        assertEquals(3, result.chunks());
+
+        List<Flower> after = DatabaseStorage.loadAllFlowers();
+        int changed = 0;
+        for (int i = 0; i < before.size(); i++) {
+            Flower flower = before.get(i);
+            String type = flower.getClass().getSimpleName();
+            double initial = FreshnessDecay.initialFreshness(type, flower.getFreshnessLevel(),
+                    ChronoUnit.DAYS.between(flower.getCutDate(), today));
+            int expected = FreshnessDecay.freshnessAt(type, initial,
+                    ChronoUnit.DAYS.between(flower.getCutDate(), later));
+            assertEquals(expected, after.get(i).getFreshnessLevel(), type + " " + flower.getId());
+            if (expected != flower.getFreshnessLevel()) changed++;
+        }
+        assertEquals(changed, result.changed());
+        assertTrue(changed > 0);
+        // One revision for the whole run however many rows and chunks it changed
+        assertEquals(revision + 1, revision());
+    }
+
+    @Test
+    @DisplayName("Should only touch rows whose day moved on")
+    void testIncremental() throws SQLException {
+        FreshnessDecay decay = new FreshnessDecay();
+        assertEquals(0, decay.run(today).visited());
+
+        assertEquals(8, decay.run(today.plusDays(1)).visited());
+        long revision = revision();
+        FreshnessDecay.Result again = decay.run(today.plusDays(1));
+        assertEquals(0, again.visited());
+        assertEquals(0, again.chunks());
+        assertEquals(revision, revision());
+
+        decay.run(today.plusDays(100));
+        assertTrue(DatabaseStorage.loadAllFlowers().stream().allMatch(f -> f.getFreshnessLevel() == 0));
+    }
+
+    @Test
+    @DisplayName("Should seed rows written without anchors from their stored freshness")
+    void testSeedsUnanchoredRows() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO flowers (type, name, price, stem_length_cm, cut_date, freshness_level) "
+                    + "VALUES ('Tulip', 'Tulip', 1.0, 30.0, '" + today.minusDays(3) + "', 70)");
+        }
+        long revision = revision();
+
+        FreshnessDecay decay = new FreshnessDecay();
+        FreshnessDecay.Result seeded = decay.run(today);
+        assertEquals(1, seeded.visited());
+        assertEquals(0, seeded.changed());
+        assertEquals(revision, revision());
+
+        decay.run(today.plusDays(1));
+        Flower tulip = DatabaseStorage.loadAllFlowers().get(8);
+        assertEquals(60, tulip.getFreshnessLevel());
+    }
+
+    @Test
+    @DisplayName("Should refresh a database-backed catalog after a run")
+    void testNotifiesCatalog() throws SQLException {
+        try (FlowerCatalog catalog = FlowerCatalog.forDatabase(Duration.ofHours(1))) {
+            int before = catalog.getFlowers().get(0).getFreshnessLevel();
+            new FreshnessDecay().run(today.plusDays(5));
+            assertTrue(catalog.getFlowers().get(0).getFreshnessLevel() < before);
+        }
+    }
+
+    @Test
+    @DisplayName("Should run on a schedule until closed")
+    void testSchedule() throws Exception {
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE flowers SET freshness_day = NULL, initial_freshness = NULL");
+        }
+        try (FreshnessDecay decay = new FreshnessDecay()) {
+            decay.schedule(Duration.ofHours(1));
+            assertThrows(IllegalStateException.class, () -> decay.schedule(Duration.ofHours(1)));
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (unanchored() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+        }
+        assertEquals(0, unanchored());
+    }
+
+    private static int unanchored() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM flowers WHERE freshness_day IS NULL")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
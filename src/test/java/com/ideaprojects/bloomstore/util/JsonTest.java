@@ -0,0 +1,73 @@
+package com.ideaprojects.bloomstore.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Json Tests")
+class JsonTest {
+
+    @Test
+    @DisplayName("Should write maps, lists and scalars")
+    void testStringify() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("name", "Rose \"red\"\n");
+        value.put("price", 3.5);
+        value.put("count", 2);
+        value.put("fragrant", true);
+        value.put("color", null);
+        value.put("ids", List.of(1, 2));
+        value.put("nan", Double.NaN);
+
+        assertEquals("{\"name\":\"Rose \\\"red\\\"\\n\",\"price\":3.5,\"count\":2,\"fragrant\":true,"
+                + "\"color\":null,\"ids\":[1,2],\"nan\":null}", Json.stringify(value));
+    }
+
+    @Test
+    @DisplayName("Should parse what it writes")
+    void testRoundTrip() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("text", "tab\t quote\" unicode \u00e9 \u0001");
+        value.put("long", 9_000_000_000L);
+        value.put("double", -1.25e-3);
+        value.put("list", Arrays.asList(true, false, null, List.of()));
+        value.put("nested", Map.of("empty", Map.of()));
+
+        assertEquals(value, Json.parse(Json.stringify(value)));
+    }
+
+    @Test
+    @DisplayName("Should parse escapes and whitespace")
+    void testParse() {
+        Map<String, Object> parsed = Json.parseObject(" { \"a\" : [ 1 , 2.5 , \"\\u0041\\/\" ] } ");
+        assertEquals(List.of(1L, 2.5, "A/"), parsed.get("a"));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed input")
+    void testMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> Json.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\": }"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("[1, 2"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{} extra"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("\"unterminated"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("1.2.3"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("[]"));
+    }
+
+    @Test
+    @DisplayName("Should reject nesting deeper than the limit instead of overflowing the stack")
+    void testDepthLimit() {
+        String deepest = "[".repeat(Json.MAX_DEPTH) + "]".repeat(Json.MAX_DEPTH);
+        assertNotNull(Json.parse(deepest));
+        assertThrows(IllegalArgumentException.class,
+                () -> Json.parse("[".repeat(Json.MAX_DEPTH + 1) + "]".repeat(Json.MAX_DEPTH + 1)));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\":".repeat(100_000)));
+    }
+}
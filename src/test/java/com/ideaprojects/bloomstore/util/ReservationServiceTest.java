@@ -0,0 +1,137 @@
+package com.ideaprojects.bloomstore.util;
+
+import com.ideaprojects.bloomstore.model.Flower;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Reservation Service Tests")
+class ReservationServiceTest {
+    private static final int BUILDERS = 200;
+
+    @TempDir
+    Path tempDir;
+
+    private String previousDatabase;
+    private ReservationService reservations;
+    private int flowerId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        previousDatabase = DatabaseUtil.getDatabasePath();
+        DatabaseUtil.useDatabase(tempDir.resolve("reservations.db").toString());
+        DatabaseUtil.initializeDatabase();
+        DatabaseStorage.initializeSampleFlowers();
+        reservations = new ReservationService();
+        flowerId = DatabaseStorage.loadAllFlowers().get(0).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseUtil.useDatabase(previousDatabase);
+    }
+
+    @Test
+    @DisplayName("Should take stock on reserve and keep it on commit")
+    void testReserveAndCommit() throws SQLException {
+        assertEquals(DatabaseStorage.SAMPLE_STOCK, reservations.getStock(flowerId));
+
+        ReservationService.Reservation reservation = reservations.reserve(flowerId, 3).orElseThrow();
+        assertEquals(DatabaseStorage.SAMPLE_STOCK - 3, reservations.getStock(flowerId));
+        assertEquals(ReservationService.Status.RESERVED, reservations.getStatus(reservation.id()));
+
+        reservations.commit(reservation.id());
+        assertEquals(ReservationService.Status.COMMITTED, reservations.getStatus(reservation.id()));
+        assertEquals(DatabaseStorage.SAMPLE_STOCK - 3, reservations.getStock(flowerId));
+        assertThrows(IllegalStateException.class, () -> reservations.release(reservation.id()));
+    }
+
+    @Test
+    @DisplayName("Should return stock on release exactly once")
+    void testRelease() throws SQLException {
+        ReservationService.Reservation reservation = reservations.reserve(flowerId, 5).orElseThrow();
+        reservations.release(reservation.id());
+
+        assertEquals(DatabaseStorage.SAMPLE_STOCK, reservations.getStock(flowerId));
+        assertThrows(IllegalStateException.class, () -> reservations.release(reservation.id()));
+        assertThrows(IllegalStateException.class, () -> reservations.commit(reservation.id()));
+        assertEquals(DatabaseStorage.SAMPLE_STOCK, reservations.getStock(flowerId));
+    }
+
+    @Test
+    @DisplayName("Should refuse reservations beyond the stock")
+    void testInsufficientStock() throws SQLException {
+        assertTrue(reservations.reserve(flowerId, DatabaseStorage.SAMPLE_STOCK + 1).isEmpty());
+        assertTrue(reservations.reserve(flowerId, DatabaseStorage.SAMPLE_STOCK).isPresent());
+        assertTrue(reservations.reserve(flowerId, 1).isEmpty());
+        assertEquals(0, reservations.getStock(flowerId));
+
+        assertThrows(IllegalArgumentException.class, () -> reservations.reserve(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> reservations.reserve(flowerId, 0));
+        assertThrows(IllegalArgumentException.class, () -> reservations.commit(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should release holds older than the given age")
+    void testReleaseExpired() throws SQLException {
+        reservations.reserve(flowerId, 2).orElseThrow();
+        assertEquals(0, reservations.releaseExpired(Duration.ofHours(1)));
+        assertEquals(1, reservations.releaseExpired(Duration.ofSeconds(-1)));
+        assertEquals(DatabaseStorage.SAMPLE_STOCK, reservations.getStock(flowerId));
+    }
+
+    @Test
+    @DisplayName("Should never oversell under hundreds of concurrent builders")
+    void testConcurrentBuilders() throws Exception {
+        List<Flower> flowers = DatabaseStorage.loadAllFlowers();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int b = 0; b < BUILDERS; b++) {
+                int builder = b;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    // Every builder wants the hot first flower plus one other
+                    int sold = 0;
+                    Optional<ReservationService.Reservation> hot = reservations.reserve(flowerId, 1);
+                    if (hot.isPresent()) {
+                        reservations.commit(hot.get().id());
+                        sold++;
+                    }
+                    int other = flowers.get(1 + builder % (flowers.size() - 1)).getId();
+                    reservations.reserve(other, 1).ifPresent(r -> {
+                        try {
+                            reservations.release(r.id());
+                        } catch (SQLException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    });
+                    return sold;
+                }));
+            }
+            start.countDown();
+        }
+
+        int sold = 0;
+        for (Future<Integer> result : results) sold += result.get();
+
+        assertEquals(DatabaseStorage.SAMPLE_STOCK, sold);
+        assertEquals(0, reservations.getStock(flowerId));
+        for (Flower f : flowers.subList(1, flowers.size())) {
+            assertEquals(DatabaseStorage.SAMPLE_STOCK, reservations.getStock(f.getId()));
+        }
+    }
+}
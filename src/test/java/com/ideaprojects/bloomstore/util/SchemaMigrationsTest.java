@@ -0,0 +1,177 @@
+package com.ideaprojects.bloomstore.util;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Schema Migrations Tests")
+class SchemaMigrationsTest {
+    @TempDir
+    Path tempDir;
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite:" + tempDir.resolve("migrations.db"));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    @DisplayName("Should apply all migrations to an empty database")
+    void testMigrateEmptyDatabase() throws SQLException {
+        int applied = SchemaMigrations.migrate(conn);
+
+        assertEquals(SchemaMigrations.all().size(), applied);
+        assertEquals(SchemaMigrations.latestVersion(), SchemaMigrations.currentVersion(conn));
+    }
+
+    @Test
+    @DisplayName("Should not reapply migrations")
+    void testMigrateIsIdempotent() throws SQLException {
+        SchemaMigrations.migrate(conn);
+
+        assertEquals(0, SchemaMigrations.migrate(conn));
+        assertEquals(SchemaMigrations.latestVersion(), SchemaMigrations.currentVersion(conn));
+    }
+
+    @Test
+    @DisplayName("Should upgrade a database created before versioning")
+    void testMigrateLegacyDatabase() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE bouquets (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT, created_date TEXT NOT NULL)");
+            stmt.execute("INSERT INTO bouquets (name, created_date) VALUES ('Legacy', '2025-10-01')");
+        }
+
+        SchemaMigrations.migrate(conn);
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT name FROM bouquets")) {
+            assertTrue(rs.next());
+            assertEquals("Legacy", rs.getString(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Should give flowers stored before stock was tracked no stock")
+    void testStockStartsEmpty() throws SQLException {
+        SchemaMigrations.migrateTo(conn, 5);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO flowers (type, name, price, stem_length_cm, cut_date, freshness_level) "
+                    + "VALUES ('Rose', 'Rose', 3.5, 40, '2025-10-01', 90)");
+        }
+
+        SchemaMigrations.migrateTo(conn, 6);
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT stock FROM flowers")) {
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Should backfill bouquet totals for bouquets saved before they were stored")
+    void testBackfillBouquetTotals() throws SQLException {
+        SchemaMigrations.migrateTo(conn, 8);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO bouquets (id, name, created_date) VALUES (1, 'Old', '2025-10-01'), "
+                    + "(2, 'Empty', '2025-10-01')");
+            stmt.execute("INSERT INTO bouquet_flowers (bouquet_id, flower_type, price, stem_length_cm, cut_date, "
+                    + "freshness_level) VALUES (1, 'Rose', 3.5, 40, '2025-10-01', 90), "
+                    + "(1, 'Tulip', 1.5, 30, '2025-10-01', 70)");
+            stmt.execute("INSERT INTO bouquet_accessories (bouquet_id, accessory_name) VALUES (1, 'WRAPPING'), "
+                    + "(1, 'RIBBON')");
+        }
+
+        assertEquals(1, SchemaMigrations.migrateTo(conn, 9));
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT total_price, flower_count, accessory_count, avg_freshness "
+                     + "FROM bouquets ORDER BY id")) {
+            assertTrue(rs.next());
+            assertEquals(3.5 + 1.5 + 5.0 + 1.5, rs.getDouble(1), 1e-9);
+            assertEquals(2, rs.getInt(2));
+            assertEquals(2, rs.getInt(3));
+            assertEquals(80.0, rs.getDouble(4), 1e-9);
+            assertTrue(rs.next());
+            assertEquals(0.0, rs.getDouble(1));
+            assertEquals(0, rs.getInt(2));
+        }
+    }
+
+    @Test
+    @DisplayName("Should bump the catalog revision once per read, for any catalog write")
+    void testCatalogRevisionTriggers() throws SQLException {
+        SchemaMigrations.migrate(conn);
+        long revision = revision();
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO flowers (type, name, price, stem_length_cm, cut_date, freshness_level) "
+                    + "VALUES ('Rose', 'Rose', 3.0, 40.0, '2025-10-01', 90), "
+                    + "('Tulip', 'Tulip', 1.5, 30.0, '2025-10-01', 95)");
+            stmt.executeUpdate("UPDATE flowers SET price = price + 1");
+            assertEquals(revision + 1, revision());
+
+            // Stock is not part of the catalog
+            stmt.executeUpdate("UPDATE flowers SET stock = 5");
+            assertEquals(revision + 1, revision());
+
+            stmt.executeUpdate("DELETE FROM flowers WHERE type = 'Tulip'");
+            assertEquals(revision + 2, revision());
+        }
+    }
+
+    // Re-arms the triggers and reads the revision, as DatabaseStorage.getCatalogRevision does
+    private long revision() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE catalog_revision SET observed = 1 WHERE id = 1 AND observed = 0");
+            try (ResultSet rs = stmt.executeQuery("SELECT revision FROM catalog_revision WHERE id = 1")) {
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should create indexes on the bouquet child tables")
+    void testIndexesCreated() throws SQLException {
+        SchemaMigrations.migrate(conn);
+
+        assertTrue(indexExists("idx_bouquet_flowers_bouquet_id"));
+        assertTrue(indexExists("idx_bouquet_accessories_bouquet_id"));
+        assertTrue(indexExists("idx_bouquets_created_date"));
+    }
+
+    @Test
+    @DisplayName("Should use the index when loading bouquet flowers")
+    void testBouquetFlowersLookupUsesIndex() throws SQLException {
+        SchemaMigrations.migrate(conn);
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "EXPLAIN QUERY PLAN SELECT * FROM bouquet_flowers WHERE bouquet_id = 1")) {
+            assertTrue(rs.next());
+            assertTrue(rs.getString("detail").contains("idx_bouquet_flowers_bouquet_id"));
+        }
+    }
+
+    private boolean indexExists(String name) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT name FROM sqlite_master WHERE type='index' AND name='" + name + "'")) {
+            return rs.next();
+        }
+    }
+}